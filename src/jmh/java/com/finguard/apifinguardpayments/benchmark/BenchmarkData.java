@@ -0,0 +1,51 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.RecurrenceType;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Representative payloads shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static Map<String, String> metadata(int entries) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            metadata.put("key-" + i, "value-" + i);
+        }
+        return metadata;
+    }
+
+    public static PaymentRequestDTO request(int metadataEntries) {
+        return new PaymentRequestDTO(new BigDecimal("1520.75"), Currency.BRL, PaymentMethod.PIX,
+                "payer-123456", "payee-654321", "Invoice 2024-0042", metadata(metadataEntries));
+    }
+
+    public static Payment payment(int metadataEntries) {
+        Payment payment = new Payment("txn-0b1f9c7e-5a1d-4d6e-9f0a-3c2b1a0f9e8d", new BigDecimal("1520.75"), Currency.BRL,
+                PaymentMethod.PIX, "payer-123456", "payee-654321", metadata(metadataEntries));
+        payment.setId(987654L);
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment.setRecurrence(RecurrenceType.ONCE);
+        payment.setDescription("Invoice 2024-0042");
+        payment.setPaymentGateway("stripe");
+        payment.setRefundedAmount(BigDecimal.ZERO);
+        payment.setRetryCount(0);
+        payment.setPaymentDate(LocalDateTime.of(2024, 5, 10, 14, 30));
+        payment.setCreatedAt(LocalDateTime.of(2024, 5, 10, 14, 29));
+        payment.setUpdatedAt(LocalDateTime.of(2024, 5, 10, 14, 31));
+        return payment;
+    }
+}
@@ -0,0 +1,62 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.FraudRuleEngine;
+import com.finguard.apifinguardpayments.application.FraudVerdict;
+import com.finguard.apifinguardpayments.domain.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of every active fraud rule against a new payment, as done on each create, including the
+ * per-rule timer and hit counter. Rules combine amount, currency, payment method and metadata comparisons and
+ * none of them match the payment, so every rule is walked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudRuleEngineBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int rules;
+
+    private FraudRuleEngine fraudRuleEngine;
+    private Payment payment;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringJoiner definitions = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < rules; i++) {
+            definitions.add("""
+                    {"id": "rule-%d", "riskScore": 0.9, "when": {"all": [
+                      {"field": "amount", "op": "gt", "value": "%d"},
+                      {"field": "currency", "op": "in", "values": ["JPY", "BRL"]},
+                      {"field": "paymentMethod", "op": "ne", "value": "PIX"},
+                      {"field": "metadata.country", "op": "ne", "value": "BR"}]}}
+                    """.formatted(i, 10 + i));
+        }
+        Path file = Files.createTempFile("fraud-rules", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, definitions.toString());
+
+        fraudRuleEngine = new FraudRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), new SimpleMeterRegistry(),
+                true, file.toUri().toString(), new BigDecimal("0.8"));
+        payment = BenchmarkData.payment(5);
+    }
+
+    @Benchmark
+    public FraudVerdict evaluate() {
+        return fraudRuleEngine.evaluate(payment);
+    }
+}
@@ -0,0 +1,51 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between requests, entities and responses, including the metadata copy made when it is set on an entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentMapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int metadataEntries;
+
+    private PaymentMapper paymentMapper;
+    private PaymentRequestDTO request;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        paymentMapper = new PaymentMapper();
+        request = BenchmarkData.request(metadataEntries);
+        payment = BenchmarkData.payment(metadataEntries);
+    }
+
+    @Benchmark
+    public Payment toEntity() {
+        return paymentMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public PaymentResponseDTO toResponseDTO() {
+        return paymentMapper.toResponseDTO(payment);
+    }
+
+    @Benchmark
+    public Map<String, String> getMetadata() {
+        return payment.getMetadata();
+    }
+}
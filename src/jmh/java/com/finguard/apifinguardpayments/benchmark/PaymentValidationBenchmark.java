@@ -0,0 +1,32 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.finguard.apifinguardpayments.application.PaymentRequestValidator;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validation run on every create, including the batch and asynchronous endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentValidationBenchmark {
+
+    private PaymentRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkData.request(5);
+    }
+
+    @Benchmark
+    public PaymentRequestDTO validatePaymentRequest() {
+        PaymentRequestValidator.validate(request);
+        return request;
+    }
+}
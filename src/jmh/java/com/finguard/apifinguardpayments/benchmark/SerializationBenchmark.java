@@ -0,0 +1,88 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finguard.apifinguardpayments.config.RedisConfig;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer round trips for each codec configured in {@link RedisConfig}, and the
+ * Jackson serialization done by the REST layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"5"})
+    private int metadataEntries;
+
+    @Param({"json", "binary"})
+    private String codec;
+
+    private RedisSerializer<Object> redisSerializer;
+    private ObjectMapper objectMapper;
+    private Payment payment;
+    private PaymentResponseDTO snapshot;
+    private byte[] serializedStatus;
+    private byte[] serializedSnapshot;
+
+    @Setup
+    public void setUp() {
+        redisSerializer = RedisConfig.valueSerializer(codec);
+        // Same settings Spring Boot applies to the MVC ObjectMapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        payment = BenchmarkData.payment(metadataEntries);
+        snapshot = new PaymentMapper().toResponseDTO(payment);
+        serializedStatus = redisSerializer.serialize("COMPLETED");
+        serializedSnapshot = redisSerializer.serialize(snapshot);
+    }
+
+    @Benchmark
+    public byte[] redisSerializeStatus() {
+        return redisSerializer.serialize("COMPLETED");
+    }
+
+    @Benchmark
+    public Object redisDeserializeStatus() {
+        return redisSerializer.deserialize(serializedStatus);
+    }
+
+    @Benchmark
+    public byte[] redisSerializeSnapshot() {
+        return redisSerializer.serialize(snapshot);
+    }
+
+    @Benchmark
+    public Object redisDeserializeSnapshot() {
+        return redisSerializer.deserialize(serializedSnapshot);
+    }
+
+    @Benchmark
+    public Object redisSnapshotRoundTrip() {
+        return redisSerializer.deserialize(redisSerializer.serialize(snapshot));
+    }
+
+    @Benchmark
+    public String jacksonPayment() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payment);
+    }
+
+    @Benchmark
+    public String jacksonPaymentResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(snapshot);
+    }
+}
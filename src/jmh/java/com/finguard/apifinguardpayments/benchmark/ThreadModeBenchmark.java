@@ -0,0 +1,92 @@
+package com.finguard.apifinguardpayments.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the platform-thread mode (Tomcat's 200 worker threads) and the virtual-thread mode
+ * ({@code spring.threads.virtual.enabled}) for a burst of concurrent requests. Each request reads from Redis,
+ * runs a query holding one of {@code poolSize} database connections, and serializes the payment response.
+ * Backend latency is simulated; the connection pool is the same in both modes, so the result shows how much
+ * the thread mode matters once the pool, not the thread count, is the limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final Duration REDIS_LATENCY = Duration.ofMillis(2);
+    private static final Duration DB_LATENCY = Duration.ofMillis(3);
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    // Hikari's default pool size, and one connection per Tomcat thread
+    @Param({"10", "200"})
+    private int poolSize;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+    private ObjectMapper objectMapper;
+    private PaymentResponseDTO response;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connectionPool = new Semaphore(poolSize, true);
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        response = new PaymentMapper().toResponseDTO(BenchmarkData.payment(5));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int requests() throws Exception {
+        List<Future<String>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        int bytes = 0;
+        for (Future<String> future : futures) {
+            bytes += future.get().length();
+        }
+        return bytes;
+    }
+
+    private String handleRequest() throws Exception {
+        Thread.sleep(REDIS_LATENCY);
+        connectionPool.acquire();
+        try {
+            Thread.sleep(DB_LATENCY);
+        } finally {
+            connectionPool.release();
+        }
+        return objectMapper.writeValueAsString(response);
+    }
+}
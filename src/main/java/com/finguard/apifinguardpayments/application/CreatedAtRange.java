@@ -0,0 +1,22 @@
+package com.finguard.apifinguardpayments.application;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Created-at bounds of a payment query. Missing bounds default to the last {@link #DEFAULT_WINDOW}, so every
+ * query on the monthly-partitioned payments table reads a bounded set of partitions.
+ */
+public record CreatedAtRange(LocalDateTime start, LocalDateTime end) {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofDays(90);
+
+    public static CreatedAtRange of(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minus(DEFAULT_WINDOW);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        return new CreatedAtRange(start, end);
+    }
+}
@@ -0,0 +1,306 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.FraudAnalysis;
+import com.finguard.apifinguardpayments.domain.FraudRescoreJob;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.infrastructure.FraudAnalysisRepository;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreChunkView;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreJobRepository;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreProgressView;
+import com.finguard.apifinguardpayments.infrastructure.PaymentIdRangeView;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.web.response.FraudRescoreProgressDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Rescores the payments created in a date range against the current fraud rules, e.g. after a rule change.
+ * The range is split into chunks of consecutive ids that a bounded pool of virtual threads
+ * ({@code payments.fraud.rescore.parallelism}) scores in parallel, each chunk streamed from a database cursor in
+ * its own transaction. Matches are written to {@code fraud_analysis} in JDBC batches and the chunk is checkpointed
+ * in the same transaction, so a failed or interrupted job resumes from its unfinished chunks without writing any
+ * analysis twice. Payments themselves are not changed.
+ */
+@Service
+public class FraudRescoringService {
+
+    public static final String FLAGGED_BY = "rule-rescore";
+
+    private static final Logger log = LoggerFactory.getLogger(FraudRescoringService.class);
+
+    private final PaymentRepository paymentRepository;
+    private final FraudRescoreJobRepository fraudRescoreJobRepository;
+    private final FraudAnalysisRepository fraudAnalysisRepository;
+    private final FraudRuleEngine fraudRuleEngine;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter scoredRowsCounter;
+    private final Counter flaggedRowsCounter;
+    private final Timer chunkTimer;
+    private final long chunkSize;
+    private final int parallelism;
+    private final int batchSize;
+
+    private volatile Run run;
+
+    public FraudRescoringService(
+            PaymentRepository paymentRepository,
+            FraudRescoreJobRepository fraudRescoreJobRepository,
+            FraudAnalysisRepository fraudAnalysisRepository,
+            FraudRuleEngine fraudRuleEngine,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.fraud.rescore.chunk-size:10000}") long chunkSize,
+            @Value("${payments.fraud.rescore.parallelism:4}") int parallelism,
+            @Value("${payments.fraud.rescore.batch-size:500}") int batchSize
+    ) {
+        if (chunkSize < 1 || parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("payments.fraud.rescore chunk-size, parallelism and batch-size must be positive.");
+        }
+        this.paymentRepository = paymentRepository;
+        this.fraudRescoreJobRepository = fraudRescoreJobRepository;
+        this.fraudAnalysisRepository = fraudAnalysisRepository;
+        this.fraudRuleEngine = fraudRuleEngine;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scoredRowsCounter = meterRegistry.counter("payment.fraud.rescore.rows");
+        this.flaggedRowsCounter = meterRegistry.counter("payment.fraud.rescore.flagged");
+        this.chunkTimer = meterRegistry.timer("payment.fraud.rescore.chunk");
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        Gauge.builder("payment.fraud.rescore.progress", this, FraudRescoringService::progressRatio)
+                .description("Share of the running rescoring job's chunks that are checkpointed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates a job for the payments created in the range and starts it in the background.
+     * @return the id of the new job
+     */
+    public synchronized long start(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        ensureIdle();
+
+        FraudRescoreJob job = transactionTemplate.execute(status -> {
+            FraudRescoreJob created = fraudRescoreJobRepository.save(new FraudRescoreJob(startDate, endDate));
+            PaymentIdRangeView ids = paymentRepository.findIdRangeByCreatedAtBetween(startDate, endDate);
+            if (ids != null && ids.getMinId() != null) {
+                fraudRescoreJobRepository.createChunks(created.getId(), ids.getMinId(), ids.getMaxId(), chunkSize);
+            }
+            return created;
+        });
+        launch(job);
+        return job.getId();
+    }
+
+    /**
+     * Runs the unfinished chunks of a failed or interrupted job again, in the background.
+     */
+    public synchronized void resume(long jobId) {
+        ensureIdle();
+        FraudRescoreJob job = fraudRescoreJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Fraud rescoring job not found: " + jobId));
+        if (job.getStatus() == FraudRescoreJob.Status.COMPLETED) {
+            throw new IllegalStateException("Fraud rescoring job " + jobId + " is already completed.");
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                fraudRescoreJobRepository.updateStatus(jobId, FraudRescoreJob.Status.RUNNING, null));
+        launch(job);
+    }
+
+    /**
+     * @return the progress of a job as checkpointed in the database, with the throughput of its last run on this node
+     */
+    public Optional<FraudRescoreProgressDTO> progress(long jobId) {
+        return fraudRescoreJobRepository.findById(jobId).map(this::toProgress);
+    }
+
+    /**
+     * @return the progress of the most recently created job
+     */
+    public Optional<FraudRescoreProgressDTO> latestProgress() {
+        return fraudRescoreJobRepository.findFirstByOrderByIdDesc().map(this::toProgress);
+    }
+
+    /**
+     * Waits for the job running on this node, if any, to finish.
+     */
+    void awaitRun() throws InterruptedException {
+        Run current = run;
+        if (current != null) {
+            current.thread.join();
+        }
+    }
+
+    private void ensureIdle() {
+        Run current = run;
+        if (current != null && current.finishedNanos == 0) {
+            throw new IllegalStateException("Fraud rescoring job " + current.jobId + " is still running.");
+        }
+    }
+
+    private void launch(FraudRescoreJob job) {
+        long jobId = job.getId();
+        FraudRescoreProgressView checkpoint = fraudRescoreJobRepository.findProgress(jobId);
+        List<FraudRescoreChunkView> pending = fraudRescoreJobRepository.findPendingChunks(jobId);
+
+        Run current = new Run(job, checkpoint.getTotalChunks(), checkpoint.getCompletedChunks());
+        current.thread = Thread.ofVirtual().name("fraud-rescore-" + jobId).unstarted(() -> execute(current, pending));
+        run = current;
+        current.thread.start();
+        log.info("Fraud rescoring job {} started | Range: {} to {} | Chunks: {} pending of {}",
+                jobId, job.getStartDate(), job.getEndDate(), pending.size(), checkpoint.getTotalChunks());
+    }
+
+    private void execute(Run current, List<FraudRescoreChunkView> pending) {
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("fraud-rescore-" + current.jobId + "-worker-", 0).factory())) {
+            for (FraudRescoreChunkView chunk : pending) {
+                workers.execute(() -> rescoreChunk(current, chunk));
+            }
+        }
+
+        FraudRescoreJob.Status outcome = current.failedChunks.sum() == 0
+                ? FraudRescoreJob.Status.COMPLETED
+                : FraudRescoreJob.Status.FAILED;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    fraudRescoreJobRepository.updateStatus(current.jobId, outcome, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.error("❌ Could not record the outcome of fraud rescoring job {} | Error: {}", current.jobId, e.getMessage());
+        } finally {
+            current.finishedNanos = System.nanoTime();
+        }
+
+        if (outcome == FraudRescoreJob.Status.COMPLETED) {
+            log.info("✅ Fraud rescoring job {} completed | Rows: {} | Rows/s: {}",
+                    current.jobId, current.rowsScored.sum(), Math.round(current.rowsPerSecond()));
+        } else {
+            log.warn("⚠️ Fraud rescoring job {} finished with {} failed chunks; resume it to retry them",
+                    current.jobId, current.failedChunks.sum());
+        }
+    }
+
+    private void rescoreChunk(Run current, FraudRescoreChunkView chunk) {
+        try {
+            ChunkResult result = chunkTimer.record(() -> transactionTemplate.execute(status -> scoreChunk(current, chunk)));
+            current.completedChunks.incrementAndGet();
+            current.rowsScored.add(result.scored());
+            scoredRowsCounter.increment(result.scored());
+            flaggedRowsCounter.increment(result.flagged());
+        } catch (RuntimeException e) {
+            current.failedChunks.increment();
+            log.error("❌ Fraud rescoring chunk failed | Job: {} | Chunk: {} | Ids: {} to {} | Error: {}",
+                    current.jobId, chunk.getChunkIndex(), chunk.getFromId(), chunk.getToId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Scores one chunk and checkpoints it. Flagged payments are buffered and inserted every {@code batchSize}
+     * analyses; the persistence context is cleared as often, so memory is bounded by the batch size.
+     */
+    private ChunkResult scoreChunk(Run current, FraudRescoreChunkView chunk) {
+        long scored = 0;
+        long flagged = 0;
+        List<FraudAnalysis> analyses = new ArrayList<>(batchSize);
+        try (Stream<Payment> payments = paymentRepository.streamForRescoring(
+                current.startDate, current.endDate, chunk.getFromId(), chunk.getToId())) {
+            Iterator<Payment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                Payment payment = iterator.next();
+                FraudVerdict verdict = fraudRuleEngine.evaluate(payment);
+                if (verdict.fraudulent() || verdict.needsReview()) {
+                    analyses.add(new FraudAnalysis(payment, verdict.reason(), verdict.riskScore(), FLAGGED_BY));
+                    flagged++;
+                }
+                if (++scored % batchSize == 0) {
+                    fraudAnalysisRepository.insertAll(analyses);
+                    analyses.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        fraudAnalysisRepository.insertAll(analyses);
+
+        if (fraudRescoreJobRepository.completeChunk(current.jobId, chunk.getChunkIndex(), scored, flagged) == 0) {
+            throw new IllegalStateException("Chunk " + chunk.getChunkIndex() + " was already completed by another run.");
+        }
+        return new ChunkResult(scored, flagged);
+    }
+
+    private FraudRescoreProgressDTO toProgress(FraudRescoreJob job) {
+        FraudRescoreProgressView checkpoint = fraudRescoreJobRepository.findProgress(job.getId());
+        Run current = run;
+        double rowsPerSecond = current != null && current.jobId == job.getId() ? current.rowsPerSecond() : 0;
+        return new FraudRescoreProgressDTO(job.getId(), job.getStatus().name(), job.getStartDate(), job.getEndDate(),
+                checkpoint.getTotalChunks(), checkpoint.getCompletedChunks(), checkpoint.getRowsScored(),
+                checkpoint.getRowsFlagged(), rowsPerSecond, job.getCreatedAt(), job.getFinishedAt());
+    }
+
+    private double progressRatio() {
+        Run current = run;
+        if (current == null || current.finishedNanos != 0) {
+            return Double.NaN;
+        }
+        return current.totalChunks == 0 ? 1 : (double) current.completedChunks.get() / current.totalChunks;
+    }
+
+    private record ChunkResult(long scored, long flagged) {
+    }
+
+    /**
+     * One execution of a job on this node; a resumed job gets a new one.
+     */
+    private static final class Run {
+
+        final long jobId;
+        final LocalDateTime startDate;
+        final LocalDateTime endDate;
+        final long totalChunks;
+        final AtomicInteger completedChunks;
+        final LongAdder failedChunks = new LongAdder();
+        final LongAdder rowsScored = new LongAdder();
+        final long startedNanos = System.nanoTime();
+        volatile long finishedNanos;
+        Thread thread;
+
+        Run(FraudRescoreJob job, long totalChunks, long completedChunks) {
+            this.jobId = job.getId();
+            this.startDate = job.getStartDate();
+            this.endDate = job.getEndDate();
+            this.totalChunks = totalChunks;
+            this.completedChunks = new AtomicInteger((int) completedChunks);
+        }
+
+        double rowsPerSecond() {
+            long end = finishedNanos == 0 ? System.nanoTime() : finishedNanos;
+            double seconds = (end - startedNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            return seconds <= 0 ? 0 : rowsScored.sum() / seconds;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.application.FraudRuleDefinition.Condition;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiles rule conditions into predicate trees over {@link Payment}.
+ * Field accessors, operators and constants are resolved once at compile time (enum constants, parsed amounts,
+ * hash sets for {@code in}), so evaluating a rule is a few field reads and comparisons with no parsing or lookups
+ * by name. Invalid conditions are rejected with an {@link IllegalArgumentException}.
+ */
+final class FraudRuleCompiler {
+
+    private static final String METADATA_PREFIX = "metadata.";
+
+    private FraudRuleCompiler() {
+    }
+
+    static Predicate<Payment> compile(Condition condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("Rule condition is required.");
+        }
+        int kinds = (condition.all() != null ? 1 : 0) + (condition.any() != null ? 1 : 0)
+                + (condition.not() != null ? 1 : 0) + (condition.field() != null ? 1 : 0);
+        if (kinds != 1) {
+            throw new IllegalArgumentException("A condition must be exactly one of all, any, not or a field comparison.");
+        }
+        if (condition.all() != null) {
+            Predicate<Payment>[] parts = compileAll(condition.all());
+            return payment -> {
+                for (Predicate<Payment> part : parts) {
+                    if (!part.test(payment)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (condition.any() != null) {
+            Predicate<Payment>[] parts = compileAll(condition.any());
+            return payment -> {
+                for (Predicate<Payment> part : parts) {
+                    if (part.test(payment)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        if (condition.not() != null) {
+            return compile(condition.not()).negate();
+        }
+        return compileComparison(condition);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Payment>[] compileAll(List<Condition> conditions) {
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("all/any need at least one condition.");
+        }
+        return conditions.stream().map(FraudRuleCompiler::compile).toArray(Predicate[]::new);
+    }
+
+    private static Predicate<Payment> compileComparison(Condition condition) {
+        String field = condition.field();
+        Operator op = Operator.of(condition.op());
+        if (field.startsWith(METADATA_PREFIX) && field.length() > METADATA_PREFIX.length()) {
+            String key = field.substring(METADATA_PREFIX.length());
+            return textComparison(payment -> payment.getMetadata().get(key), field, op, condition);
+        }
+        return switch (field) {
+            case "amount" -> amountComparison(op, condition);
+            case "currency" -> enumComparison(Payment::getCurrency, Currency.class, field, op, condition);
+            case "paymentMethod" -> enumComparison(Payment::getPaymentMethod, PaymentMethod.class, field, op, condition);
+            case "payerId" -> textComparison(Payment::getPayerId, field, op, condition);
+            case "payeeId" -> textComparison(Payment::getPayeeId, field, op, condition);
+            case "description" -> textComparison(Payment::getDescription, field, op, condition);
+            default -> throw new IllegalArgumentException("Unknown rule field: " + field);
+        };
+    }
+
+    private static Predicate<Payment> amountComparison(Operator op, Condition condition) {
+        if (op == Operator.IN || op == Operator.NOT_IN) {
+            BigDecimal[] amounts = values(condition).stream().map(FraudRuleCompiler::amount).toArray(BigDecimal[]::new);
+            boolean in = op == Operator.IN;
+            return payment -> {
+                BigDecimal amount = payment.getAmount();
+                boolean found = false;
+                if (amount != null) {
+                    for (BigDecimal candidate : amounts) {
+                        if (candidate.compareTo(amount) == 0) {
+                            found = true;
+                            break;
+                        }
+                    }
+                }
+                return found == in;
+            };
+        }
+        BigDecimal bound = amount(value(condition));
+        return switch (op) {
+            case EQ -> payment -> payment.getAmount() != null && payment.getAmount().compareTo(bound) == 0;
+            case NE -> payment -> payment.getAmount() == null || payment.getAmount().compareTo(bound) != 0;
+            case GT -> payment -> payment.getAmount() != null && payment.getAmount().compareTo(bound) > 0;
+            case GTE -> payment -> payment.getAmount() != null && payment.getAmount().compareTo(bound) >= 0;
+            case LT -> payment -> payment.getAmount() != null && payment.getAmount().compareTo(bound) < 0;
+            case LTE -> payment -> payment.getAmount() != null && payment.getAmount().compareTo(bound) <= 0;
+            case IN, NOT_IN -> throw new IllegalStateException("Handled above.");
+        };
+    }
+
+    private static <E extends Enum<E>> Predicate<Payment> enumComparison(Function<Payment, E> getter, Class<E> type,
+                                                                        String field, Operator op, Condition condition) {
+        return switch (op) {
+            case EQ -> {
+                E constant = constant(type, value(condition));
+                yield payment -> getter.apply(payment) == constant;
+            }
+            case NE -> {
+                E constant = constant(type, value(condition));
+                yield payment -> getter.apply(payment) != constant;
+            }
+            case IN, NOT_IN -> {
+                Set<E> constants = EnumSet.noneOf(type);
+                values(condition).forEach(value -> constants.add(constant(type, value)));
+                boolean in = op == Operator.IN;
+                yield payment -> {
+                    E actual = getter.apply(payment);
+                    return (actual != null && constants.contains(actual)) == in;
+                };
+            }
+            default -> throw unsupported(field, op);
+        };
+    }
+
+    private static Predicate<Payment> textComparison(Function<Payment, String> getter, String field,
+                                                     Operator op, Condition condition) {
+        return switch (op) {
+            case EQ -> {
+                String expected = value(condition);
+                yield payment -> expected.equals(getter.apply(payment));
+            }
+            case NE -> {
+                String expected = value(condition);
+                yield payment -> !expected.equals(getter.apply(payment));
+            }
+            case IN, NOT_IN -> {
+                Set<String> expected = Set.copyOf(values(condition));
+                boolean in = op == Operator.IN;
+                yield payment -> {
+                    String actual = getter.apply(payment);
+                    return (actual != null && expected.contains(actual)) == in;
+                };
+            }
+            default -> throw unsupported(field, op);
+        };
+    }
+
+    private static String value(Condition condition) {
+        if (condition.value() == null) {
+            throw new IllegalArgumentException("Comparison on " + condition.field() + " needs a value.");
+        }
+        return condition.value();
+    }
+
+    private static List<String> values(Condition condition) {
+        if (condition.values() == null || condition.values().isEmpty() || condition.values().contains(null)) {
+            throw new IllegalArgumentException("Comparison on " + condition.field() + " needs a list of values.");
+        }
+        return condition.values();
+    }
+
+    private static BigDecimal amount(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount in rule: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + " in rule: " + value);
+        }
+    }
+
+    private static IllegalArgumentException unsupported(String field, Operator op) {
+        return new IllegalArgumentException("Operator " + op.name().toLowerCase(Locale.ROOT) + " is not supported on " + field + ".");
+    }
+
+    private enum Operator {
+        EQ, NE, GT, GTE, LT, LTE, IN, NOT_IN;
+
+        static Operator of(String op) {
+            if (op == null) {
+                throw new IllegalArgumentException("Comparison operator is required.");
+            }
+            try {
+                return valueOf(op.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown rule operator: " + op);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.finguard.apifinguardpayments.application;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A fraud rule as written in the rules file (see {@code fraud-rules.json}).
+ * A payment matching {@code when} is created as FRAUDULENT with {@code riskScore}.
+ * @param id unique rule id, used as the metric tag
+ * @param description why matching payments are suspicious; used as the fraud reason
+ * @param riskScore score stored with the fraud analysis
+ * @param when the condition a payment must match
+ */
+public record FraudRuleDefinition(String id, String description, BigDecimal riskScore, Condition when) {
+
+    /**
+     * Either a combination ({@code all}, {@code any} or {@code not}) or a comparison of one payment
+     * {@code field} with {@code value}, or with {@code values} for {@code in}/{@code not_in}.
+     * Fields are {@code amount}, {@code currency}, {@code paymentMethod}, {@code payerId}, {@code payeeId},
+     * {@code description} and {@code metadata.<key>}; operators are {@code eq}, {@code ne}, {@code gt}, {@code gte},
+     * {@code lt}, {@code lte} (amount only), {@code in} and {@code not_in}.
+     */
+    public record Condition(List<Condition> all, List<Condition> any, Condition not,
+                            String field, String op, String value, List<String> values) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.Payment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Declarative fraud rules evaluated on every new payment.
+ * Rules are read from a JSON file ({@code payments.fraud.rules.location}) at startup and compiled by
+ * {@link FraudRuleCompiler}. The file is checked again on an interval and, when its content changed, recompiled
+ * and swapped in as a whole; a file that fails to parse or compile is rejected and the previous rules stay active.
+ * Only a {@code file:} location can change at runtime: the default {@code classpath:} file is packaged in the jar,
+ * so it keeps the rules the application was built with.
+ * A match whose risk score reaches {@code payments.fraud.rules.block-threshold} flags the payment as fraudulent;
+ * a lower-scoring match only flags it for review.
+ * Every rule records its evaluation time ({@code payment.fraud.rule.evaluation}) and matches
+ * ({@code payment.fraud.rule.hit}), tagged with the rule id.
+ */
+@Component
+public class FraudRuleEngine {
+
+    public static final String FLAGGED_BY = "rule-engine";
+
+    private static final Logger log = LoggerFactory.getLogger(FraudRuleEngine.class);
+    private static final FraudVerdict NO_MATCH = FraudVerdict.clean(BigDecimal.ZERO);
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String location;
+    private final BigDecimal blockThreshold;
+
+    private volatile RuleSet ruleSet = new RuleSet(new byte[0], List.of());
+
+    public FraudRuleEngine(
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${payments.fraud.rules.enabled:true}") boolean enabled,
+            @Value("${payments.fraud.rules.location:classpath:fraud-rules.json}") String location,
+            @Value("${payments.fraud.rules.block-threshold:0.8}") BigDecimal blockThreshold
+    ) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.location = location;
+        this.blockThreshold = blockThreshold;
+        if (enabled) {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Invalid fraud rules at " + location + ": " + e.getMessage(), e);
+            }
+            log.info("✅ Fraud rules loaded | Location: {} | Rules: {}", location, ruleSet.rules().size());
+        }
+    }
+
+    /**
+     * Evaluates every active rule against the payment.
+     * @return the highest-scoring matching rule, fraudulent from the block threshold up and for review below it;
+     * clean when no rule matches
+     */
+    public FraudVerdict evaluate(Payment payment) {
+        CompiledRule matched = null;
+        for (CompiledRule rule : ruleSet.rules()) {
+            long start = System.nanoTime();
+            boolean hit = rule.condition().test(payment);
+            rule.evaluationTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (hit) {
+                rule.hitCounter().increment();
+                if (matched == null || rule.riskScore().compareTo(matched.riskScore()) > 0) {
+                    matched = rule;
+                }
+            }
+        }
+        if (matched == null) {
+            return NO_MATCH;
+        }
+        String reason = "Fraud rule " + matched.id() + ": " + matched.description();
+        return matched.riskScore().compareTo(blockThreshold) >= 0
+                ? FraudVerdict.flagged(matched.riskScore(), reason, FLAGGED_BY)
+                : FraudVerdict.review(matched.riskScore(), reason, FLAGGED_BY);
+    }
+
+    /**
+     * Reloads the rules file if its content changed since the last load.
+     */
+    @Scheduled(fixedDelayString = "${payments.fraud.rules.reload-interval:30s}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (load()) {
+                log.info("✅ Fraud rules reloaded | Location: {} | Rules: {}", location, ruleSet.rules().size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Fraud rules not reloaded, keeping the previous {} rules | Location: {} | Error: {}",
+                    ruleSet.rules().size(), location, e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the file changed and the new rules were installed
+     */
+    private synchronized boolean load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        byte[] source;
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                source = in.readAllBytes();
+            }
+        } else {
+            source = new byte[0];
+        }
+        RuleSet current = ruleSet;
+        if (Arrays.equals(source, current.source())) {
+            return false;
+        }
+
+        List<FraudRuleDefinition> definitions = source.length == 0
+                ? List.of()
+                : objectMapper.readValue(source, new TypeReference<List<FraudRuleDefinition>>() { });
+        List<CompiledRule> rules = compile(definitions);
+        ruleSet = new RuleSet(source, rules);
+        removeMetersOfDroppedRules(current.rules(), rules);
+        return true;
+    }
+
+    private List<CompiledRule> compile(List<FraudRuleDefinition> definitions) {
+        Set<String> ids = new HashSet<>();
+        List<CompiledRule> rules = new ArrayList<>(definitions.size());
+        for (FraudRuleDefinition definition : definitions) {
+            String id = definition.id();
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("Every fraud rule needs an id.");
+            }
+            if (!ids.add(id)) {
+                throw new IllegalArgumentException("Duplicate fraud rule id: " + id);
+            }
+            if (definition.riskScore() == null || definition.riskScore().signum() <= 0) {
+                throw new IllegalArgumentException("Fraud rule " + id + " needs a risk score greater than zero.");
+            }
+            Predicate<Payment> condition;
+            try {
+                condition = FraudRuleCompiler.compile(definition.when());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Fraud rule " + id + ": " + e.getMessage(), e);
+            }
+            rules.add(new CompiledRule(
+                    id,
+                    definition.description() == null ? id : definition.description(),
+                    definition.riskScore(),
+                    condition,
+                    meterRegistry.timer("payment.fraud.rule.evaluation", "rule", id),
+                    meterRegistry.counter("payment.fraud.rule.hit", "rule", id)
+            ));
+        }
+        return List.copyOf(rules);
+    }
+
+    private void removeMetersOfDroppedRules(List<CompiledRule> previous, List<CompiledRule> rules) {
+        Set<String> kept = new HashSet<>();
+        rules.forEach(rule -> kept.add(rule.id()));
+        for (CompiledRule rule : previous) {
+            if (!kept.contains(rule.id())) {
+                meterRegistry.remove(rule.evaluationTimer());
+                meterRegistry.remove(rule.hitCounter());
+            }
+        }
+    }
+
+    private record CompiledRule(String id, String description, BigDecimal riskScore, Predicate<Payment> condition,
+                                Timer evaluationTimer, Counter hitCounter) {
+    }
+
+    /**
+     * The compiled rules and the file content they came from, swapped as one value.
+     */
+    private record RuleSet(byte[] source, List<CompiledRule> rules) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.finguard.apifinguardpayments.application;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of screening a new payment for fraud: clean, flagged for review (created as usual, with a fraud analysis
+ * for an analyst to look at) or fraudulent (created as FRAUDULENT).
+ * @param riskScore the score the screening assigned; stored with the fraud analysis when flagged
+ * @param fraudulent true when the payment must be created as FRAUDULENT
+ * @param reason why it was flagged, null when clean
+ * @param flaggedBy the engine that flagged it, null when clean
+ */
+public record FraudVerdict(BigDecimal riskScore, boolean fraudulent, String reason, String flaggedBy) {
+
+    static FraudVerdict clean(BigDecimal riskScore) {
+        return new FraudVerdict(riskScore, false, null, null);
+    }
+
+    static FraudVerdict flagged(BigDecimal riskScore, String reason, String flaggedBy) {
+        return new FraudVerdict(riskScore, true, reason, flaggedBy);
+    }
+
+    static FraudVerdict review(BigDecimal riskScore, String reason, String flaggedBy) {
+        return new FraudVerdict(riskScore, false, reason, flaggedBy);
+    }
+
+    /**
+     * @return true when the payment is not blocked but must be recorded for review
+     */
+    public boolean needsReview() {
+        return !fraudulent && reason != null;
+    }
+
+    /**
+     * @return the verdict that decides the payment: fraudulent wins over review, review over clean, then the higher score
+     */
+    public FraudVerdict mostSevere(FraudVerdict other) {
+        if (fraudulent != other.fraudulent) {
+            return fraudulent ? this : other;
+        }
+        if (needsReview() != other.needsReview()) {
+            return needsReview() ? this : other;
+        }
+        return riskScore.compareTo(other.riskScore) >= 0 ? this : other;
+    }
+}
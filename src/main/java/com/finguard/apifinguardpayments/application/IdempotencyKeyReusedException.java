@@ -0,0 +1,11 @@
+package com.finguard.apifinguardpayments.application;
+
+/**
+ * An Idempotency-Key was sent again with a request body that differs from the one that first used it.
+ */
+public class IdempotencyKeyReusedException extends IllegalStateException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used with a different request.");
+    }
+}
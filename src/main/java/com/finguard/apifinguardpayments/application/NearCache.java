@@ -0,0 +1,117 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-process (L1) cache kept in front of Redis (L2).
+ * Entries are size-bounded and expire after a short TTL. Every write through {@link RedisService}
+ * evicts the local entry and publishes the key on a pub/sub channel so every node evicts it.
+ * The publishing node also applies its own message: inside a Redis transaction the publish only
+ * runs on EXEC, which closes the window where a concurrent read re-cached the old value.
+ */
+@Component
+public class NearCache {
+
+    public static final String INVALIDATION_CHANNEL = "payment-cache-invalidation";
+
+    private static final Logger log = LoggerFactory.getLogger(NearCache.class);
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Cache<String, Object> cache;
+    private final boolean enabled;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter remoteInvalidationCounter;
+
+    public NearCache(
+            RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${payments.cache.near.enabled:true}") boolean enabled,
+            @Value("${payments.cache.near.maximum-size:10000}") long maximumSize,
+            @Value("${payments.cache.near.ttl:5s}") Duration ttl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.hitCounter = meterRegistry.counter("redis.cache.l1.hit");
+        this.missCounter = meterRegistry.counter("redis.cache.l1.miss");
+        this.remoteInvalidationCounter = meterRegistry.counter("redis.cache.l1.invalidation.received");
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment-near-cache");
+
+        if (enabled) {
+            listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return The locally cached value, or null if absent or the near cache is disabled.
+     */
+    public Object get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        Object value = cache.getIfPresent(key);
+        if (value == null) {
+            missCounter.increment();
+        } else {
+            hitCounter.increment();
+        }
+        return value;
+    }
+
+    public void put(String key, Object value) {
+        if (enabled && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Evicts the key locally only.
+     */
+    public void evict(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Publishes an invalidation for the key to the other nodes.
+     * Accepts the operations in use so the message can be sent inside a pipeline.
+     *
+     * @param operations The Redis operations (template or pipelined session) used to publish.
+     * @param key        The key that changed.
+     */
+    public void publishInvalidation(RedisOperations<String, Object> operations, String key) {
+        if (enabled) {
+            operations.convertAndSend(INVALIDATION_CHANNEL, key);
+        }
+    }
+
+    void onInvalidation(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(payload instanceof String key)) {
+            log.warn("⚠️ Ignoring malformed near-cache invalidation: {}", payload);
+            return;
+        }
+        cache.invalidate(key);
+        remoteInvalidationCounter.increment();
+    }
+}
@@ -0,0 +1,138 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.BatchPaymentResultDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk ingestion of payments.
+ * Valid items are persisted in chunks, each chunk in its own transaction, so Hibernate can
+ * group the INSERTs into JDBC batches (sequence-based ids, see {@link Payment}).
+ * Every payment is screened for fraud as in a single create, within its chunk's transaction.
+ * The status cache is then filled through the write-behind buffer, which flushes it in pipelined batches.
+ */
+@Service
+public class PaymentBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentBatchService.class);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final StatusCacheWriteBehind statusCacheWriteBehind;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final PaymentStatistics paymentStatistics;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer chunkTimer;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    public PaymentBatchService(
+            PaymentService paymentService,
+            PaymentRepository paymentRepository,
+            PaymentMapper paymentMapper,
+            StatusCacheWriteBehind statusCacheWriteBehind,
+            PaymentEventPublisher paymentEventPublisher,
+            PaymentStatistics paymentStatistics,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.batch.chunk-size:500}") int chunkSize,
+            @Value("${payments.batch.max-size:50000}") int maxBatchSize
+    ) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.paymentMapper = paymentMapper;
+        this.statusCacheWriteBehind = statusCacheWriteBehind;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.paymentStatistics = paymentStatistics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTimer = meterRegistry.timer("payment.batch.chunk");
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Validates, maps and persists a batch of payments.
+     * A failing chunk is rolled back on its own; the other chunks are still committed.
+     *
+     * @param paymentRequests the payments to create, in client order
+     * @return one result per request, in the same order
+     */
+    public List<BatchPaymentResultDTO> createPayments(List<PaymentRequestDTO> paymentRequests) {
+        if (paymentRequests == null || paymentRequests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one payment.");
+        }
+        if (paymentRequests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size exceeds the limit of " + maxBatchSize + " payments.");
+        }
+
+        BatchPaymentResultDTO[] results = new BatchPaymentResultDTO[paymentRequests.size()];
+        List<Payment> accepted = new ArrayList<>(paymentRequests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(paymentRequests.size());
+
+        for (int i = 0; i < paymentRequests.size(); i++) {
+            PaymentRequestDTO request = paymentRequests.get(i);
+            try {
+                if (request == null) {
+                    throw new IllegalArgumentException("Payment request cannot be null.");
+                }
+                paymentService.validatePaymentRequest(request);
+                accepted.add(paymentMapper.toEntity(request));
+                acceptedIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchPaymentResultDTO.rejected(i, e.getMessage());
+            }
+        }
+
+        Map<Long, String> statusEntries = new LinkedHashMap<>();
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, accepted.size());
+            List<Payment> chunk = accepted.subList(from, to);
+            List<Integer> chunkIndexes = acceptedIndexes.subList(from, to);
+            try {
+                chunkTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    List<FraudVerdict> verdicts = chunk.stream().map(paymentService::screen).toList();
+                    paymentRepository.saveAll(chunk);
+                    paymentEventPublisher.publishAll(chunk, PaymentEventType.PAYMENT_CREATED);
+                    paymentStatistics.recordCreated(List.copyOf(chunk));
+                    for (int j = 0; j < chunk.size(); j++) {
+                        paymentService.recordFraud(chunk.get(j), verdicts.get(j));
+                    }
+                }));
+                for (int j = 0; j < chunk.size(); j++) {
+                    Payment payment = chunk.get(j);
+                    results[chunkIndexes.get(j)] = BatchPaymentResultDTO.created(
+                            chunkIndexes.get(j), payment.getId(), payment.getTransactionId(), payment.getStatus());
+                    statusEntries.put(payment.getId(), payment.getStatus().name());
+                }
+            } catch (RuntimeException e) {
+                log.error("❌ Failed to persist payment batch chunk [{}, {}) | Error: {}", from, to, e.getMessage());
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunkIndexes.get(j)] = BatchPaymentResultDTO.failed(
+                            chunkIndexes.get(j), chunk.get(j).getTransactionId(), "Failed to persist payment.");
+                }
+            }
+        }
+
+        statusCacheWriteBehind.enqueueAll(statusEntries);
+
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,45 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.infrastructure.PaymentSummaryView;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Opaque cursor for keyset pagination on (createdAt, id).
+ * The token is the URL-safe Base64 of "createdAt|id" of the last payment returned.
+ */
+public final class PaymentCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private PaymentCursor() {
+    }
+
+    public static String encode(PaymentSummaryView payment) {
+        String raw = payment.getCreatedAt() + SEPARATOR + payment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor a token produced by {@link #encode(PaymentSummaryView)}, or null/blank for the first page
+     * @return the keyset position to continue from
+     */
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return ScrollPosition.forward(Map.of("createdAt", createdAt, "id", id));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.OutboxEvent;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.infrastructure.OutboxEventRepository;
+import com.finguard.apifinguardpayments.kafka.event.PaymentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records payment lifecycle events in the outbox table.
+ * Must run inside the transaction that changes the payment, so the event is committed
+ * (or rolled back) together with it; {@code OutboxRelay} ships it to Kafka afterwards.
+ */
+@Component
+public class PaymentEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public PaymentEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Payment payment, PaymentEventType eventType) {
+        outboxEventRepository.save(toOutboxEvent(payment, eventType));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<Payment> payments, PaymentEventType eventType) {
+        List<OutboxEvent> events = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            events.add(toOutboxEvent(payment, eventType));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent toOutboxEvent(Payment payment, PaymentEventType eventType) {
+        String eventId = UUID.randomUUID().toString();
+        try {
+            String payload = objectMapper.writeValueAsString(PaymentEvent.of(eventId, eventType, payment));
+            return new OutboxEvent(eventId, payment.getTransactionId(), eventType, payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize payment event.", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams payments as newline-delimited JSON straight from a database cursor.
+ * Rows are written in chunks; after each chunk the persistence context is cleared,
+ * so heap usage is bounded by the chunk size rather than by the result size.
+ */
+@Service
+public class PaymentExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentExportService.class);
+
+    private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter paymentWriter;
+    private final ObjectMapper objectMapper;
+    private final Counter exportedRowsCounter;
+    private final int chunkSize;
+
+    public PaymentExportService(
+            PaymentRepository paymentRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${payments.export.chunk-size:500}") int chunkSize
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.paymentWriter = objectMapper.writerFor(Payment.class).withRootValueSeparator("");
+        this.exportedRowsCounter = meterRegistry.counter("payment.export.rows");
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes every payment matching the filters and created in the given range to the stream, one JSON document
+     * per line. Both bounds are required, so an export never scans every partition nor silently leaves out history.
+     * The stream is flushed after each chunk but not closed.
+     *
+     * @return the number of payments written
+     */
+    @Transactional(readOnly = true)
+    public long exportPayments(PaymentStatus status, String payerId, String payeeId,
+                               LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("startDate and endDate are required for an export.");
+        }
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+
+        long written = 0;
+        try (Stream<Payment> payments = paymentRepository.streamForExport(status, payerId, payeeId, range.start(), range.end());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            List<Payment> chunk = new ArrayList<>(chunkSize);
+            Iterator<Payment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    written += writeChunk(chunk, generator);
+                }
+            }
+            written += writeChunk(chunk, generator);
+        } catch (IOException e) {
+            log.error("❌ Payment export aborted after {} rows | Error: {}", written, e.getMessage());
+            throw new UncheckedIOException("Payment export failed", e);
+        }
+
+        log.info("✅ Exported {} payments", written);
+        return written;
+    }
+
+    /**
+     * Checked by the controller before the response is committed, so a bad range is answered with 400
+     * rather than failing halfway through a 200 stream.
+     *
+     * @return false if a bound is missing or the start is after the end
+     */
+    public static boolean isValidRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return startDate != null && endDate != null && !startDate.isAfter(endDate);
+    }
+
+    /**
+     * Serializes the buffered payments, then evicts them from the persistence context.
+     */
+    private int writeChunk(List<Payment> chunk, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        for (Payment payment : chunk) {
+            paymentWriter.writeValue(generator, payment);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        int size = chunk.size();
+        exportedRowsCounter.increment(size);
+        chunk.clear();
+        entityManager.clear();
+        return size;
+    }
+}
@@ -0,0 +1,202 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.TreeMap;
+
+/**
+ * Makes payment creation idempotent per client {@code Idempotency-Key}.
+ * The first request reserves the key in Redis (SET NX) and stores the created payment under it, so
+ * replays are answered from Redis without opening a transaction. Concurrent duplicates wait for the
+ * first request to finish instead of racing it. The unique {@code idempotency_key} column backs this
+ * up when Redis is unavailable or the stored response has expired.
+ * The created payment carries a hash of the request that created it; a retry whose body hashes differently
+ * is rejected with {@link IdempotencyKeyReusedException} instead of being answered with the original payment.
+ */
+@Service
+public class PaymentIdempotencyService {
+
+    static final String KEY_PREFIX = "payment-idempotency-";
+    static final String IN_PROGRESS = "IN_PROGRESS";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentIdempotencyService.class);
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final RedisService redisService;
+    private final Duration responseTtl;
+    private final Duration reservationTtl;
+    private final Duration waitTimeout;
+    private final Counter replayedCounter;
+    private final Counter waitedCounter;
+    private final Counter mismatchCounter;
+
+    public PaymentIdempotencyService(
+            PaymentService paymentService,
+            PaymentRepository paymentRepository,
+            RedisService redisService,
+            MeterRegistry meterRegistry,
+            @Value("${payments.idempotency.ttl:24h}") Duration responseTtl,
+            @Value("${payments.idempotency.reservation-ttl:30s}") Duration reservationTtl,
+            @Value("${payments.idempotency.wait-timeout:10s}") Duration waitTimeout
+    ) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.redisService = redisService;
+        this.responseTtl = responseTtl;
+        this.reservationTtl = reservationTtl;
+        this.waitTimeout = waitTimeout;
+        this.replayedCounter = meterRegistry.counter("payment.idempotency.replayed");
+        this.waitedCounter = meterRegistry.counter("payment.idempotency.waited");
+        this.mismatchCounter = meterRegistry.counter("payment.idempotency.mismatch");
+    }
+
+    /**
+     * Creates the payment once per key and returns that same payment for every retry.
+     *
+     * @param idempotencyKey the client's Idempotency-Key header
+     * @param paymentRequest the payment to create on the first request
+     * @return the payment created by the first request with this key
+     * @throws IdempotencyKeyReusedException if the key was first used with a different request
+     */
+    public Payment createPayment(String idempotencyKey, PaymentRequestDTO paymentRequest) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String cacheKey = KEY_PREFIX + idempotencyKey;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        boolean waited = false;
+        while (true) {
+            Object stored;
+            try {
+                stored = redisService.getRemoteValue(cacheKey);
+                if (stored == null && redisService.setValueIfAbsent(cacheKey, IN_PROGRESS, reservationTtl)) {
+                    return createAndStore(cacheKey, idempotencyKey, paymentRequest);
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Idempotency cache unavailable, relying on the database | Key: {} | Error: {}", idempotencyKey, e.getMessage());
+                return createOrFind(idempotencyKey, paymentRequest);
+            }
+
+            if (stored instanceof Payment payment) {
+                checkSameRequest(idempotencyKey, payment, paymentRequest);
+                replayedCounter.increment();
+                return payment;
+            }
+
+            // Another request holds the reservation (or just took it): wait for its result
+            if (!waited) {
+                waitedCounter.increment();
+                waited = true;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("A request with this Idempotency-Key is still in progress.");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a request with the same Idempotency-Key.", e);
+            }
+        }
+    }
+
+    private Payment createAndStore(String cacheKey, String idempotencyKey, PaymentRequestDTO paymentRequest) {
+        Payment payment;
+        try {
+            payment = createOrFind(idempotencyKey, paymentRequest);
+        } catch (RuntimeException e) {
+            // Release the reservation so the client can retry with the same key
+            try {
+                redisService.deleteCachedValue(cacheKey);
+            } catch (RuntimeException releaseFailure) {
+                log.warn("⚠️ Could not release idempotency reservation, it expires in {} | Key: {}", reservationTtl, idempotencyKey);
+            }
+            throw e;
+        }
+
+        try {
+            redisService.setValueWithExpiration(cacheKey, payment, responseTtl.toSeconds());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not store idempotent response | Key: {} | Error: {}", idempotencyKey, e.getMessage());
+        }
+        return payment;
+    }
+
+    private Payment createOrFind(String idempotencyKey, PaymentRequestDTO paymentRequest) {
+        try {
+            return paymentService.createPayment(paymentRequest, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            // The key was already committed by a request Redis no longer knows about
+            Payment payment = paymentRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            checkSameRequest(idempotencyKey, payment, paymentRequest);
+            return payment;
+        }
+    }
+
+    private void checkSameRequest(String idempotencyKey, Payment payment, PaymentRequestDTO paymentRequest) {
+        // Payments created before request hashes were recorded have none and are replayed as before
+        if (payment.getIdempotencyRequestHash() != null
+                && !payment.getIdempotencyRequestHash().equals(requestHash(paymentRequest))) {
+            mismatchCounter.increment();
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+    }
+
+    /**
+     * SHA-256 of the fields a payment is created from. Amounts are compared by value and metadata
+     * regardless of entry order, so a retry serialized differently by the client still matches.
+     *
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String requestHash(PaymentRequestDTO paymentRequest) {
+        StringBuilder canonical = new StringBuilder();
+        BigDecimal amount = paymentRequest.getAmount();
+        append(canonical, amount == null ? null : amount.stripTrailingZeros().toPlainString());
+        append(canonical, paymentRequest.getCurrency());
+        append(canonical, paymentRequest.getPaymentMethod());
+        append(canonical, paymentRequest.getPayerId());
+        append(canonical, paymentRequest.getPayeeId());
+        append(canonical, paymentRequest.getDescription());
+        if (paymentRequest.getMetadata() != null) {
+            new TreeMap<>(paymentRequest.getMetadata()).forEach((key, value) -> {
+                append(canonical, key);
+                append(canonical, value);
+            });
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    // Length-prefixed, so no field value can be mistaken for a separator
+    private static void append(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append("-1:");
+            return;
+        }
+        String text = value.toString();
+        canonical.append(text.length()).append(':').append(text);
+    }
+}
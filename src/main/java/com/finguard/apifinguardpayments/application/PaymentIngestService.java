@@ -0,0 +1,281 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.kafka.event.PaymentIngestEvent;
+import com.finguard.apifinguardpayments.kafka.producer.KafkaProducer;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous payment acceptance for peak load ({@code payments.ingest.async.enabled}).
+ * A request is validated, given its transactionId and published to the ingest topic keyed by payerId; once the
+ * broker acknowledges it the caller gets the transactionId back, without any database write. The ingest consumer
+ * then persists whole polls in one transaction each, with the same fraud screening as a synchronous create; all
+ * payments of a payer share a partition, so velocity scoring sees them in order on one node.
+ * Progress is tracked in the cache under {@code payment-ingest-{transactionId}}: {@code ACCEPTED} until the
+ * payment is persisted, then its id, whose status is served from the regular status cache; {@code FAILED} when
+ * the payment could not be persisted and was dead-lettered.
+ */
+@Service
+public class PaymentIngestService {
+
+    static final String KEY_PREFIX = "payment-ingest-";
+    static final String ACCEPTED = "ACCEPTED";
+    static final String FAILED = "FAILED";
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentIngestService.class);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final PaymentStatistics paymentStatistics;
+    private final StatusCacheWriteBehind statusCacheWriteBehind;
+    private final RedisService redisService;
+    private final KafkaProducer kafkaProducer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter unconfirmedCounter;
+    private final Counter persistedCounter;
+    private final Counter duplicateCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+    private final boolean enabled;
+    private final String topic;
+    private final Duration sendTimeout;
+    private final Duration trackingTtl;
+
+    public PaymentIngestService(
+            PaymentService paymentService,
+            PaymentRepository paymentRepository,
+            PaymentEventPublisher paymentEventPublisher,
+            PaymentStatistics paymentStatistics,
+            StatusCacheWriteBehind statusCacheWriteBehind,
+            RedisService redisService,
+            KafkaProducer kafkaProducer,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.ingest.async.enabled:false}") boolean enabled,
+            @Value("${payments.ingest.topic:payment-ingest}") String topic,
+            @Value("${payments.ingest.send-timeout:5s}") Duration sendTimeout,
+            @Value("${payments.ingest.tracking-ttl:1h}") Duration trackingTtl
+    ) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.paymentStatistics = paymentStatistics;
+        this.statusCacheWriteBehind = statusCacheWriteBehind;
+        this.redisService = redisService;
+        this.kafkaProducer = kafkaProducer;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.acceptedCounter = meterRegistry.counter("payment.ingest.accepted");
+        this.rejectedCounter = meterRegistry.counter("payment.ingest.rejected");
+        this.unconfirmedCounter = meterRegistry.counter("payment.ingest.unconfirmed");
+        this.persistedCounter = meterRegistry.counter("payment.ingest.persisted");
+        this.duplicateCounter = meterRegistry.counter("payment.ingest.duplicate");
+        this.failedCounter = meterRegistry.counter("payment.ingest.failed");
+        this.batchTimer = meterRegistry.timer("payment.ingest.batch");
+        this.lagTimer = meterRegistry.timer("payment.ingest.lag");
+        this.enabled = enabled;
+        this.topic = topic;
+        this.sendTimeout = sendTimeout;
+        this.trackingTtl = trackingTtl;
+    }
+
+    /**
+     * @return whether new payments are accepted asynchronously instead of created in the request
+     */
+    public boolean isAsyncEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates a payment and publishes it for asynchronous persistence, waiting for the broker's acknowledgement.
+     * Only a send the producer reports as failed is rejected. A send that times out (or whose wait is interrupted)
+     * may still be appended later, so its transactionId is returned and stays tracked as {@code ACCEPTED}: telling
+     * the client to retry would create a second payment under a new transactionId.
+     *
+     * @return the transactionId assigned to the payment
+     */
+    public String accept(PaymentRequestDTO paymentRequest) {
+        paymentService.validatePaymentRequest(paymentRequest);
+
+        String transactionId = UUID.randomUUID().toString();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(PaymentIngestEvent.of(transactionId, paymentRequest));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payment request could not be serialized.", e);
+        }
+
+        // Tracked before publishing, so the consumer's write always lands after it
+        String trackingKey = KEY_PREFIX + transactionId;
+        try {
+            redisService.setValueWithExpiration(trackingKey, ACCEPTED, trackingTtl.toSeconds());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Accepted payment is not tracked in the cache | TransactionId: {} | Error: {}", transactionId, e.getMessage());
+        }
+
+        try {
+            kafkaProducer.sendEvent(topic, paymentRequest.getPayerId(), transactionId, payload)
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unconfirmed(transactionId, e);
+        } catch (TimeoutException e) {
+            return unconfirmed(transactionId, e);
+        } catch (ExecutionException e) {
+            throw reject(transactionId, e);
+        }
+
+        acceptedCounter.increment();
+        return transactionId;
+    }
+
+    /**
+     * Persists a batch of accepted payments in one transaction: screened for fraud, inserted in JDBC batches and
+     * recorded in the outbox and statistics. Payments already persisted by an earlier delivery are skipped.
+     *
+     * @return the number of payments persisted
+     */
+    public int persistAccepted(List<PaymentIngestEvent> events) {
+        Map<String, PaymentIngestEvent> byTransactionId = new LinkedHashMap<>();
+        events.forEach(event -> byTransactionId.putIfAbsent(event.getTransactionId(), event));
+        if (byTransactionId.isEmpty()) {
+            return 0;
+        }
+
+        List<Payment> persisted = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            Set<String> existing = new HashSet<>(paymentRepository.findExistingTransactionIds(byTransactionId.keySet()));
+            List<Payment> payments = new ArrayList<>(byTransactionId.size());
+            List<FraudVerdict> verdicts = new ArrayList<>(byTransactionId.size());
+            for (PaymentIngestEvent event : byTransactionId.values()) {
+                if (existing.contains(event.getTransactionId())) {
+                    continue;
+                }
+                Payment payment = event.toEntity();
+                verdicts.add(paymentService.screen(payment));
+                payments.add(payment);
+            }
+            if (payments.isEmpty()) {
+                return payments;
+            }
+
+            paymentRepository.saveAll(payments);
+            paymentEventPublisher.publishAll(payments, PaymentEventType.PAYMENT_CREATED);
+            paymentStatistics.recordCreated(List.copyOf(payments));
+            for (int i = 0; i < payments.size(); i++) {
+                paymentService.recordFraud(payments.get(i), verdicts.get(i));
+            }
+            return payments;
+        }));
+
+        duplicateCounter.increment(events.size() - persisted.size());
+        if (persisted.isEmpty()) {
+            return 0;
+        }
+        persistedCounter.increment(persisted.size());
+        LocalDateTime now = LocalDateTime.now();
+        byTransactionId.values().forEach(event -> {
+            if (event.getAcceptedAt() != null) {
+                lagTimer.record(Duration.between(event.getAcceptedAt(), now));
+            }
+        });
+
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        Map<String, Object> tracking = new LinkedHashMap<>();
+        for (Payment payment : persisted) {
+            statuses.put(payment.getId(), payment.getStatus().name());
+            tracking.put(KEY_PREFIX + payment.getTransactionId(), payment.getId().toString());
+        }
+        statusCacheWriteBehind.enqueueAll(statuses);
+        try {
+            redisService.setValuesWithExpiration(tracking, trackingTtl.toSeconds());
+        } catch (RuntimeException e) {
+            // Payments are committed; their tracking entries still read ACCEPTED until they expire
+            log.warn("⚠️ Accepted payments persisted but not tracked in the cache | Payments: {} | Error: {}", tracking.size(), e.getMessage());
+        }
+        return persisted.size();
+    }
+
+    /**
+     * Records that an accepted payment will not be persisted: its ingest record was malformed or was dead-lettered
+     * after the consumer's retries, so its tracking entry reads {@code FAILED} instead of {@code ACCEPTED}.
+     */
+    public void markFailed(String transactionId) {
+        failedCounter.increment();
+        log.error("❌ Accepted payment will not be persisted | TransactionId: {}", transactionId);
+        try {
+            redisService.setValueWithExpiration(KEY_PREFIX + transactionId, FAILED, trackingTtl.toSeconds());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed payment is not tracked in the cache | TransactionId: {} | Error: {}", transactionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the status of a payment by transaction id: {@code ACCEPTED} while it waits in the ingest topic,
+     * then its cached status, or {@code FAILED} if it was dead-lettered. Payments no longer tracked are looked up
+     * in the database.
+     *
+     * @return the status, or null if no payment with this transaction id is known
+     */
+    public String getStatus(String transactionId) {
+        String tracked = redisService.getOrLoad(KEY_PREFIX + transactionId,
+                () -> paymentRepository.findStatusByTransactionId(transactionId)
+                        .map(view -> view.getId().toString())
+                        .orElse(null),
+                trackingTtl);
+        if (tracked == null || ACCEPTED.equals(tracked) || FAILED.equals(tracked)) {
+            return tracked;
+        }
+        return paymentService.getCachedPaymentStatus(Long.valueOf(tracked));
+    }
+
+    private String unconfirmed(String transactionId, Exception cause) {
+        unconfirmedCounter.increment();
+        log.warn("⚠️ Broker did not acknowledge the payment within {}, it may still be persisted | TransactionId: {} | Cause: {}",
+                sendTimeout, transactionId, cause.getClass().getSimpleName());
+        return transactionId;
+    }
+
+    private IllegalStateException reject(String transactionId, Exception cause) {
+        rejectedCounter.increment();
+        try {
+            redisService.deleteCachedValue(KEY_PREFIX + transactionId);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not remove the tracking entry of a rejected payment | TransactionId: {} | Error: {}", transactionId, e.getMessage());
+        }
+        log.error("❌ Payment could not be published for asynchronous persistence | TransactionId: {} | Error: {}",
+                transactionId, cause.getMessage());
+        return new IllegalStateException("Payment could not be accepted, please retry.", cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the payments table ahead of time and, when a retention is configured,
+ * detaches the ones that fell out of it.
+ * Inserts fail when no partition covers their created_at, so partitions are created
+ * {@code payments.partitions.months-ahead} months in advance and checked again on every run, starting at boot.
+ * Detached partitions are left as standalone tables for archiving or dropping, next to the refunds and fraud
+ * analyses of their payments; only those dependent rows and the payment_keys entries are moved row by row.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentPartitionMaintenance.class);
+
+    private final PaymentRepository paymentRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public PaymentPartitionMaintenance(
+            PaymentRepository paymentRepository,
+            @Value("${payments.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${payments.partitions.retention-months:0}") int retentionMonths
+    ) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("payments.partitions.months-ahead must be at least 1.");
+        }
+        this.paymentRepository = paymentRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.partitions.check-interval:6h}")
+    public void maintainPartitions() {
+        try {
+            createUpcomingPartitions();
+            detachExpiredPartitions();
+        } catch (RuntimeException e) {
+            log.error("❌ Payment partition maintenance failed | Error: {}", e.getMessage());
+        }
+    }
+
+    void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> existing = paymentRepository.findPartitionMonths();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                paymentRepository.createPartition(month);
+                log.info("✅ Created payments partition for {}", month);
+            }
+        }
+    }
+
+    /**
+     * Detaches, oldest first, every partition entirely older than the retention window. Disabled when the
+     * retention is 0.
+     */
+    void detachExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (YearMonth month : paymentRepository.findPartitionMonths()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            try {
+                paymentRepository.detachPartition(month);
+                log.info("🗑️ Detached payments partition for {}", month);
+            } catch (RuntimeException e) {
+                // Another node may be detaching it; an interrupted detach needs DETACH PARTITION ... FINALIZE
+                log.warn("⚠️ Could not detach payments partition for {} | Error: {}", month, e.getMessage());
+                return;
+            }
+        }
+    }
+}
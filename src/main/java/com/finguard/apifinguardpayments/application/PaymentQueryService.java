@@ -0,0 +1,101 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentSummaryView;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.response.CursorPageResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset-paginated read queries over payments.
+ * Each page is a single index range scan on (created_at, id), so the cost does not depend on how deep the client pages.
+ * Every query is bounded on created_at (the last {@link CreatedAtRange#DEFAULT_WINDOW} unless given), so a page only
+ * touches the monthly partitions the range overlaps.
+ * Pages are read as {@link PaymentSummaryView} column projections rather than entities, metadata included.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PaymentQueryService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PaymentQueryService(
+            PaymentRepository paymentRepository,
+            PaymentMapper paymentMapper,
+            @Value("${payments.pagination.default-size:50}") int defaultPageSize,
+            @Value("${payments.pagination.max-size:500}") int maxPageSize
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.paymentMapper = paymentMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public CursorPageResponseDTO<PaymentSummaryDTO> getPaymentsByStatus(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                                                                       String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return toPage(paymentRepository.findByStatusAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                status, range.start(), range.end(), PaymentCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    public CursorPageResponseDTO<PaymentSummaryDTO> getPaymentsByPayerId(String payerId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                        String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return toPage(paymentRepository.findByPayerIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                payerId, range.start(), range.end(), PaymentCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    public CursorPageResponseDTO<PaymentSummaryDTO> getPaymentsByPayeeId(String payeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                        String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return toPage(paymentRepository.findByPayeeIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                payeeId, range.start(), range.end(), PaymentCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    public CursorPageResponseDTO<PaymentSummaryDTO> getFraudulentPayments(LocalDateTime startDate, LocalDateTime endDate,
+                                                                         String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return toPage(paymentRepository.findByIsFraudulentTrueAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                range.start(), range.end(), PaymentCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    public CursorPageResponseDTO<PaymentSummaryDTO> getPaymentsByCreatedAt(LocalDateTime startDate, LocalDateTime endDate,
+                                                                          String cursor, Integer limit) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        return toPage(paymentRepository.findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(
+                startDate, endDate, PaymentCursor.decode(cursor), resolveLimit(limit)));
+    }
+
+    private Limit resolveLimit(Integer requested) {
+        if (requested == null) {
+            return Limit.of(defaultPageSize);
+        }
+        if (requested <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero.");
+        }
+        return Limit.of(Math.min(requested, maxPageSize));
+    }
+
+    private CursorPageResponseDTO<PaymentSummaryDTO> toPage(Window<PaymentSummaryView> window) {
+        List<PaymentSummaryView> payments = window.getContent();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? PaymentCursor.encode(payments.get(payments.size() - 1))
+                : null;
+        return new CursorPageResponseDTO<>(
+                paymentMapper.toSummaryDTOs(payments), nextCursor);
+    }
+}
@@ -0,0 +1,58 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Field validation of a new payment, shared by the synchronous, batch and asynchronous create paths.
+ * Stateless: it needs no repository or cache, so it can be called and tested on its own.
+ */
+public final class PaymentRequestValidator {
+
+    private PaymentRequestValidator() {
+    }
+
+    /**
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    public static void validate(PaymentRequestDTO paymentRequest) {
+        if (paymentRequest.getPayerId() == null || paymentRequest.getPayerId().isBlank()) {
+            throw new IllegalArgumentException("Payer ID cannot be null or empty");
+        }
+
+        validatePaymentDetails(
+                paymentRequest.getAmount(),
+                paymentRequest.getCurrency(),
+                paymentRequest.getPaymentMethod(),
+                paymentRequest.getPayerId(),
+                paymentRequest.getPayeeId()
+        );
+    }
+
+    private static void validatePaymentDetails(
+            BigDecimal amount,
+            Currency currency,
+            PaymentMethod paymentMethod,
+            String payerId,
+            String payeeId
+    ) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than zero.");
+        }
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency cannot be null.");
+        }
+        if (paymentMethod == null) {
+            throw new IllegalArgumentException("Payment method cannot be null.");
+        }
+        if (payerId == null || payerId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Payer ID is required.");
+        }
+        if (payeeId == null || payeeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Payee ID is required.");
+        }
+    }
+}
@@ -2,118 +2,222 @@ package com.finguard.apifinguardpayments.application;
 
 import com.finguard.apifinguardpayments.domain.*;
 import com.finguard.apifinguardpayments.infrastructure.FraudAnalysisRepository;
-import com.finguard.apifinguardpayments.infrastructure.PaymentMetadataRepository;
 import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
-import com.finguard.apifinguardpayments.infrastructure.RefundRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentStatusView;
 import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class PaymentService {
 
+    static final int MAX_STATUS_LOOKUP_IDS = 500;
+    static final Duration STATUS_CACHE_TTL = Duration.ofMinutes(10);
+    static final int MAX_RETRY_ATTEMPTS = 3;
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     private final PaymentRepository paymentRepository;
-    private final PaymentMetadataRepository paymentMetadataRepository;
     private final FraudAnalysisRepository fraudAnalysisRepository;
-    private final RefundRepository refundRepository;
     private final RedisService redisService;
     private final PaymentMapper paymentMapper;
+    private final PaymentSnapshotCache paymentSnapshotCache;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final StatusCacheWriteBehind statusCacheWriteBehind;
+    private final PaymentStatistics paymentStatistics;
+    private final VelocityFraudEngine velocityFraudEngine;
+    private final FraudRuleEngine fraudRuleEngine;
 
     public PaymentService(
             PaymentRepository paymentRepository,
-            PaymentMetadataRepository paymentMetadataRepository,
             FraudAnalysisRepository fraudAnalysisRepository,
-            RefundRepository refundRepository,
             RedisService redisService,
-            PaymentMapper paymentMapper
+            PaymentMapper paymentMapper,
+            PaymentSnapshotCache paymentSnapshotCache,
+            PaymentEventPublisher paymentEventPublisher,
+            StatusCacheWriteBehind statusCacheWriteBehind,
+            PaymentStatistics paymentStatistics,
+            VelocityFraudEngine velocityFraudEngine,
+            FraudRuleEngine fraudRuleEngine
     ) {
         this.paymentRepository = paymentRepository;
-        this.paymentMetadataRepository = paymentMetadataRepository;
         this.fraudAnalysisRepository = fraudAnalysisRepository;
-        this.refundRepository = refundRepository;
         this.redisService = redisService;
         this.paymentMapper = paymentMapper;
+        this.paymentSnapshotCache = paymentSnapshotCache;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.statusCacheWriteBehind = statusCacheWriteBehind;
+        this.paymentStatistics = paymentStatistics;
+        this.velocityFraudEngine = velocityFraudEngine;
+        this.fraudRuleEngine = fraudRuleEngine;
     }
 
     @Transactional
     public Payment createPayment(PaymentRequestDTO paymentRequest) {
-        if (paymentRequest.getPayerId() == null || paymentRequest.getPayerId().isBlank()) {
-            throw new IllegalArgumentException("Payer ID cannot be null or empty");
-        }
+        return createPayment(paymentRequest, null);
+    }
 
-        validatePaymentDetails(
-                paymentRequest.getAmount(),
-                paymentRequest.getCurrency(),
-                paymentRequest.getPaymentMethod(),
-                paymentRequest.getPayerId(),
-                paymentRequest.getPayeeId()
-        );
+    /**
+     * Creates a payment recording the client's Idempotency-Key and the hash of the request that used it;
+     * the unique column rejects a second payment with the same key at commit.
+     * The payment is screened by the {@link VelocityFraudEngine} and the {@link FraudRuleEngine} first and created
+     * as FRAUDULENT, with its {@link FraudAnalysis}, when either of them flags it.
+     */
+    @Transactional
+    public Payment createPayment(PaymentRequestDTO paymentRequest, String idempotencyKey) {
+        validatePaymentRequest(paymentRequest);
 
         Payment payment = paymentMapper.toEntity(paymentRequest);
+        payment.setIdempotencyKey(idempotencyKey);
+        if (idempotencyKey != null) {
+            payment.setIdempotencyRequestHash(PaymentIdempotencyService.requestHash(paymentRequest));
+        }
+
+        FraudVerdict verdict = screen(payment);
 
         Payment savedPayment = paymentRepository.save(payment);
+        paymentEventPublisher.publish(savedPayment, PaymentEventType.PAYMENT_CREATED);
+        paymentStatistics.recordCreated(savedPayment);
+        recordFraud(savedPayment, verdict);
 
         cachePaymentStatus(savedPayment.getId(), savedPayment.getStatus().name());
 
         return savedPayment;
     }
 
-    public Payment getPaymentById(Long id) {
+    /**
+     * Scores a new, unsaved payment with both fraud engines and marks it FRAUDULENT when either of them flags it;
+     * a payment only flagged for review keeps its status. Once the payment is saved, pass the verdict to {@link #recordFraud}.
+     */
+    FraudVerdict screen(Payment payment) {
+        FraudVerdict verdict = velocityFraudEngine.score(payment).mostSevere(fraudRuleEngine.evaluate(payment));
+        if (verdict.fraudulent()) {
+            payment.setStatus(PaymentStatus.FRAUDULENT);
+            payment.setFraudulent(true);
+            payment.setFraudReason(verdict.reason());
+        }
+        return verdict;
+    }
+
+    /**
+     * Writes the {@link FraudAnalysis} of a saved payment that {@link #screen} flagged, and the fraud event when it
+     * was flagged as fraudulent; does nothing for a clean verdict. Must run in the transaction that saved the payment.
+     */
+    void recordFraud(Payment savedPayment, FraudVerdict verdict) {
+        if (!verdict.fraudulent() && !verdict.needsReview()) {
+            return;
+        }
+        fraudAnalysisRepository.save(new FraudAnalysis(savedPayment, verdict.reason(), verdict.riskScore(), verdict.flaggedBy()));
+        if (verdict.needsReview()) {
+            log.info("🔎 Payment flagged for fraud review | TransactionId: {} | FlaggedBy: {} | Score: {} | Reason: {}",
+                    savedPayment.getTransactionId(), verdict.flaggedBy(), verdict.riskScore(), verdict.reason());
+            return;
+        }
+        paymentEventPublisher.publish(savedPayment, PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT);
+        log.warn("⚠️ Payment flagged as fraudulent | TransactionId: {} | FlaggedBy: {} | Score: {} | Reason: {}",
+                savedPayment.getTransactionId(), verdict.flaggedBy(), verdict.riskScore(), verdict.reason());
+    }
+
+    public PaymentResponseDTO getPaymentById(Long id) {
+        PaymentResponseDTO cached = paymentSnapshotCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + id));
 
-        List<PaymentMetadata> metadataList = paymentMetadataRepository.findByPaymentId(id);
-        Map<String, String> metadataMap = metadataList.stream()
-                .collect(Collectors.toMap(PaymentMetadata::getKey, PaymentMetadata::getValue));
-
-        payment.setMetadata(metadataMap);
-        return payment;
+        return loadSnapshot(payment);
     }
 
 
-    public Payment getPaymentByTransactionId(String transactionId) {
-        return paymentRepository.findByTransactionId(transactionId)
+    public PaymentResponseDTO getPaymentByTransactionId(String transactionId) {
+        PaymentResponseDTO cached = paymentSnapshotCache.getByTransactionId(transactionId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Payment payment = paymentRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new RuntimeException("Payment not found with transaction ID: " + transactionId));
+
+        return loadSnapshot(payment);
     }
 
-    public List<Payment> getPaymentsByStatus(PaymentStatus status) {
-        return paymentRepository.findByStatus(status);
+    /**
+     * Lists payments with a status created between the given dates. Missing bounds default to the last
+     * {@link CreatedAtRange#DEFAULT_WINDOW}, so the query always reads a bounded set of monthly partitions.
+     * Rows are read as column projections, not entities, so nothing is kept for dirty checking.
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentSummaryDTO> getPaymentsByStatus(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentMapper.toSummaryDTOs(paymentRepository.findByStatusAndCreatedAtBetween(status, range.start(), range.end()));
     }
 
+    @Transactional(readOnly = true)
+    public List<PaymentSummaryDTO> getPaymentsByPayerId(String payerId, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentMapper.toSummaryDTOs(paymentRepository.findByPayerIdAndCreatedAtBetween(payerId, range.start(), range.end()));
+    }
 
-    public List<Payment> getPaymentsByPayerId(String payerId) {
-        return paymentRepository.findByPayerId(payerId);
+    @Transactional(readOnly = true)
+    public List<PaymentSummaryDTO> getPaymentsByPayeeId(String payeeId, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentMapper.toSummaryDTOs(paymentRepository.findByPayeeIdAndCreatedAtBetween(payeeId, range.start(), range.end()));
     }
 
-    public List<Payment> getPaymentsByPayeeId(String payeeId) {
-        return paymentRepository.findByPayeeId(payeeId);
+    @Transactional(readOnly = true)
+    public List<PaymentSummaryDTO> getFraudulentPayments(LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentMapper.toSummaryDTOs(paymentRepository.findByIsFraudulentTrueAndCreatedAtBetween(range.start(), range.end()));
     }
 
-    public List<Payment> getFraudulentPayments() {
-        return paymentRepository.findByIsFraudulentTrue();
+    @Transactional(readOnly = true)
+    public List<PaymentSummaryDTO> getPaymentsByMetadata(String key, String value, LocalDateTime startDate, LocalDateTime endDate) {
+        if (key == null || key.isBlank() || value == null) {
+            throw new IllegalArgumentException("Metadata key and value are required.");
+        }
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentMapper.toSummaryDTOs(paymentRepository.findByMetadataEntryAndCreatedAtBetween(key, value, range.start(), range.end()));
     }
 
-    public List<Payment> getRefundablePayments() {
-        return paymentRepository.findByStatusAndRefundedAmountLessThan(PaymentStatus.COMPLETED, BigDecimal.ZERO);
+    public List<Payment> getRefundablePayments(LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        return paymentRepository.findByStatusAndRefundedAmountLessThanAndCreatedAtBetween(
+                PaymentStatus.COMPLETED, BigDecimal.ZERO, range.start(), range.end());
     }
 
+    /**
+     * Moves a payment to a new status if the transition is legal from its current one.
+     * Applied as one compare-and-set UPDATE, so a concurrent transition is rejected rather than overwritten.
+     */
     @Transactional
     public Payment updatePaymentStatus(String transactionId, PaymentStatus status) {
-        Payment payment = paymentRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
+        PaymentTransition transition = paymentRepository.compareAndSetStatus(
+                transactionId, status.allowedSources(), status, LocalDateTime.now()
+        ).orElseThrow(() -> transitionRejection(transactionId, status));
+        Payment payment = transition.payment();
 
-        payment.setStatus(status);
-        payment.setUpdatedAt(LocalDateTime.now());
-        paymentRepository.save(payment);
+        paymentEventPublisher.publish(payment, PaymentEventType.PAYMENT_STATUS_CHANGED);
+        paymentStatistics.recordTransition(transition);
 
         cachePaymentStatus(payment.getId(), status.name());
+        paymentSnapshotCache.evict(payment.getId(), payment.getTransactionId());
         return payment;
     }
 
@@ -127,104 +231,188 @@ public class PaymentService {
         }
 
         paymentRepository.delete(payment);
-        redisService.setValue("payment-status-" + id, null);
+        paymentStatistics.recordDeleted(payment);
+        statusCacheWriteBehind.enqueueDelete(id);
+        paymentSnapshotCache.evict(id, payment.getTransactionId());
     }
 
+    /**
+     * Refunds part or all of a completed payment.
+     * The balance check and the increment run as one conditional UPDATE together with the refund insert,
+     * so concurrent partial refunds never exceed the payment amount and no update is lost.
+     */
     @Transactional
     public Refund processRefund(String transactionId, BigDecimal amount) {
-        Payment payment = paymentRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
-
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            throw new IllegalStateException("Only completed payments can be refunded.");
-        }
-        if (amount.compareTo(payment.getAmount()) > 0) {
-            throw new IllegalStateException("Refund amount exceeds the original payment.");
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Refund amount must be greater than zero.");
         }
 
-        Refund refund = new Refund(
-                payment,
+        Refund refund = paymentRepository.applyRefund(
+                transactionId,
                 amount,
                 LocalDateTime.now(),
                 "system",
                 "Refund processed successfully"
-        );
-
-        refundRepository.save(refund);
+        ).orElseThrow(() -> refundRejection(transactionId));
 
-        BigDecimal totalRefunded = payment.getRefundedAmount() == null ? BigDecimal.ZERO : payment.getRefundedAmount();
-        payment.setRefundedAmount(totalRefunded.add(amount));
-
-        paymentRepository.save(payment);
+        Payment payment = refund.getPayment();
+        paymentEventPublisher.publish(payment, PaymentEventType.PAYMENT_REFUNDED);
+        paymentSnapshotCache.evict(payment.getId(), payment.getTransactionId());
 
         return refund;
     }
 
-    @Transactional
-    public void retryPayment(Long paymentId) {
-        Payment payment = paymentRepository.findById(paymentId)
-                .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + paymentId));
-
-        if (payment.getStatus() != PaymentStatus.FAILED) {
-            throw new IllegalStateException("Only failed payments can be retried.");
+    /**
+     * Explains why the conditional refund update matched no row; only read on the rejection path.
+     */
+    private RuntimeException refundRejection(String transactionId) {
+        Payment payment = paymentRepository.findByTransactionId(transactionId).orElse(null);
+        if (payment == null) {
+            return new IllegalArgumentException("Payment not found");
         }
-        if (payment.getRetryCount() >= 3) {
-            throw new IllegalStateException("Maximum retry attempts exceeded.");
+        if (payment.getStatus() != PaymentStatus.COMPLETED) {
+            return new IllegalStateException("Only completed payments can be refunded.");
         }
+        return new IllegalStateException("Refund amount exceeds the remaining refundable balance.");
+    }
 
-        payment.setRetryCount(payment.getRetryCount() + 1);
-        payment.setStatus(PaymentStatus.PENDING);
-        payment.setUpdatedAt(LocalDateTime.now());
+    @Transactional
+    public void retryPayment(Long paymentId) {
+        PaymentTransition transition = paymentRepository.compareAndSetRetry(paymentId, MAX_RETRY_ATTEMPTS, LocalDateTime.now())
+                .orElseThrow(() -> retryRejection(paymentId));
+        Payment payment = transition.payment();
 
-        paymentRepository.save(payment);
+        paymentEventPublisher.publish(payment, PaymentEventType.PAYMENT_STATUS_CHANGED);
+        paymentStatistics.recordTransition(transition);
 
         cachePaymentStatus(paymentId, PaymentStatus.PENDING.toString());
+        paymentSnapshotCache.evict(paymentId, payment.getTransactionId());
     }
 
     @Transactional
     public void flagAsFraudulent(String transactionId, String reason, BigDecimal riskScore, String flaggedBy) {
-        Payment payment = paymentRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
+        PaymentTransition transition = paymentRepository.compareAndSetFraudulent(
+                transactionId, PaymentStatus.FRAUDULENT.allowedSources(), reason, LocalDateTime.now()
+        ).orElseThrow(() -> transitionRejection(transactionId, PaymentStatus.FRAUDULENT));
+        Payment payment = transition.payment();
 
-        payment.setStatus(PaymentStatus.FRAUDULENT);
-        payment.setUpdatedAt(LocalDateTime.now());
-        paymentRepository.save(payment);
-
-        FraudAnalysis fraudAnalysis = new FraudAnalysis(payment, reason, riskScore, flaggedBy);
+        FraudAnalysis fraudAnalysis = new FraudAnalysis(paymentRepository.getReferenceById(payment.getId()), reason, riskScore, flaggedBy);
         fraudAnalysisRepository.save(fraudAnalysis);
+        paymentEventPublisher.publish(payment, PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT);
+        paymentStatistics.recordTransition(transition);
+
+        cachePaymentStatus(payment.getId(), PaymentStatus.FRAUDULENT.name());
+        paymentSnapshotCache.evict(payment.getId(), transactionId);
+    }
+
+    /**
+     * Explains why a compare-and-set transition matched no row; only read on the rejection path.
+     */
+    private RuntimeException transitionRejection(String transactionId, PaymentStatus target) {
+        Payment payment = paymentRepository.findByTransactionId(transactionId).orElse(null);
+        if (payment == null) {
+            return new IllegalArgumentException("Payment not found");
+        }
+        if (payment.getStatus() == PaymentStatus.FAILED && target == PaymentStatus.PENDING) {
+            return new IllegalStateException("Failed payments return to PENDING only through a retry.");
+        }
+        return new IllegalStateException("Cannot change payment status from " + payment.getStatus() + " to " + target + ".");
+    }
+
+    private RuntimeException retryRejection(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null) {
+            return new RuntimeException("Payment not found with ID: " + paymentId);
+        }
+        if (payment.getStatus() != PaymentStatus.FAILED) {
+            return new IllegalStateException("Only failed payments can be retried.");
+        }
+        return new IllegalStateException("Maximum retry attempts exceeded.");
+    }
 
-        redisService.setValue("payment-status-" + payment.getId(), PaymentStatus.FRAUDULENT.name());
+    private PaymentResponseDTO loadSnapshot(Payment payment) {
+        PaymentResponseDTO snapshot = paymentMapper.toResponseDTO(payment);
+        paymentSnapshotCache.put(snapshot);
+        return snapshot;
     }
 
     private void cachePaymentStatus(Long paymentId, String status) {
-        redisService.setValue("payment-status-" + paymentId, status);
+        statusCacheWriteBehind.enqueue(paymentId, status);
     }
 
+    /**
+     * Reads the cached status of a payment, loading it from the database on a miss.
+     * Concurrent misses for the same payment share one database read (see {@link RedisService#getOrLoad}).
+     */
     public String getCachedPaymentStatus(Long paymentId) {
-        return (String) redisService.getValue("payment-status-" + paymentId);
+        return redisService.getOrLoad("payment-status-" + paymentId,
+                () -> paymentRepository.findStatusByIdIn(List.of(paymentId)).stream()
+                        .findFirst()
+                        .map(view -> view.getStatus().name())
+                        .orElse(null),
+                STATUS_CACHE_TTL);
     }
 
-    private void validatePaymentDetails(
-            BigDecimal amount,
-            Currency currency,
-            PaymentMethod paymentMethod,
-            String payerId,
-            String payeeId
-    ) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Payment amount must be greater than zero.");
+    /**
+     * Resolves the status of many payments with one Redis read; misses are loaded with a single
+     * query and written back in one pipeline.
+     *
+     * @param paymentIds the payments to look up
+     * @return status by payment id, in request order; unknown ids are left out
+     */
+    public Map<Long, String> getCachedPaymentStatuses(Collection<Long> paymentIds) {
+        Set<Long> ids = new LinkedHashSet<>(paymentIds);
+        if (ids.isEmpty()) {
+            return Map.of();
         }
-        if (currency == null) {
-            throw new IllegalArgumentException("Currency cannot be null.");
+        if (ids.size() > MAX_STATUS_LOOKUP_IDS) {
+            throw new IllegalArgumentException("Status lookup is limited to " + MAX_STATUS_LOOKUP_IDS + " ids.");
         }
-        if (paymentMethod == null) {
-            throw new IllegalArgumentException("Payment method cannot be null.");
+
+        Map<String, Long> idsByKey = new LinkedHashMap<>();
+        ids.forEach(id -> idsByKey.put("payment-status-" + id, id));
+        Map<String, Object> cached = redisService.getValues(idsByKey.keySet());
+
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        idsByKey.forEach((key, id) -> {
+            Object status = cached.get(key);
+            if (status != null) {
+                statuses.put(id, status.toString());
+            } else {
+                misses.add(id);
+            }
+        });
+        if (misses.isEmpty()) {
+            return statuses;
         }
-        if (payerId == null || payerId.trim().isEmpty()) {
-            throw new IllegalArgumentException("Payer ID is required.");
+
+        Map<String, Object> backfill = new LinkedHashMap<>();
+        Map<Long, String> loaded = new LinkedHashMap<>();
+        for (PaymentStatusView view : paymentRepository.findStatusByIdIn(misses)) {
+            loaded.put(view.getId(), view.getStatus().name());
+            backfill.put("payment-status-" + view.getId(), view.getStatus().name());
         }
-        if (payeeId == null || payeeId.trim().isEmpty()) {
-            throw new IllegalArgumentException("Payee ID is required.");
+        if (!backfill.isEmpty()) {
+            try {
+                redisService.setValuesIfAbsent(backfill, STATUS_CACHE_TTL);
+            } catch (RuntimeException e) {
+                // The statuses were read from the database; the cache is filled on the next lookup.
+                log.warn("⚠️ Could not backfill payment status cache | Payments: {} | Error: {}", backfill.size(), e.getMessage());
+            }
         }
+
+        Map<Long, String> ordered = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String status = statuses.containsKey(id) ? statuses.get(id) : loaded.get(id);
+            if (status != null) {
+                ordered.put(id, status);
+            }
+        }
+        return ordered;
+    }
+
+    void validatePaymentRequest(PaymentRequestDTO paymentRequest) {
+        PaymentRequestValidator.validate(paymentRequest);
     }
-}
\ No newline at end of file
+}
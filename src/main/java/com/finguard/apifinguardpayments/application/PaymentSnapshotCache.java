@@ -0,0 +1,89 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of full payment snapshots, stored under both the payment id and the transaction id.
+ * Cache failures never fail a read: they are logged and treated as a miss.
+ */
+@Component
+public class PaymentSnapshotCache {
+
+    static final String ID_KEY_PREFIX = "payment-snapshot-";
+    static final String TRANSACTION_KEY_PREFIX = "payment-snapshot-tx-";
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentSnapshotCache.class);
+    private final RedisService redisService;
+    private final long ttlSeconds;
+
+    public PaymentSnapshotCache(RedisService redisService,
+                                @Value("${payments.cache.snapshot.ttl-seconds:600}") long ttlSeconds) {
+        this.redisService = redisService;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public PaymentResponseDTO getById(Long id) {
+        return read(ID_KEY_PREFIX + id);
+    }
+
+    public PaymentResponseDTO getByTransactionId(String transactionId) {
+        return read(TRANSACTION_KEY_PREFIX + transactionId);
+    }
+
+    public void put(PaymentResponseDTO snapshot) {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put(ID_KEY_PREFIX + snapshot.getId(), snapshot);
+        entries.put(TRANSACTION_KEY_PREFIX + snapshot.getTransactionId(), snapshot);
+        try {
+            redisService.setValuesWithExpiration(entries, ttlSeconds);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not cache payment snapshot - ID: {} | Error: {}", snapshot.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the snapshot of a payment under both of its keys.
+     */
+    public void evict(Long id, String transactionId) {
+        List<String> keys = new ArrayList<>(2);
+        if (id != null) {
+            keys.add(ID_KEY_PREFIX + id);
+        }
+        if (transactionId != null) {
+            keys.add(TRANSACTION_KEY_PREFIX + transactionId);
+        }
+        redisService.deleteCachedValues(keys);
+    }
+
+    /**
+     * Removes the snapshots of many payments with a single Redis call.
+     */
+    public void evictAll(Collection<Payment> payments) {
+        List<String> keys = new ArrayList<>(payments.size() * 2);
+        for (Payment payment : payments) {
+            keys.add(ID_KEY_PREFIX + payment.getId());
+            keys.add(TRANSACTION_KEY_PREFIX + payment.getTransactionId());
+        }
+        redisService.deleteCachedValues(keys);
+    }
+
+    private PaymentResponseDTO read(String key) {
+        try {
+            return redisService.getValue(key) instanceof PaymentResponseDTO snapshot ? snapshot : null;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Payment snapshot cache unavailable - Key: {} | Error: {}", key, e.getMessage());
+            return null;
+        }
+    }
+}
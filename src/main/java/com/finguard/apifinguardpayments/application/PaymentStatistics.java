@@ -0,0 +1,250 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStat;
+import com.finguard.apifinguardpayments.domain.PaymentStat.Dimension;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.infrastructure.PaymentStatRepository;
+import com.finguard.apifinguardpayments.web.response.PaymentStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Payment counts by status, currency and payment method, maintained incrementally instead of
+ * running COUNT/DISTINCT over {@code payments}.
+ * Every lifecycle change adds a delta to an in-process {@link LongAdder} once its transaction commits.
+ * Deltas are flushed on an interval as upserts into {@code payment_stats}, which every node reloads
+ * as its baseline, and the table is rebuilt from {@code payments} by a nightly reconciliation.
+ * Reads combine the baseline with this node's unflushed deltas and never touch the database, so other
+ * nodes' changes show up within one flush interval.
+ */
+@Component
+public class PaymentStatistics {
+
+    static final String TOTAL_VALUE = "";
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatistics.class);
+    private static final Key TOTAL = new Key(Dimension.TOTAL, TOTAL_VALUE);
+
+    private final PaymentStatRepository paymentStatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Key, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Timer reconcileTimer;
+    private final Counter flushFailureCounter;
+
+    private volatile State state;
+
+    public PaymentStatistics(
+            PaymentStatRepository paymentStatRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.paymentStatRepository = paymentStatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTimer = meterRegistry.timer("payment.stats.flush");
+        this.reconcileTimer = meterRegistry.timer("payment.stats.reconcile");
+        this.flushFailureCounter = meterRegistry.counter("payment.stats.flush.failure");
+    }
+
+    /**
+     * Counts a new payment, after the current transaction commits if there is one.
+     */
+    public void recordCreated(Payment payment) {
+        AfterCommit.run(() -> count(payment, 1));
+    }
+
+    /**
+     * Counts a batch of new payments, after the current transaction commits if there is one.
+     */
+    public void recordCreated(Collection<Payment> payments) {
+        AfterCommit.run(() -> payments.forEach(payment -> count(payment, 1)));
+    }
+
+    /**
+     * Removes a deleted payment from the counts, after the current transaction commits if there is one.
+     */
+    public void recordDeleted(Payment payment) {
+        AfterCommit.run(() -> count(payment, -1));
+    }
+
+    /**
+     * Moves a payment from its previous status to its new one, after the current transaction commits if there is one.
+     */
+    public void recordTransition(PaymentTransition transition) {
+        AfterCommit.run(() -> move(transition));
+    }
+
+    /**
+     * Records a batch of status transitions, after the current transaction commits if there is one.
+     */
+    public void recordTransitions(Collection<PaymentTransition> transitions) {
+        AfterCommit.run(() -> transitions.forEach(this::move));
+    }
+
+    /**
+     * @return the current counts: the summary table as last loaded plus this node's unflushed deltas
+     */
+    public PaymentStatsDTO snapshot() {
+        State current = currentState();
+        Map<Key, Long> counts = new HashMap<>(current.baseline());
+        current.inFlight().forEach((key, delta) -> counts.merge(key, delta, Long::sum));
+        deltas.forEach((key, adder) -> counts.merge(key, adder.sum(), Long::sum));
+
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byCurrency = new TreeMap<>();
+        Map<String, Long> byPaymentMethod = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            if (count == 0) {
+                return;
+            }
+            switch (key.dimension()) {
+                case STATUS -> byStatus.put(key.value(), count);
+                case CURRENCY -> byCurrency.put(key.value(), count);
+                case PAYMENT_METHOD -> byPaymentMethod.put(key.value(), count);
+                case TOTAL -> { }
+            }
+        });
+        return new PaymentStatsDTO(counts.getOrDefault(TOTAL, 0L), byStatus, byCurrency, byPaymentMethod, current.loadedAt());
+    }
+
+    /**
+     * Writes this node's accumulated deltas to the summary table and reloads it as the new baseline.
+     */
+    @Scheduled(fixedDelayString = "${payments.stats.flush-interval:5s}")
+    public synchronized void flush() {
+        // Load the baseline before draining, so a database outage at startup leaves the deltas in the adders
+        State current = currentState();
+        Map<Key, Long> drained = drain();
+        if (!drained.isEmpty()) {
+            state = current.withInFlight(drained);
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                        drained.forEach((key, delta) ->
+                                paymentStatRepository.addToCount(key.dimension().name(), key.value(), delta))));
+            } catch (RuntimeException e) {
+                flushFailureCounter.increment();
+                // Hand the deltas back to the adders so the next flush retries them
+                drained.forEach((key, delta) -> adder(key).add(delta));
+                state = current;
+                log.warn("⚠️ Payment stats flush failed, will retry | Counters: {} | Error: {}", drained.size(), e.getMessage());
+                return;
+            }
+        }
+
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not reload payment stats | Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the summary table from {@code payments} in one GROUPING SETS scan to correct any drift
+     * (deltas lost on a crash, direct SQL changes). Only one node runs it at a time. Changes committed
+     * on other nodes but not yet flushed can still be counted twice, within one flush interval of the rebuild.
+     */
+    @Scheduled(cron = "${payments.stats.reconcile-cron:0 30 3 * * *}")
+    public synchronized void reconcile() {
+        flush();
+        Integer rows = reconcileTimer.record(() -> transactionTemplate.execute(status -> {
+            if (!paymentStatRepository.tryAcquireRebuildLock()) {
+                return null;
+            }
+            paymentStatRepository.deleteAllStats();
+            return paymentStatRepository.rebuildFromPayments();
+        }));
+        if (rows == null) {
+            log.info("Payment stats reconciliation skipped, another node holds the lock");
+            return;
+        }
+        reload();
+        log.info("✅ Payment stats reconciled | Counters: {}", rows);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void move(PaymentTransition transition) {
+        Payment payment = transition.payment();
+        if (transition.previousStatus() == payment.getStatus()) {
+            return;
+        }
+        adder(new Key(Dimension.STATUS, transition.previousStatus().name())).decrement();
+        adder(new Key(Dimension.STATUS, payment.getStatus().name())).increment();
+    }
+
+    private void count(Payment payment, long delta) {
+        adder(TOTAL).add(delta);
+        adder(new Key(Dimension.STATUS, payment.getStatus().name())).add(delta);
+        adder(new Key(Dimension.CURRENCY, payment.getCurrency().name())).add(delta);
+        adder(new Key(Dimension.PAYMENT_METHOD, payment.getPaymentMethod().name())).add(delta);
+    }
+
+    private LongAdder adder(Key key) {
+        return deltas.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private Map<Key, Long> drain() {
+        Map<Key, Long> drained = new HashMap<>();
+        deltas.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(key, delta);
+            }
+        });
+        return drained;
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current == null) {
+            synchronized (this) {
+                if (state == null) {
+                    reload();
+                }
+                current = state;
+            }
+        }
+        return current;
+    }
+
+    private void reload() {
+        Map<Key, Long> baseline = new HashMap<>();
+        for (PaymentStat stat : paymentStatRepository.findAll()) {
+            baseline.put(new Key(stat.getDimension(), stat.getValue()), stat.getCount());
+        }
+        state = new State(Map.copyOf(baseline), Map.of(), LocalDateTime.now());
+    }
+
+    record Key(Dimension dimension, String value) {
+    }
+
+    /**
+     * The last loaded summary table and the deltas being flushed to it, swapped as one value.
+     */
+    private record State(Map<Key, Long> baseline, Map<Key, Long> inFlight, LocalDateTime loadedAt) {
+
+        State withInFlight(Map<Key, Long> inFlight) {
+            return new State(baseline, Map.copyOf(inFlight), loadedAt);
+        }
+    }
+}
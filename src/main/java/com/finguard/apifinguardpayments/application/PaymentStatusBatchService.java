@@ -0,0 +1,114 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies status changes coming from upstream in bulk: one UPDATE for the whole batch,
+ * the matching outbox events in the same transaction, then the status cache through the write-behind buffer.
+ * Changes the transition table does not allow (e.g. leaving a terminal status) are left out of the UPDATE,
+ * then counted and logged.
+ */
+@Service
+public class PaymentStatusBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStatusBatchService.class);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final StatusCacheWriteBehind statusCacheWriteBehind;
+    private final PaymentSnapshotCache paymentSnapshotCache;
+    private final PaymentStatistics paymentStatistics;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rejectedCounter;
+
+    public PaymentStatusBatchService(
+            PaymentRepository paymentRepository,
+            PaymentEventPublisher paymentEventPublisher,
+            StatusCacheWriteBehind statusCacheWriteBehind,
+            PaymentSnapshotCache paymentSnapshotCache,
+            PaymentStatistics paymentStatistics,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.statusCacheWriteBehind = statusCacheWriteBehind;
+        this.paymentSnapshotCache = paymentSnapshotCache;
+        this.paymentStatistics = paymentStatistics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rejectedCounter = meterRegistry.counter("payment.status.transition.rejected");
+    }
+
+    /**
+     * @param statusByTransactionId the latest status of each payment in the batch
+     * @return the payments that were updated; unknown transaction ids and disallowed transitions are left out
+     */
+    public List<Payment> applyStatusUpdates(Map<String, PaymentStatus> statusByTransactionId) {
+        if (statusByTransactionId.isEmpty()) {
+            return List.of();
+        }
+
+        List<Payment> updated = transactionTemplate.execute(status -> {
+            List<PaymentTransition> transitions = paymentRepository.updateStatuses(statusByTransactionId, LocalDateTime.now());
+            List<Payment> payments = transitions.stream().map(PaymentTransition::payment).toList();
+            paymentEventPublisher.publishAll(payments, PaymentEventType.PAYMENT_STATUS_CHANGED);
+            paymentStatistics.recordTransitions(transitions);
+            return payments;
+        });
+        if (updated == null) {
+            updated = List.of();
+        }
+        if (updated.size() < statusByTransactionId.size()) {
+            logRejectedTransitions(statusByTransactionId, updated);
+        }
+        if (updated.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, String> statusEntries = new LinkedHashMap<>();
+        for (Payment payment : updated) {
+            statusEntries.put(payment.getId(), payment.getStatus().name());
+        }
+        statusCacheWriteBehind.enqueueAll(statusEntries);
+        try {
+            paymentSnapshotCache.evictAll(updated);
+        } catch (RuntimeException e) {
+            // Statuses are already committed; cached entries expire or get rewritten on the next change.
+            log.warn("⚠️ Payment statuses updated but snapshots were not evicted | Payments: {} | Error: {}", updated.size(), e.getMessage());
+        }
+        return updated;
+    }
+
+    /**
+     * Tells disallowed transitions apart from unknown payments; only read when part of the batch was not applied.
+     */
+    private void logRejectedTransitions(Map<String, PaymentStatus> statusByTransactionId, List<Payment> updated) {
+        Set<String> notApplied = new LinkedHashSet<>(statusByTransactionId.keySet());
+        updated.forEach(payment -> notApplied.remove(payment.getTransactionId()));
+        List<String> rejected = paymentRepository.findExistingTransactionIds(notApplied);
+        if (rejected.isEmpty()) {
+            return;
+        }
+        rejectedCounter.increment(rejected.size());
+        rejected.forEach(transactionId -> log.warn("⚠️ Status transition not allowed, update skipped | TransactionId: {} | Target: {}",
+                transactionId, statusByTransactionId.get(transactionId)));
+    }
+}
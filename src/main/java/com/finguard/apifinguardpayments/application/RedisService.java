@@ -5,29 +5,71 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class RedisService {
 
+    static final String LOCK_KEY_PREFIX = "lock:";
+
     private static final Logger log = LoggerFactory.getLogger(RedisService.class);
+    private static final long LOCK_POLL_INTERVAL_MILLIS = 25;
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final NearCache nearCache;
+    private final Duration loadLockTtl;
+    private final Duration loadLockWait;
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
     private final Timer cacheWriteTimer;
     private final Timer cacheReadTimer;
     private final Counter cacheMissCounter;
     private final Counter cacheHitCounter;
     private final Counter cacheDeleteCounter;
+    private final Timer cacheLoadTimer;
+    private final Counter cacheLoadCoalescedCounter;
+    private final Counter cacheLoadLockContendedCounter;
 
-    public RedisService(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+    public RedisService(
+            RedisTemplate<String, Object> redisTemplate,
+            NearCache nearCache,
+            MeterRegistry meterRegistry,
+            @Value("${payments.cache.load.lock-ttl:5s}") Duration loadLockTtl,
+            @Value("${payments.cache.load.lock-wait:2s}") Duration loadLockWait
+    ) {
         this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache;
+        this.loadLockTtl = loadLockTtl;
+        this.loadLockWait = loadLockWait;
         this.cacheWriteTimer = meterRegistry.timer("redis.cache.write");
         this.cacheReadTimer = meterRegistry.timer("redis.cache.read");
         this.cacheMissCounter = meterRegistry.counter("redis.cache.miss");
         this.cacheHitCounter = meterRegistry.counter("redis.cache.hit");
         this.cacheDeleteCounter = meterRegistry.counter("redis.cache.delete");
+        this.cacheLoadTimer = meterRegistry.timer("redis.cache.load");
+        this.cacheLoadCoalescedCounter = meterRegistry.counter("redis.cache.load.coalesced");
+        this.cacheLoadLockContendedCounter = meterRegistry.counter("redis.cache.load.lock.contended");
     }
 
     /**
@@ -43,6 +85,7 @@ public class RedisService {
             long startTime = System.nanoTime();
             try {
                 redisTemplate.opsForValue().set(key, value);
+                invalidateNearCache(key);
                 log.info("✅ Stored value in Redis - Key: {}, Value: {}", key, value);
             } catch (Exception e) {
                 log.error("❌ Failed to store value in Redis - Key: {} | Error: {}", key, e.getMessage());
@@ -53,6 +96,80 @@ public class RedisService {
         }
     }
 
+    /**
+     * Stores several key-value pairs in a single pipelined round trip.
+     *
+     * @param entries The key-value pairs to store.
+     */
+    public void setValues(Map<String, Object> entries) {
+        setValuesPipelined(entries, 0);
+    }
+
+    /**
+     * Stores several key-value pairs with the same expiration in a single pipelined round trip.
+     *
+     * @param entries    The key-value pairs to store.
+     * @param expiration Time in seconds before the keys expire.
+     */
+    public void setValuesWithExpiration(Map<String, Object> entries, long expiration) {
+        setValuesPipelined(entries, expiration);
+    }
+
+    /**
+     * Fills several keys that do not exist yet (SET NX) with the same expiration in a single pipelined round trip,
+     * so values loaded from the database never overwrite a newer write.
+     *
+     * @param entries The key-value pairs to store.
+     * @param ttl     Expiration of the keys.
+     */
+    public void setValuesIfAbsent(Map<String, Object> entries, Duration ttl) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    entries.forEach((key, value) -> ops.opsForValue().setIfAbsent(key, value, ttl));
+                    return null;
+                }
+            });
+            log.info("✅ Loaded {} values into Redis via pipeline", entries.size());
+        } catch (Exception e) {
+            log.error("❌ Failed to store pipelined values if absent - Keys: {} | Error: {}", entries.size(), e.getMessage());
+            throw new RuntimeException("Redis cache operation failed", e);
+        } finally {
+            cacheWriteTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stores a key-value pair only if the key does not exist yet (SET NX).
+     *
+     * @param key   The key to store.
+     * @param value The value to store.
+     * @param ttl   Expiration of the key.
+     * @return true if the value was stored, false if the key already existed.
+     */
+    public boolean setValueIfAbsent(String key, Object value, Duration ttl) {
+        long startTime = System.nanoTime();
+        try {
+            boolean stored = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, ttl));
+            if (stored) {
+                invalidateNearCache(key);
+            }
+            return stored;
+        } catch (Exception e) {
+            log.error("❌ Failed to store value if absent - Key: {} | Error: {}", key, e.getMessage());
+            throw new RuntimeException("Redis cache operation failed", e);
+        } finally {
+            cacheWriteTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * Stores a key-value pair in Redis with an expiration time.
      *
@@ -64,6 +181,7 @@ public class RedisService {
         long startTime = System.nanoTime();
         try {
             redisTemplate.opsForValue().set(key, value, expiration, TimeUnit.SECONDS);
+            invalidateNearCache(key);
             log.info("✅ Stored value in Redis with expiration - Key: {}, Expiration: {}s", key, expiration);
         } catch (Exception e) {
             log.error("❌ Failed to store value with expiration - Key: {} | Error: {}", key, e.getMessage());
@@ -74,12 +192,18 @@ public class RedisService {
     }
 
     /**
-     * Retrieves a value from Redis.
+     * Retrieves a value, first from the in-process near cache and then from Redis.
+     * Values found in Redis are kept in the near cache until they expire or are invalidated.
      *
      * @param key The key to retrieve.
      * @return The stored value, or null if not found.
      */
     public Object getValue(String key) {
+        Object local = nearCache.get(key);
+        if (local != null) {
+            return local;
+        }
+
         long startTime = System.nanoTime();
         try {
             Object value = redisTemplate.opsForValue().get(key);
@@ -88,6 +212,7 @@ public class RedisService {
                 log.warn("⚠️ Cache miss - Key: {}", key);
             } else {
                 cacheHitCounter.increment();
+                nearCache.put(key, value);
                 log.info("✅ Cache hit - Key: {}", key);
             }
             return value;
@@ -99,6 +224,109 @@ public class RedisService {
         }
     }
 
+    /**
+     * Reads a key straight from Redis, bypassing the near cache, for short-lived state such as
+     * reservations that must never be served stale.
+     *
+     * @param key The key to retrieve.
+     * @return The stored value, or null if not found.
+     */
+    public Object getRemoteValue(String key) {
+        long startTime = System.nanoTime();
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.error("❌ Failed to retrieve value from Redis - Key: {} | Error: {}", key, e.getMessage());
+            throw new RuntimeException("Redis read operation failed", e);
+        } finally {
+            cacheReadTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads many keys at once: near-cache hits first, then a single MGET for the rest.
+     *
+     * @param keys the keys to read
+     * @return the values found, keyed by cache key; missing keys are absent
+     */
+    public Map<String, Object> getValues(Collection<String> keys) {
+        Map<String, Object> found = new LinkedHashMap<>();
+        List<String> remote = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object local = nearCache.get(key);
+            if (local != null) {
+                found.put(key, local);
+            } else {
+                remote.add(key);
+            }
+        }
+        if (remote.isEmpty()) {
+            return found;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(remote);
+            int hits = 0;
+            for (int i = 0; i < remote.size(); i++) {
+                Object value = values == null ? null : values.get(i);
+                if (value != null) {
+                    found.put(remote.get(i), value);
+                    nearCache.put(remote.get(i), value);
+                    hits++;
+                }
+            }
+            cacheHitCounter.increment(hits);
+            cacheMissCounter.increment(remote.size() - hits);
+            log.info("✅ Cache multi-get - Keys: {} | Hits: {}", remote.size(), hits);
+            return found;
+        } catch (Exception e) {
+            log.error("❌ Failed to retrieve values from Redis - Keys: {} | Error: {}", remote.size(), e.getMessage());
+            throw new RuntimeException("Redis read operation failed", e);
+        } finally {
+            cacheReadTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads a key and, on a miss, loads it once and caches it.
+     * Concurrent callers in this JVM share a single in-flight load per key. Across nodes a short
+     * Redis lock ({@code lock:{key}}) lets one node run the loader while the others wait up to
+     * {@code payments.cache.load.lock-wait} for the value to appear; if it does not, they load it
+     * themselves. The loaded value is stored with SET NX, so it never overwrites a newer write.
+     * Redis failures fall back to the loader instead of failing the read.
+     *
+     * @param key    The key to read.
+     * @param loader Loads the value on a miss; a null result is returned but not cached.
+     * @param ttl    Expiration of the cached value, or null to keep it until overwritten.
+     * @return The cached or loaded value, or null if the loader found nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, Supplier<T> loader, Duration ttl) {
+        Object cached = readQuietly(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            cacheLoadCoalescedCounter.increment();
+            return (T) await(inFlight);
+        }
+
+        try {
+            Object value = loadOnce(key, loader, ttl);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
     /**
      * Deletes a key from Redis.
      *
@@ -107,6 +335,7 @@ public class RedisService {
     public void deleteCachedValue(String key) {
         try {
             redisTemplate.delete(key);
+            invalidateNearCache(key);
             cacheDeleteCounter.increment();
             log.info("🗑️ Deleted key from Redis - Key: {}", key);
         } catch (Exception e) {
@@ -114,4 +343,178 @@ public class RedisService {
             throw new RuntimeException("Redis delete operation failed", e);
         }
     }
+
+    /**
+     * Deletes several keys from Redis with a single DEL command.
+     *
+     * @param keys The keys to delete.
+     */
+    public void deleteCachedValues(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+            keys.forEach(this::invalidateNearCache);
+            cacheDeleteCounter.increment(keys.size());
+            log.info("🗑️ Deleted keys from Redis - Keys: {}", keys);
+        } catch (Exception e) {
+            log.error("❌ Failed to delete keys from Redis - Keys: {} | Error: {}", keys, e.getMessage());
+            throw new RuntimeException("Redis delete operation failed", e);
+        }
+    }
+
+    private void invalidateNearCache(String key) {
+        nearCache.evict(key);
+        nearCache.publishInvalidation(redisTemplate, key);
+    }
+
+    private void setValuesPipelined(Map<String, Object> entries, long expiration) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    entries.forEach((key, value) -> {
+                        if (expiration > 0) {
+                            ops.opsForValue().set(key, value, expiration, TimeUnit.SECONDS);
+                        } else {
+                            ops.opsForValue().set(key, value);
+                        }
+                        nearCache.publishInvalidation(ops, key);
+                    });
+                    return null;
+                }
+            });
+            entries.keySet().forEach(nearCache::evict);
+            log.info("✅ Stored {} values in Redis via pipeline", entries.size());
+        } catch (Exception e) {
+            log.error("❌ Failed to store pipelined values in Redis - Keys: {} | Error: {}", entries.size(), e.getMessage());
+            throw new RuntimeException("Redis cache operation failed", e);
+        } finally {
+            cacheWriteTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Object loadOnce(String key, Supplier<?> loader, Duration ttl) {
+        String lockKey = LOCK_KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            cacheLoadLockContendedCounter.increment();
+            Object value = awaitRemoteValue(key);
+            if (value != null) {
+                return value;
+            }
+            log.warn("⚠️ Cache load lock still held, loading anyway - Key: {}", key);
+        }
+
+        try {
+            // Another caller may have filled the key between our miss and taking the lock
+            Object value = readRemoteQuietly(key);
+            if (value != null) {
+                return value;
+            }
+
+            long startTime = System.nanoTime();
+            value = loader.get();
+            cacheLoadTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            if (value != null) {
+                fillQuietly(key, value, ttl);
+            }
+            return value;
+        } finally {
+            if (locked) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+
+    private Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Cache load failed", e.getCause());
+        }
+    }
+
+    private Object readQuietly(String key) {
+        try {
+            return getValue(key);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Object readRemoteQuietly(String key) {
+        try {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (value != null) {
+                nearCache.put(key, value);
+            }
+            return value;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Object awaitRemoteValue(String key) {
+        long deadline = System.nanoTime() + loadLockWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Object value = readRemoteQuietly(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, loadLockTtl));
+        } catch (Exception e) {
+            // Without Redis there is nobody to coordinate with; the in-process single flight still applies
+            log.warn("⚠️ Could not acquire cache load lock - Key: {} | Error: {}", lockKey, e.getMessage());
+            return false;
+        }
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not release cache load lock, it expires in {} - Key: {} | Error: {}",
+                    loadLockTtl, lockKey, e.getMessage());
+        }
+    }
+
+    private void fillQuietly(String key, Object value, Duration ttl) {
+        long startTime = System.nanoTime();
+        try {
+            if (ttl != null && !ttl.isZero()) {
+                redisTemplate.opsForValue().setIfAbsent(key, value, ttl);
+            } else {
+                redisTemplate.opsForValue().setIfAbsent(key, value);
+            }
+            log.info("✅ Loaded value into Redis - Key: {}", key);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not cache loaded value - Key: {} | Error: {}", key, e.getMessage());
+        } finally {
+            cacheWriteTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
 }
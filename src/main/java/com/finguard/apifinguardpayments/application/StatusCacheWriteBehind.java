@@ -0,0 +1,130 @@
+package com.finguard.apifinguardpayments.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for the payment status cache ({@code payment-status-{id}}).
+ * Updates made inside a transaction are only queued once it commits, so a rolled-back status is never
+ * published. Queued updates are coalesced per payment (last write wins) and flushed on a short interval
+ * with one pipelined Redis call, with the same expiration as the other status cache writes. Readers may see
+ * the previous status for up to one flush interval.
+ */
+@Component
+public class StatusCacheWriteBehind {
+
+    static final String KEY_PREFIX = "payment-status-";
+
+    private static final Logger log = LoggerFactory.getLogger(StatusCacheWriteBehind.class);
+    private static final String DELETED = "";
+
+    private final RedisService redisService;
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter coalescedCounter;
+    private final Counter flushFailureCounter;
+
+    public StatusCacheWriteBehind(RedisService redisService, MeterRegistry meterRegistry) {
+        this.redisService = redisService;
+        this.flushTimer = meterRegistry.timer("payment.status.cache.flush");
+        this.coalescedCounter = meterRegistry.counter("payment.status.cache.coalesced");
+        this.flushFailureCounter = meterRegistry.counter("payment.status.cache.flush.failure");
+        Gauge.builder("payment.status.cache.queue.depth", pending, Map::size)
+                .description("Payment status cache updates waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the cached status of a payment, after the current transaction commits if there is one.
+     */
+    public void enqueue(Long paymentId, String status) {
+        AfterCommit.run(() -> offer(paymentId, status));
+    }
+
+    /**
+     * Queues many status updates at once, after the current transaction commits if there is one.
+     */
+    public void enqueueAll(Map<Long, String> statusByPaymentId) {
+        Map<Long, String> updates = Map.copyOf(statusByPaymentId);
+        AfterCommit.run(() -> updates.forEach(this::offer));
+    }
+
+    /**
+     * Queues the removal of a payment's cached status, ordered with its other pending updates.
+     */
+    public void enqueueDelete(Long paymentId) {
+        AfterCommit.run(() -> offer(paymentId, DELETED));
+    }
+
+    @Scheduled(fixedDelayString = "${payments.cache.status.flush-interval:50ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> batch = new LinkedHashMap<>();
+        for (Long paymentId : pending.keySet()) {
+            String status = pending.remove(paymentId);
+            if (status != null) {
+                batch.put(paymentId, status);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> writes = new LinkedHashMap<>();
+        List<String> deletes = new ArrayList<>();
+        batch.forEach((paymentId, status) -> {
+            if (DELETED.equals(status)) {
+                deletes.add(KEY_PREFIX + paymentId);
+            } else {
+                writes.put(KEY_PREFIX + paymentId, status);
+            }
+        });
+
+        try {
+            flushTimer.record(() -> {
+                if (!writes.isEmpty()) {
+                    redisService.setValuesWithExpiration(writes, PaymentService.STATUS_CACHE_TTL.toSeconds());
+                }
+                if (!deletes.isEmpty()) {
+                    redisService.deleteCachedValues(deletes);
+                }
+            });
+        } catch (RuntimeException e) {
+            flushFailureCounter.increment();
+            // Put the batch back unless a newer update arrived in the meantime
+            batch.forEach(pending::putIfAbsent);
+            log.warn("⚠️ Payment status cache flush failed, will retry | Entries: {} | Error: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void offer(Long paymentId, String status) {
+        if (pending.put(paymentId, status) != null) {
+            coalescedCounter.increment();
+        }
+    }
+}
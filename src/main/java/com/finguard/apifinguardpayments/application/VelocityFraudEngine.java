@@ -0,0 +1,324 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Real-time velocity scoring of new payments.
+ * Each payer and payee has a payment count, and an amount sum per currency, over the last minute, hour and day
+ * ({@link VelocityWindow}), held in memory on this node. A payment is scored as the highest ratio of any of its
+ * parties' totals, itself included, to the configured limit; above the threshold it is flagged as fraudulent.
+ * Amount totals are kept per currency and compared with that currency's own limits
+ * ({@code payments.fraud.velocity.payer.max-amount.<CURRENCY>}, in its units); a currency without its own limits
+ * uses {@code payments.fraud.velocity.payer.max-amount}, and likewise for payees.
+ * A payment is only added to the windows once the transaction that scored it commits; until then it is counted
+ * for the later payments scored in the same transaction only, and it is dropped if that transaction rolls back.
+ * Parties idle for longer than the widest window are evicted, which loses nothing since all their buckets
+ * have expired, and the number of tracked parties is capped.
+ */
+@Component
+public class VelocityFraudEngine {
+
+    public static final String FLAGGED_BY = "velocity-engine";
+
+    private static final Duration[] WINDOWS = {Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofDays(1)};
+    private static final int[] WINDOW_BUCKETS = {12, 60, 96};
+    private static final String[] WINDOW_NAMES = {"1m", "1h", "24h"};
+    private static final FraudVerdict NOT_SCORED = FraudVerdict.clean(BigDecimal.ZERO);
+
+    private final boolean enabled;
+    private final double threshold;
+    private final long[] payerMaxCount;
+    private final Map<Currency, long[]> payerMaxAmount;
+    private final long[] payeeMaxCount;
+    private final Map<Currency, long[]> payeeMaxAmount;
+    private final Cache<String, VelocityWindow[]> payers;
+    private final Cache<String, VelocityWindow[]> payees;
+    private final Timer scoreTimer;
+    private final Counter flaggedCounter;
+
+    public VelocityFraudEngine(
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${payments.fraud.velocity.enabled:true}") boolean enabled,
+            @Value("${payments.fraud.velocity.threshold:1.0}") double threshold,
+            @Value("${payments.fraud.velocity.max-tracked-parties:100000}") long maxTrackedParties,
+            @Value("${payments.fraud.velocity.payer.max-count:10,60,300}") long[] payerMaxCount,
+            @Value("${payments.fraud.velocity.payer.max-amount:10000,50000,200000}") BigDecimal[] payerMaxAmount,
+            @Value("${payments.fraud.velocity.payee.max-count:600,20000,200000}") long[] payeeMaxCount,
+            @Value("${payments.fraud.velocity.payee.max-amount:500000,5000000,50000000}") BigDecimal[] payeeMaxAmount
+    ) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.payerMaxCount = countLimits(payerMaxCount);
+        this.payerMaxAmount = amountLimits(environment, "payments.fraud.velocity.payer.max-amount", payerMaxAmount);
+        this.payeeMaxCount = countLimits(payeeMaxCount);
+        this.payeeMaxAmount = amountLimits(environment, "payments.fraud.velocity.payee.max-amount", payeeMaxAmount);
+        this.payers = trackedParties(maxTrackedParties);
+        this.payees = trackedParties(maxTrackedParties);
+        this.scoreTimer = meterRegistry.timer("payment.fraud.velocity.score");
+        this.flaggedCounter = meterRegistry.counter("payment.fraud.velocity.flagged");
+        CaffeineCacheMetrics.monitor(meterRegistry, payers, "payment-velocity-payers");
+        CaffeineCacheMetrics.monitor(meterRegistry, payees, "payment-velocity-payees");
+    }
+
+    /**
+     * Scores a new payment against its payer's and payee's windows, then adds it to them: after the current
+     * transaction commits, or right away when there is none.
+     * @param payment the payment being created
+     * @return the risk score, flagged with the exceeded limit as reason when it is above the threshold
+     */
+    public FraudVerdict score(Payment payment) {
+        if (!enabled) {
+            return NOT_SCORED;
+        }
+        return scoreTimer.record(() -> evaluate(payment));
+    }
+
+    private FraudVerdict evaluate(Payment payment) {
+        long now = System.currentTimeMillis();
+        Scored scored = new Scored(payment.getPayerId(), payment.getPayeeId(), payment.getCurrency(),
+                toMinorUnits(payment.getAmount()));
+        Uncommitted uncommitted = uncommitted();
+        Breach worst = new Breach();
+        check(payers, scored.payerId(), "payer", payerMaxCount, payerMaxAmount, scored, now, uncommitted, worst);
+        check(payees, scored.payeeId(), "payee", payeeMaxCount, payeeMaxAmount, scored, now, uncommitted, worst);
+        if (uncommitted == null) {
+            record(scored, now);
+        } else {
+            uncommitted.add(scored);
+        }
+
+        BigDecimal riskScore = BigDecimal.valueOf(worst.ratio).setScale(4, RoundingMode.HALF_UP);
+        if (worst.ratio <= threshold) {
+            return FraudVerdict.clean(riskScore);
+        }
+        flaggedCounter.increment();
+        return FraudVerdict.flagged(riskScore, worst.describe(), FLAGGED_BY);
+    }
+
+    private void check(Cache<String, VelocityWindow[]> parties, String partyId, String role,
+                       long[] maxCount, Map<Currency, long[]> maxAmountByCurrency, Scored scored, long now, Uncommitted uncommitted, Breach worst) {
+        if (partyId == null) {
+            return;
+        }
+        String currencyKey = currencyKey(partyId, scored.currency());
+        long[] maxAmount = maxAmountByCurrency.get(scored.currency());
+        VelocityWindow[] all = parties.getIfPresent(partyId);
+        VelocityWindow[] inCurrency = parties.getIfPresent(currencyKey);
+        long pendingCount = uncommitted == null ? 0 : uncommitted.count(role, partyId);
+        long pendingSum = uncommitted == null ? 0 : uncommitted.sum(role, currencyKey);
+        for (int i = 0; i < WINDOWS.length; i++) {
+            long count = (all == null ? 0 : all[i].totals(now).count()) + pendingCount + 1;
+            long sum = (inCurrency == null ? 0 : inCurrency[i].totals(now).sum()) + pendingSum + scored.amount();
+            worst.consider((double) count / maxCount[i], role, i, null, count, maxCount[i]);
+            if (maxAmount != null) {
+                worst.consider((double) sum / maxAmount[i], role, i, scored.currency(), sum, maxAmount[i]);
+            }
+        }
+    }
+
+    private void record(Scored scored, long now) {
+        add(payers, scored.payerId(), scored, now);
+        add(payees, scored.payeeId(), scored, now);
+    }
+
+    private static void add(Cache<String, VelocityWindow[]> parties, String partyId, Scored scored, long now) {
+        if (partyId == null) {
+            return;
+        }
+        for (VelocityWindow window : parties.get(partyId, id -> newWindows())) {
+            window.add(now, scored.amount());
+        }
+        for (VelocityWindow window : parties.get(currencyKey(partyId, scored.currency()), id -> newWindows())) {
+            window.add(now, scored.amount());
+        }
+    }
+
+    /**
+     * @return the payments scored so far in the current transaction, or null outside of one
+     */
+    private Uncommitted uncommitted() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Uncommitted uncommitted = (Uncommitted) TransactionSynchronizationManager.getResource(this);
+        if (uncommitted == null) {
+            uncommitted = new Uncommitted();
+            TransactionSynchronizationManager.bindResource(this, uncommitted);
+            TransactionSynchronizationManager.registerSynchronization(uncommitted);
+        }
+        return uncommitted;
+    }
+
+    private static String currencyKey(String partyId, Currency currency) {
+        return partyId + "|" + currency;
+    }
+
+    private static VelocityWindow[] newWindows() {
+        VelocityWindow[] windows = new VelocityWindow[WINDOWS.length];
+        for (int i = 0; i < WINDOWS.length; i++) {
+            windows[i] = new VelocityWindow(WINDOWS[i], WINDOW_BUCKETS[i]);
+        }
+        return windows;
+    }
+
+    private static Cache<String, VelocityWindow[]> trackedParties(long maxTrackedParties) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTrackedParties)
+                .expireAfterAccess(WINDOWS[WINDOWS.length - 1])
+                .recordStats()
+                .build();
+    }
+
+    private static long[] countLimits(long[] limits) {
+        if (limits.length != WINDOWS.length) {
+            throw new IllegalArgumentException("Velocity count limits must be given for the 1m, 1h and 24h windows.");
+        }
+        for (long limit : limits) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Velocity count limits must be greater than zero.");
+            }
+        }
+        return limits.clone();
+    }
+
+    /**
+     * @return each currency's amount limits, in minor units: its own {@code <property>.<CURRENCY>} when set,
+     * otherwise the given defaults
+     */
+    private static Map<Currency, long[]> amountLimits(Environment environment, String property, BigDecimal[] defaults) {
+        Map<Currency, long[]> limits = new EnumMap<>(Currency.class);
+        for (Currency currency : Currency.values()) {
+            limits.put(currency, amountLimits(environment.getProperty(property + "." + currency, BigDecimal[].class, defaults)));
+        }
+        return limits;
+    }
+
+    private static long[] amountLimits(BigDecimal[] limits) {
+        if (limits.length != WINDOWS.length) {
+            throw new IllegalArgumentException("Velocity amount limits must be given for the 1m, 1h and 24h windows.");
+        }
+        long[] minorUnits = new long[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            minorUnits[i] = toMinorUnits(limits[i]);
+            if (minorUnits[i] <= 0) {
+                throw new IllegalArgumentException("Velocity amount limits must be greater than zero.");
+            }
+        }
+        return minorUnits;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private record Scored(String payerId, String payeeId, Currency currency, long amount) {
+    }
+
+    /**
+     * Payments scored in one transaction, added to the windows when it commits.
+     */
+    private final class Uncommitted implements TransactionSynchronization {
+
+        private final List<Scored> payments = new ArrayList<>();
+        private final Map<String, Long> counts = new HashMap<>();
+        private final Map<String, Long> sums = new HashMap<>();
+
+        void add(Scored scored) {
+            payments.add(scored);
+            track("payer", scored.payerId(), scored);
+            track("payee", scored.payeeId(), scored);
+        }
+
+        private void track(String role, String partyId, Scored scored) {
+            if (partyId != null) {
+                counts.merge(role + ":" + partyId, 1L, Long::sum);
+                sums.merge(role + ":" + currencyKey(partyId, scored.currency()), scored.amount(), Long::sum);
+            }
+        }
+
+        long count(String role, String partyId) {
+            return counts.getOrDefault(role + ":" + partyId, 0L);
+        }
+
+        long sum(String role, String currencyKey) {
+            return sums.getOrDefault(role + ":" + currencyKey, 0L);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(VelocityFraudEngine.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(VelocityFraudEngine.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            long now = System.currentTimeMillis();
+            payments.forEach(scored -> record(scored, now));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(VelocityFraudEngine.this);
+        }
+    }
+
+    /**
+     * The window total closest to (or furthest over) its limit while scoring one payment.
+     */
+    private static final class Breach {
+
+        private double ratio;
+        private String role;
+        private int window;
+        private Currency currency;
+        private long observed;
+        private long limit;
+
+        /**
+         * @param currency the currency of an amount total, null for a payment count
+         */
+        void consider(double ratio, String role, int window, Currency currency, long observed, long limit) {
+            if (ratio > this.ratio) {
+                this.ratio = ratio;
+                this.role = role;
+                this.window = window;
+                this.currency = currency;
+                this.observed = observed;
+                this.limit = limit;
+            }
+        }
+
+        String describe() {
+            String total = currency != null
+                    ? "amount " + BigDecimal.valueOf(observed, 2) + " " + currency + " above limit " + BigDecimal.valueOf(limit, 2)
+                    : observed + " payments above limit " + limit;
+            return "Velocity limit exceeded: " + role + " " + total + " in " + WINDOW_NAMES[window];
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.finguard.apifinguardpayments.application;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Payment count and amount sum over a sliding time window, kept in a ring of fixed-width buckets.
+ * Buckets are immutable and swapped with compare-and-set, so concurrent payments never block each other;
+ * a slot still holding a bucket from an earlier lap of the ring is replaced by the first payment that lands in it.
+ * The window slides one bucket at a time, so totals are exact to within one bucket width.
+ */
+final class VelocityWindow {
+
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    VelocityWindow(Duration span, int bucketCount) {
+        if (bucketCount <= 0 || span.toMillis() % bucketCount != 0) {
+            throw new IllegalArgumentException("Window span must be a whole number of buckets.");
+        }
+        this.bucketMillis = span.toMillis() / bucketCount;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * Adds a payment to the bucket covering {@code nowMillis}.
+     * @return the window totals including this payment
+     */
+    Totals add(long nowMillis, long amount) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length());
+        Bucket current;
+        Bucket next;
+        do {
+            current = buckets.get(slot);
+            next = current != null && current.epoch() >= epoch
+                    ? new Bucket(current.epoch(), current.count() + 1, current.sum() + amount)
+                    : new Bucket(epoch, 1, amount);
+        } while (!buckets.compareAndSet(slot, current, next));
+        return totals(nowMillis);
+    }
+
+    /**
+     * @return count and sum of the payments in the window ending at {@code nowMillis}
+     */
+    Totals totals(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long oldest = epoch - buckets.length() + 1;
+        long count = 0;
+        long sum = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch() >= oldest && bucket.epoch() <= epoch) {
+                count += bucket.count();
+                sum += bucket.sum();
+            }
+        }
+        return new Totals(count, sum);
+    }
+
+    private record Bucket(long epoch, long count, long sum) {
+    }
+
+    record Totals(long count, long sum) {
+    }
+}
@@ -1,15 +1,29 @@
 package com.finguard.apifinguardpayments.config;
 
+import com.finguard.apifinguardpayments.application.PaymentIngestService;
+import com.finguard.apifinguardpayments.kafka.consumer.KafkaConsumer;
+import com.finguard.apifinguardpayments.kafka.producer.KafkaProducer;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.KafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +32,13 @@ import java.util.Map;
 public class KafkaConfig {
 
     private static final String TOPIC_NAME = "payments-topic";
+    public static final String DLT_SUFFIX = ".DLT";
+
+    private final boolean virtualThreads;
+
+    public KafkaConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
 
     @Bean
     public ProducerFactory<String, String> producerFactory() {
@@ -25,6 +46,10 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Idempotent producer: broker-side retries never duplicate or reorder records of a partition
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -33,17 +58,98 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * Error handler of the listener containers: a failed record is retried with a bounded fixed backoff, then
+     * published to {@code <topic>.DLT} under its original key instead of being skipped. Batch listeners name
+     * the failing record with a {@code BatchListenerFailedException}, so the records before it are committed,
+     * only that record is dead-lettered and the rest of the batch is redelivered. A dead-lettered ingest record
+     * also marks its accepted payment {@code FAILED}.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, String> kafkaTemplate,
+                                                 PaymentIngestService paymentIngestService,
+                                                 @Value("${payments.ingest.topic:payment-ingest}") String ingestTopic,
+                                                 @Value("${payments.kafka.retry.interval:1s}") Duration interval,
+                                                 @Value("${payments.kafka.retry.max-attempts:3}") long maxAttempts) {
+        DeadLetterPublishingRecoverer deadLetters = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + DLT_SUFFIX, -1));
+        ConsumerRecordRecoverer recoverer = (record, ex) -> {
+            deadLetters.accept(record, ex);
+            Header eventId = record.headers().lastHeader(KafkaProducer.EVENT_ID_HEADER);
+            if (ingestTopic.equals(record.topic()) && eventId != null) {
+                paymentIngestService.markFailed(new String(eventId.value(), StandardCharsets.UTF_8));
+            }
+        };
+        return new DefaultErrorHandler(recoverer, new FixedBackOff(interval.toMillis(), maxAttempts));
+    }
+
     @Bean
     public KafkaListenerContainerFactory<?> kafkaListenerContainerFactory(
-            ConsumerFactory<String, String> consumerFactory) {
+            ConsumerFactory<String, String> consumerFactory, DefaultErrorHandler kafkaErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        configureListenerExecutor(factory, "kafka-listener-");
         return factory;
     }
 
+    /**
+     * Container factory for batch listeners: the whole poll is handed to the listener,
+     * which acknowledges it once.
+     */
+    @Bean
+    public KafkaListenerContainerFactory<?> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory, DefaultErrorHandler kafkaErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        configureListenerExecutor(factory, "kafka-batch-listener-");
+        return factory;
+    }
+
+    /**
+     * In virtual-thread mode each listener container polls on its own virtual thread,
+     * so a slow database or Redis call no longer holds a platform thread.
+     */
+    private void configureListenerExecutor(ConcurrentKafkaListenerContainerFactory<String, String> factory, String threadNamePrefix) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
+
     @Bean
     public NewTopic paymentsTopic() {
         return new NewTopic(TOPIC_NAME, 3, (short) 1);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public NewTopic paymentEventsDeadLetterTopic() {
+        return new NewTopic(KafkaConsumer.TOPIC + DLT_SUFFIX, 3, (short) 1);
+    }
+
+    @Bean
+    public NewTopic paymentLifecycleTopic(@Value("${payments.outbox.topic:payment-lifecycle-events}") String topic) {
+        return new NewTopic(topic, 3, (short) 1);
+    }
+
+    /**
+     * Asynchronous ingest topic, keyed by payerId; its partition count bounds how many consumers persist in parallel.
+     */
+    @Bean
+    public NewTopic paymentIngestTopic(@Value("${payments.ingest.topic:payment-ingest}") String topic,
+                                       @Value("${payments.ingest.partitions:12}") int partitions) {
+        return new NewTopic(topic, partitions, (short) 1);
+    }
+
+    @Bean
+    public NewTopic paymentIngestDeadLetterTopic(@Value("${payments.ingest.topic:payment-ingest}") String topic,
+                                                 @Value("${payments.ingest.partitions:12}") int partitions) {
+        return new NewTopic(topic + DLT_SUFFIX, partitions, (short) 1);
+    }
+}
@@ -1,54 +1,126 @@
 package com.finguard.apifinguardpayments.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.finguard.apifinguardpayments.infrastructure.cache.CompactRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.regex.Pattern;
+
 @Configuration
 public class RedisConfig {
 
+    /**
+     * Classes a cached JSON entry may name in its type hint: the application's own types and the JDK value and
+     * collection types they are built from. Anything else read from Redis is rejected instead of instantiated.
+     */
+    static final PolymorphicTypeValidator CACHE_TYPE_VALIDATOR = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("com.finguard.apifinguardpayments.")
+            .allowIfSubType(Pattern.compile("java\\.util\\.[A-Za-z0-9$]+"))
+            .allowIfSubType(Pattern.compile("java\\.lang\\.(String|Boolean|Character|Byte|Short|Integer|Long|Float|Double)"))
+            .allowIfSubType("java.math.")
+            .allowIfSubType("java.time.")
+            .allowIfSubTypeIsArray()
+            .build();
+
     /**
      * Configures the RedisTemplate with appropriate key and value serializers.
      * - Key serializer: Uses StringRedisSerializer to store keys as plain strings.
-     * - Value serializer: Uses GenericJackson2JsonRedisSerializer to handle complex objects.
+     * - Value serializer: GenericJackson2JsonRedisSerializer with type hints for every value ("json", default),
+     *   or the compact binary codec ("binary"), falling back to JSON for other types. Both read JSON entries, but
+     *   only this version reads binary ones, so "binary" is enabled once no older instance shares the cache.
      * - Enables transaction support for atomic Redis operations.
      *
      * @param connectionFactory The RedisConnectionFactory to connect to Redis.
+     * @param codec Value encoding, "binary" or "json".
      * @return A configured RedisTemplate instance.
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       @Value("${payments.cache.codec:json}") String codec) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
+        RedisSerializer<Object> valueSerializer = valueSerializer(codec);
+
         template.setKeySerializer(new StringRedisSerializer());
 
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer(customObjectMapper()));
+        template.setValueSerializer(valueSerializer);
 
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer(customObjectMapper()));
+        template.setHashValueSerializer(valueSerializer);
 
         template.setEnableTransactionSupport(true);
 
         return template;
     }
 
+    /**
+     * Value serializer for the configured codec.
+     * Both variants read plain JSON entries, so switching from "json" to "binary" needs no cache flush;
+     * roll back to "json" only after binary entries have expired.
+     *
+     * @param codec "binary" or "json".
+     * @return The value serializer.
+     */
+    public static RedisSerializer<Object> valueSerializer(String codec) {
+        return switch (codec) {
+            case "binary" -> CompactRedisSerializer.withPaymentCodecs(jsonSerializer());
+            case "json" -> jsonSerializer();
+            default -> throw new IllegalArgumentException("Unknown Redis value codec: " + codec);
+        };
+    }
+
+    /**
+     * JSON serializer that writes type hints for non-final types, so cached DTOs are read back
+     * as their original class instead of a Map. Plain strings are stored without hints.
+     * Type hints are checked against {@link #CACHE_TYPE_VALIDATOR} when read.
+     *
+     * @return Configured GenericJackson2JsonRedisSerializer.
+     */
+    public static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        return GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(customObjectMapper())
+                .defaultTyping(true)
+                .build();
+    }
+
+    /**
+     * Container for Redis pub/sub subscriptions.
+     * Used to propagate near-cache invalidations between application nodes.
+     *
+     * @param connectionFactory The RedisConnectionFactory to connect to Redis.
+     * @return A RedisMessageListenerContainer bound to the connection factory.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     /**
      * Custom ObjectMapper to properly serialize Java 8 date/time fields.
      * Ensures compatibility with JavaTimeModule and other Jackson modules.
      *
      * @return Configured ObjectMapper for JSON serialization.
      */
-    private ObjectMapper customObjectMapper() {
+    private static ObjectMapper customObjectMapper() {
         return new ObjectMapper()
                 .registerModule(new JavaTimeModule()) // Support for LocalDate, LocalDateTime, etc.
-                .registerModule(new ParameterNamesModule()); // Handles constructor-based deserialization
+                .registerModule(new ParameterNamesModule()) // Handles constructor-based deserialization
+                .setPolymorphicTypeValidator(CACHE_TYPE_VALIDATOR);
     }
 }
\ No newline at end of file
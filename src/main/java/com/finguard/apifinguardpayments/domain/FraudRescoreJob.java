@@ -0,0 +1,73 @@
+package com.finguard.apifinguardpayments.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A rescoring of the payments created in a date range against the current fraud rules.
+ * Progress is checkpointed per id-range chunk in {@code fraud_rescore_chunks}, so a failed or interrupted job
+ * can be resumed.
+ */
+@Entity
+@Table(name = "fraud_rescore_jobs", schema = "homologacao")
+public class FraudRescoreJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    protected FraudRescoreJob() {}
+
+    public FraudRescoreJob(LocalDateTime startDate, LocalDateTime endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = Status.RUNNING;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
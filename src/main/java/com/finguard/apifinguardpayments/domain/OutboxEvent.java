@@ -0,0 +1,74 @@
+package com.finguard.apifinguardpayments.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment lifecycle event written in the same transaction as the payment change
+ * and relayed to Kafka afterwards.
+ */
+@Entity
+@Table(name = "payment_outbox", schema = "homologacao")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_outbox_id_seq")
+    @SequenceGenerator(name = "payment_outbox_id_seq", sequenceName = "payment_outbox_id_seq", schema = "homologacao", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private String eventId;
+
+    @Column(nullable = false, updatable = false)
+    private String aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private PaymentEventType eventType;
+
+    @Column(nullable = false, updatable = false)
+    private String payload;
+
+    private int attempts;
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String eventId, String aggregateId, PaymentEventType eventType, String payload) {
+        this.eventId = eventId;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEventId() { return eventId; }
+
+    public String getAggregateId() { return aggregateId; }
+
+    public PaymentEventType getEventType() { return eventType; }
+
+    public String getPayload() { return payload; }
+
+    public int getAttempts() { return attempts; }
+
+    public String getLastError() { return lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+}
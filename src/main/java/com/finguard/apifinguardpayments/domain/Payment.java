@@ -2,24 +2,34 @@ package com.finguard.apifinguardpayments.domain;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
 @Table(name = "payments", schema = "homologacao")
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_id_seq")
+    @SequenceGenerator(name = "payments_id_seq", sequenceName = "payments_id_seq", schema = "homologacao", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(unique = true, nullable = false, updatable = false)
     private String transactionId;
 
+    @Column(unique = true, updatable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request that used idempotencyKey, so a reuse of the key with another body is detected
+    @Column(updatable = false)
+    private String idempotencyRequestHash;
+
     private BigDecimal amount;
 
     @Enumerated(EnumType.STRING)
@@ -40,8 +50,9 @@ public class Payment {
     private String payeeId;
     private String description;
 
-    @OneToMany(mappedBy = "payment", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    private List<PaymentMetadata> metadata = new ArrayList<>();
+    // Stored inline in the JSONB column, so it is read with the row and written with the same UPDATE
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, String> metadata = new LinkedHashMap<>();
 
     private BigDecimal refundedAmount;
     private String paymentGateway;
@@ -49,7 +60,9 @@ public class Payment {
     private String cancellationReason;
     private Integer retryCount;
 
+    // Partition key of the payments table: never moved by an update
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
@@ -66,11 +79,7 @@ public class Payment {
         this.payeeId = payeeId;
         this.status = PaymentStatus.PENDING;
         this.refundedAmount = BigDecimal.ZERO;
-        this.metadata = new ArrayList<>();
-
-        if (metadata != null) {
-            metadata.forEach((key, value) -> this.metadata.add(new PaymentMetadata(this, key, value)));
-        }
+        setMetadata(metadata);
 
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -79,15 +88,11 @@ public class Payment {
     public Payment() {}
 
     public Map<String, String> getMetadata() {
-        return metadata.stream()
-                .collect(Collectors.toMap(PaymentMetadata::getKey, PaymentMetadata::getValue));
+        return metadata == null ? Map.of() : metadata;
     }
 
-    public void setMetadata(Map<String, String> metadataMap) {
-        this.metadata.clear();
-        if (metadataMap != null) {
-            metadataMap.forEach((key, value) -> this.metadata.add(new PaymentMetadata(this, key, value)));
-        }
+    public void setMetadata(Map<String, String> metadata) {
+        this.metadata = metadata == null ? new LinkedHashMap<>() : new LinkedHashMap<>(metadata);
     }
 
     public Long getId() {
@@ -106,6 +111,22 @@ public class Payment {
         this.transactionId = transactionId;
     }
 
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyRequestHash() {
+        return idempotencyRequestHash;
+    }
+
+    public void setIdempotencyRequestHash(String idempotencyRequestHash) {
+        this.idempotencyRequestHash = idempotencyRequestHash;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
@@ -186,10 +207,6 @@ public class Payment {
         this.description = description;
     }
 
-    public void setMetadata(List<PaymentMetadata> metadata) {
-        this.metadata = metadata;
-    }
-
     public BigDecimal getRefundedAmount() {
         return refundedAmount;
     }
@@ -0,0 +1,18 @@
+package com.finguard.apifinguardpayments.domain;
+
+public enum PaymentEventType {
+    PAYMENT_CREATED("Payment created"),
+    PAYMENT_STATUS_CHANGED("Payment status changed"),
+    PAYMENT_REFUNDED("Payment refunded"),
+    PAYMENT_FLAGGED_FRAUDULENT("Payment flagged as fraudulent");
+
+    private final String description;
+
+    PaymentEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
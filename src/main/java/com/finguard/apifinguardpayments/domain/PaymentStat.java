@@ -0,0 +1,87 @@
+package com.finguard.apifinguardpayments.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One row of the payment summary table: the number of payments for a value of a dimension
+ * (status, currency or payment method), or the overall total.
+ */
+@Entity
+@Table(name = "payment_stats", schema = "homologacao")
+@IdClass(PaymentStat.Key.class)
+public class PaymentStat {
+
+    public enum Dimension {
+        TOTAL,
+        STATUS,
+        CURRENCY,
+        PAYMENT_METHOD
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension")
+    private Dimension dimension;
+
+    @Id
+    @Column(name = "dimension_value")
+    private String value;
+
+    @Column(name = "payment_count", nullable = false)
+    private long count;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected PaymentStat() {}
+
+    public PaymentStat(Dimension dimension, String value, long count, LocalDateTime updatedAt) {
+        this.dimension = dimension;
+        this.value = value;
+        this.count = count;
+        this.updatedAt = updatedAt;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private Dimension dimension;
+        private String value;
+
+        protected Key() {}
+
+        public Key(Dimension dimension, String value) {
+            this.dimension = dimension;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && dimension == key.dimension && Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, value);
+        }
+    }
+}
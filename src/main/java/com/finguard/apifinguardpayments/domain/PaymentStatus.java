@@ -1,5 +1,11 @@
 package com.finguard.apifinguardpayments.domain;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING("Payment pending"),
     COMPLETED("Payment completed"),
@@ -8,6 +14,25 @@ public enum PaymentStatus {
     CANCELLED("Payment cancelled"),
     FRAUDULENT("Payment marked as fraudulent"); // ✅ Updated message to English
 
+    // Legal transitions; REFUNDED, CANCELLED and FRAUDULENT are terminal. FAILED -> PENDING is left out: a failed
+    // payment only goes back to PENDING through a retry, which enforces the retry cap and counts the attempt
+    private static final Map<PaymentStatus, Set<PaymentStatus>> TRANSITIONS = new EnumMap<>(PaymentStatus.class);
+    private static final Map<PaymentStatus, Set<PaymentStatus>> SOURCES = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(COMPLETED, FAILED, CANCELLED, FRAUDULENT));
+        TRANSITIONS.put(COMPLETED, EnumSet.of(REFUNDED, FRAUDULENT));
+        TRANSITIONS.put(FAILED, EnumSet.of(CANCELLED, FRAUDULENT));
+        TRANSITIONS.put(REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(PaymentStatus.class));
+        TRANSITIONS.put(FRAUDULENT, EnumSet.noneOf(PaymentStatus.class));
+
+        for (PaymentStatus status : values()) {
+            SOURCES.put(status, EnumSet.noneOf(PaymentStatus.class));
+        }
+        TRANSITIONS.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+    }
+
     private final String description;
 
     PaymentStatus(String description) {
@@ -17,4 +42,19 @@ public enum PaymentStatus {
     public String getDescription() {
         return description;
     }
+
+    /**
+     * @return true if a payment in this status may move to the target status.
+     */
+    public boolean canTransitionTo(PaymentStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * @return the statuses a payment may be in to move to this one; used as the expected value of a
+     *         compare-and-set update.
+     */
+    public Set<PaymentStatus> allowedSources() {
+        return Collections.unmodifiableSet(SOURCES.get(this));
+    }
 }
@@ -0,0 +1,7 @@
+package com.finguard.apifinguardpayments.domain;
+
+/**
+ * A status change applied to a payment: the payment as updated, and the status it moved from.
+ */
+public record PaymentTransition(Payment payment, PaymentStatus previousStatus) {
+}
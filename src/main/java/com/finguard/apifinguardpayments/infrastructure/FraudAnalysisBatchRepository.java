@@ -0,0 +1,15 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.FraudAnalysis;
+
+import java.util.List;
+
+public interface FraudAnalysisBatchRepository {
+
+    /**
+     * Inserts the analyses as one JDBC batch, without loading or tracking them in the persistence context.
+     * Only the id of each analysis' payment is used.
+     * @param analyses the analyses to insert
+     */
+    void insertAll(List<FraudAnalysis> analyses);
+}
@@ -0,0 +1,35 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.FraudAnalysis;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class FraudAnalysisBatchRepositoryImpl implements FraudAnalysisBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO homologacao.fraud_analysis (payment_id, reason, risk_score, flagged_by, flagged_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    FraudAnalysisBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<FraudAnalysis> analyses) {
+        if (analyses.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, analyses, analyses.size(), (statement, analysis) -> {
+            statement.setLong(1, analysis.getPayment().getId());
+            statement.setString(2, analysis.getReason());
+            statement.setBigDecimal(3, analysis.getRiskScore());
+            statement.setString(4, analysis.getFlaggedBy());
+            statement.setTimestamp(5, Timestamp.valueOf(analysis.getFlaggedAt()));
+        });
+    }
+}
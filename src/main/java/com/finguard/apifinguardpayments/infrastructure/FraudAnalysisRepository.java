@@ -4,6 +4,6 @@ import com.finguard.apifinguardpayments.domain.FraudAnalysis;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
-public interface FraudAnalysisRepository extends JpaRepository<FraudAnalysis, Long> {
+public interface FraudAnalysisRepository extends JpaRepository<FraudAnalysis, Long>, FraudAnalysisBatchRepository {
     List<FraudAnalysis> findByPaymentId(Long paymentId);
 }
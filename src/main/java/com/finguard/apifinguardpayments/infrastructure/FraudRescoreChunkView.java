@@ -0,0 +1,13 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+/**
+ * One id range of a fraud rescoring job.
+ */
+public interface FraudRescoreChunkView {
+
+    int getChunkIndex();
+
+    long getFromId();
+
+    long getToId();
+}
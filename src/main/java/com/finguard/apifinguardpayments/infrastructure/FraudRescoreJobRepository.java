@@ -0,0 +1,73 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.FraudRescoreJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fraud rescoring jobs and their id-range chunks, which double as the checkpoint of a job.
+ */
+public interface FraudRescoreJobRepository extends JpaRepository<FraudRescoreJob, Long> {
+
+    /**
+     * Splits {@code [minId, maxId]} into consecutive ranges of {@code chunkSize} ids, in one statement.
+     * @return the number of chunks created
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO homologacao.fraud_rescore_chunks (job_id, chunk_index, from_id, to_id)
+            SELECT :jobId, g, :minId + g * :chunkSize, LEAST(:minId + (g + 1) * :chunkSize - 1, :maxId)
+              FROM generate_series(0, (:maxId - :minId) / :chunkSize) AS g
+            """, nativeQuery = true)
+    int createChunks(@Param("jobId") long jobId, @Param("minId") long minId, @Param("maxId") long maxId,
+                     @Param("chunkSize") long chunkSize);
+
+    /**
+     * @return the chunks of a job that have not been committed yet, in id order
+     */
+    @Query(value = """
+            SELECT chunk_index AS "chunkIndex", from_id AS "fromId", to_id AS "toId"
+              FROM homologacao.fraud_rescore_chunks
+             WHERE job_id = :jobId AND completed_at IS NULL
+             ORDER BY chunk_index
+            """, nativeQuery = true)
+    List<FraudRescoreChunkView> findPendingChunks(@Param("jobId") long jobId);
+
+    /**
+     * Checkpoints a chunk. Run in the transaction that wrote the chunk's analyses, so both commit or neither does.
+     * @return 1, or 0 if the chunk had already been completed by another run
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE homologacao.fraud_rescore_chunks
+               SET rows_scored = :rowsScored, rows_flagged = :rowsFlagged, completed_at = now()
+             WHERE job_id = :jobId AND chunk_index = :chunkIndex AND completed_at IS NULL
+            """, nativeQuery = true)
+    int completeChunk(@Param("jobId") long jobId, @Param("chunkIndex") int chunkIndex,
+                      @Param("rowsScored") long rowsScored, @Param("rowsFlagged") long rowsFlagged);
+
+    /**
+     * @return chunk and row totals of a job, summed over its chunks
+     */
+    @Query(value = """
+            SELECT count(*) AS "totalChunks", count(completed_at) AS "completedChunks",
+                   CAST(COALESCE(sum(rows_scored), 0) AS BIGINT) AS "rowsScored",
+                   CAST(COALESCE(sum(rows_flagged), 0) AS BIGINT) AS "rowsFlagged"
+              FROM homologacao.fraud_rescore_chunks
+             WHERE job_id = :jobId
+            """, nativeQuery = true)
+    FraudRescoreProgressView findProgress(@Param("jobId") long jobId);
+
+    @Modifying
+    @Query("UPDATE FraudRescoreJob j SET j.status = :status, j.finishedAt = :finishedAt WHERE j.id = :jobId")
+    int updateStatus(@Param("jobId") long jobId, @Param("status") FraudRescoreJob.Status status,
+                     @Param("finishedAt") LocalDateTime finishedAt);
+
+    Optional<FraudRescoreJob> findFirstByOrderByIdDesc();
+}
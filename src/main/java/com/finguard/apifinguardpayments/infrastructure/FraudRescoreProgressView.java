@@ -0,0 +1,15 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+/**
+ * Checkpointed progress of a fraud rescoring job.
+ */
+public interface FraudRescoreProgressView {
+
+    long getTotalChunks();
+
+    long getCompletedChunks();
+
+    long getRowsScored();
+
+    long getRowsFlagged();
+}
@@ -0,0 +1,22 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code jsonb_contains_entry(document, key, value)} for HQL/JPQL queries.
+ * It renders as the {@code @>} containment operator, so a GIN index on the JSONB column can serve it.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("jsonb_contains_entry", "(?1 @> jsonb_build_object(cast(?2 as text), cast(?3 as text)))")
+                .setExactArgumentCount(3)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -0,0 +1,71 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the next events due for publication, oldest first, skipping rows another transaction holds.
+     * An event is only due once no earlier event of the same payment is still waiting, whether for a retry
+     * or because another relay has claimed it, so events of a payment are never published out of order.
+     * @param now events scheduled for a later attempt are skipped
+     * @param limit maximum number of events to return
+     * @return the claimable events in insertion order
+     */
+    @Query(value = """
+            SELECT e.* FROM homologacao.payment_outbox e
+             WHERE e.published_at IS NULL AND e.next_attempt_at <= :now
+               AND NOT EXISTS (SELECT 1 FROM homologacao.payment_outbox b
+                                WHERE b.aggregate_id = e.aggregate_id AND b.published_at IS NULL
+                                  AND b.id < e.id AND b.next_attempt_at > :now)
+             ORDER BY e.id
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> claimPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Pushes the next attempt of claimed events past the send window, so no other relay picks them up
+     * (or any later event of the same payments) while they are being sent.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.lastError = NULL WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.nextAttemptAt = :nextAttemptAt " +
+            "WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    /**
+     * Finds the oldest event not yet published, used to measure relay lag.
+     */
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    long countByPublishedAtIsNull();
+
+    /**
+     * Takes a transaction-scoped advisory lock so only one node claims events at a time; together with
+     * the lease this keeps events of the same payment in order across nodes.
+     * @return true if the lock was acquired
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('payment-outbox-relay'))", nativeQuery = true)
+    boolean tryAcquireRelayLock();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
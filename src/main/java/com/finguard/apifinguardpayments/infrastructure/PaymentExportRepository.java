@@ -0,0 +1,28 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Export query built from the filters actually given, so Postgres plans each combination on its own:
+ * a missing filter leaves no {@code (:x IS NULL OR ...)} predicate behind to defeat index use and
+ * partition pruning.
+ */
+public interface PaymentExportRepository {
+
+    /**
+     * Streams payments matching the optional export filters through a server-side cursor.
+     * Must be consumed inside a transaction; rows are fetched from the database in blocks of the JDBC fetch size.
+     * @param status the payment status, or null for any
+     * @param payerId the ID of the payer, or null for any
+     * @param payeeId the ID of the payee, or null for any
+     * @param startDate start of the created-at range, or null for unbounded
+     * @param endDate end of the created-at range, or null for unbounded
+     * @return a lazily populated stream of payments ordered by id
+     */
+    Stream<Payment> streamForExport(PaymentStatus status, String payerId, String payeeId,
+                                    LocalDateTime startDate, LocalDateTime endDate);
+}
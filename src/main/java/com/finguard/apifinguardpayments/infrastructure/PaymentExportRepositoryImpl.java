@@ -0,0 +1,62 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class PaymentExportRepositoryImpl implements PaymentExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    PaymentExportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Payment> streamForExport(PaymentStatus status, String payerId, String payeeId,
+                                           LocalDateTime startDate, LocalDateTime endDate) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (status != null) {
+            predicates.add("p.status = :status");
+            parameters.put("status", status);
+        }
+        if (payerId != null) {
+            predicates.add("p.payerId = :payerId");
+            parameters.put("payerId", payerId);
+        }
+        if (payeeId != null) {
+            predicates.add("p.payeeId = :payeeId");
+            parameters.put("payeeId", payeeId);
+        }
+        if (startDate != null) {
+            predicates.add("p.createdAt >= :startDate");
+            parameters.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            predicates.add("p.createdAt <= :endDate");
+            parameters.put("endDate", endDate);
+        }
+
+        String jpql = "SELECT p FROM Payment p"
+                + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates))
+                + " ORDER BY p.id";
+        TypedQuery<Payment> query = entityManager.createQuery(jpql, Payment.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        parameters.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+}
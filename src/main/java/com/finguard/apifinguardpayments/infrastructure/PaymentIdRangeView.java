@@ -0,0 +1,11 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+/**
+ * Lowest and highest payment id of a query; both null when nothing matched.
+ */
+public interface PaymentIdRangeView {
+
+    Long getMinId();
+
+    Long getMaxId();
+}
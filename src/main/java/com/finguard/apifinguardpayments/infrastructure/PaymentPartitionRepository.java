@@ -0,0 +1,32 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintenance of the monthly range partitions of the payments table ({@code payments_YYYY_MM}).
+ * Runs outside of any transaction: detaching a partition concurrently cannot run inside one.
+ */
+public interface PaymentPartitionRepository {
+
+    /**
+     * @return the months that currently have a partition attached, oldest first
+     */
+    List<YearMonth> findPartitionMonths();
+
+    /**
+     * Creates the partition for a month if it does not exist yet.
+     * @param month the month the partition covers
+     */
+    void createPartition(YearMonth month);
+
+    /**
+     * Detaches a month's partition with {@code DETACH PARTITION ... CONCURRENTLY}. The rows stay in a standalone
+     * table of the same name, so no DELETE or vacuum runs on the payments table.
+     * The refunds and fraud analyses of its payments are moved first to {@code refunds_YYYY_MM} and
+     * {@code fraud_analysis_YYYY_MM}, and their keys removed from {@code payment_keys}, so nothing outside the
+     * archived tables still points at the detached payments.
+     * @param month the month to detach
+     */
+    void detachPartition(YearMonth month);
+}
@@ -0,0 +1,52 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+class PaymentPartitionRepositoryImpl implements PaymentPartitionRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PARTITION_PREFIX = "payments_";
+
+    private static final String FIND_PARTITIONS_SQL = """
+            SELECT c.relname
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'homologacao.payments'::regclass
+             ORDER BY c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PaymentPartitionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, String.class).stream()
+                .filter(name -> name.matches(PARTITION_PREFIX + "\\d{4}_\\d{2}"))
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.queryForObject("SELECT homologacao.create_payments_partition(?)", String.class,
+                Date.valueOf(month.atDay(1)));
+    }
+
+    @Override
+    public void detachPartition(YearMonth month) {
+        // Committed on its own before the detach, which cannot run in a transaction; repeating it is harmless
+        jdbcTemplate.queryForObject("SELECT homologacao.archive_payments_partition_dependents(?)", String.class,
+                Date.valueOf(month.atDay(1)));
+        // The name is built from a YearMonth, never from user input
+        jdbcTemplate.execute("ALTER TABLE homologacao.payments DETACH PARTITION homologacao."
+                + PARTITION_PREFIX + month.format(PARTITION_SUFFIX) + " CONCURRENTLY");
+    }
+}
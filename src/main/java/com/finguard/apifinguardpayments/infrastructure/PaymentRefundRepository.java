@@ -0,0 +1,28 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Refund;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Refund accounting applied in the database without reading the payment first.
+ */
+public interface PaymentRefundRepository {
+
+    /**
+     * Adds a refund to a completed payment and records it, in a single statement.
+     * The refunded amount is only incremented while it stays within the payment amount, so concurrent
+     * partial refunds are serialized by the row lock instead of overwriting each other.
+     * @param transactionId the payment to refund
+     * @param amount the amount to refund
+     * @param refundedAt value written to refunded_at and the payment's updated_at
+     * @param refundedBy who requested the refund
+     * @param reason free-text reason stored with the refund
+     * @return the stored refund, whose payment is the full row as updated; empty if the payment is missing,
+     *         not completed or the amount exceeds the remaining balance
+     */
+    Optional<Refund> applyRefund(String transactionId, BigDecimal amount, LocalDateTime refundedAt,
+                                 String refundedBy, String reason);
+}
@@ -0,0 +1,112 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.RecurrenceType;
+import com.finguard.apifinguardpayments.domain.Refund;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class PaymentRefundRepositoryImpl implements PaymentRefundRepository {
+
+    // Conditional increment and refund insert in one round trip; the insert only runs if the update matched.
+    // The whole updated row is returned, so the refund carries the payment as it is after the refund.
+    // created_at comes from payment_keys, so the update reads only the payment's own monthly partition.
+    private static final String APPLY_REFUND_SQL = """
+            WITH updated AS (
+                UPDATE homologacao.payments
+                   SET refunded_amount = COALESCE(refunded_amount, 0) + ?, updated_at = ?
+                 WHERE transaction_id = ?
+                   AND created_at = (SELECT created_at FROM homologacao.payment_keys WHERE transaction_id = ?)
+                   AND status = 'COMPLETED'
+                   AND COALESCE(refunded_amount, 0) + ? <= amount
+                RETURNING *
+            ), inserted AS (
+                INSERT INTO homologacao.refunds (payment_id, refunded_amount, refunded_at, refunded_by, reason)
+                SELECT id, ?, ?, ?, ? FROM updated
+                RETURNING id, payment_id
+            )
+            SELECT u.*, i.id AS refund_id
+              FROM updated u
+              JOIN inserted i ON i.payment_id = u.id
+            """;
+
+    // Metadata is a flat JSON object of strings, so no application-specific mapper settings are needed
+    private static final ObjectMapper METADATA_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PaymentRefundRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Refund> applyRefund(String transactionId, BigDecimal amount, LocalDateTime refundedAt,
+                                        String refundedBy, String reason) {
+        Timestamp timestamp = Timestamp.valueOf(refundedAt);
+        List<Refund> refunds = jdbcTemplate.query(APPLY_REFUND_SQL, (rs, rowNum) -> {
+            Refund refund = new Refund(mapPayment(rs), amount, refundedAt, refundedBy, reason);
+            refund.setId(rs.getLong("refund_id"));
+            return refund;
+        }, amount, timestamp, transactionId, transactionId, amount, amount, timestamp, refundedBy, reason);
+        return refunds.stream().findFirst();
+    }
+
+    private static Payment mapPayment(ResultSet rs) throws SQLException {
+        Payment payment = new Payment();
+        payment.setId(rs.getLong("id"));
+        payment.setTransactionId(rs.getString("transaction_id"));
+        payment.setIdempotencyKey(rs.getString("idempotency_key"));
+        payment.setIdempotencyRequestHash(rs.getString("idempotency_request_hash"));
+        payment.setAmount(rs.getBigDecimal("amount"));
+        payment.setCurrency(Currency.valueOf(rs.getString("currency")));
+        payment.setStatus(PaymentStatus.valueOf(rs.getString("status")));
+        payment.setPaymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")));
+        String recurrence = rs.getString("recurrence");
+        payment.setRecurrence(recurrence == null ? null : RecurrenceType.valueOf(recurrence));
+        payment.setFraudulent(rs.getBoolean("is_fraudulent"));
+        payment.setFraudReason(rs.getString("fraud_reason"));
+        payment.setPayerId(rs.getString("payer_id"));
+        payment.setPayeeId(rs.getString("payee_id"));
+        payment.setDescription(rs.getString("description"));
+        payment.setMetadata(readMetadata(rs.getString("metadata")));
+        payment.setRefundedAmount(rs.getBigDecimal("refunded_amount"));
+        payment.setPaymentGateway(rs.getString("payment_gateway"));
+        payment.setPaymentDate(toLocalDateTime(rs.getTimestamp("payment_date")));
+        payment.setCancellationReason(rs.getString("cancellation_reason"));
+        payment.setRetryCount(rs.getObject("retry_count", Integer.class));
+        payment.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        payment.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return payment;
+    }
+
+    private static Map<String, String> readMetadata(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return METADATA_MAPPER.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payment metadata is not a JSON object of strings.", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
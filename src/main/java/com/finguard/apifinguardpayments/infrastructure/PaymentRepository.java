@@ -1,92 +1,203 @@
 package com.finguard.apifinguardpayments.infrastructure;
-import com.finguard.apifinguardpayments.domain.Currency;
 import com.finguard.apifinguardpayments.domain.Payment;
-import com.finguard.apifinguardpayments.domain.PaymentMethod;
 import com.finguard.apifinguardpayments.domain.PaymentStatus;
-import com.finguard.apifinguardpayments.domain.RecurrenceType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing Payment entity persistence.
  * Provides advanced queries for payment processing, fraud detection, and audit logging.
  */
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentStatusBulkRepository,
+        PaymentRefundRepository, PaymentTransitionRepository, PaymentPartitionRepository, PaymentExportRepository {
 
     /**
-     * Finds a payment by its unique transaction ID.
+     * Select list of {@link PaymentSummaryView}, metadata included, for the summary queries written in JPQL.
+     */
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.transactionId AS transactionId, p.amount AS amount, p.currency AS currency, " +
+            "p.status AS status, p.paymentMethod AS paymentMethod, p.isFraudulent AS isFraudulent, " +
+            "p.payerId AS payerId, p.payeeId AS payeeId, p.description AS description, p.metadata AS metadata, " +
+            "p.refundedAmount AS refundedAmount, p.createdAt AS createdAt FROM Payment p ";
+
+    /**
+     * Finds a payment by id. Its created_at is read from {@code payment_keys} first, so only the payment's own
+     * monthly partition is searched.
+     * @param id the payment id
+     * @return an Optional containing the payment if found
+     */
+    @Override
+    @Query(value = "SELECT p.* FROM homologacao.payments p WHERE p.id = :id " +
+            "AND p.created_at = (SELECT k.created_at FROM homologacao.payment_keys k WHERE k.payment_id = :id)",
+            nativeQuery = true)
+    Optional<Payment> findById(@Param("id") Long id);
+
+    /**
+     * Finds a payment by its unique transaction ID, searching only its own monthly partition like {@link #findById}.
      * @param transactionId the unique transaction identifier
      * @return an Optional containing the payment if found
      */
-    Optional<Payment> findByTransactionId(String transactionId);
+    @Query(value = "SELECT p.* FROM homologacao.payments p WHERE p.transaction_id = :transactionId " +
+            "AND p.created_at = (SELECT k.created_at FROM homologacao.payment_keys k WHERE k.transaction_id = :transactionId)",
+            nativeQuery = true)
+    Optional<Payment> findByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * Finds the payment created for a client-supplied Idempotency-Key. The key is resolved to the payment's id and
+     * created_at through the unique key of {@code payment_keys}, so only the payment's own partition is searched.
+     * @param idempotencyKey the key sent on the original create request
+     * @return an Optional containing the payment if one was created with this key
+     */
+    @Query(value = "SELECT p.* FROM homologacao.payments p WHERE (p.id, p.created_at) = " +
+            "(SELECT k.payment_id, k.created_at FROM homologacao.payment_keys k WHERE k.idempotency_key = :idempotencyKey)",
+            nativeQuery = true)
+    Optional<Payment> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 
     /**
-     * Finds all payments with a specific status.
+     * Finds the payments with a specific status created within a date range.
+     * The range lets Postgres scan only the monthly partitions it overlaps.
      * @param status the payment status (e.g., PENDING, COMPLETED, FAILED)
+     * @param startDate start of the date range
+     * @param endDate end of the date range
      * @return a list of payments with the given status
      */
-    List<Payment> findByStatus(PaymentStatus status);
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByStatusAndCreatedAtBetween(@Param("status") PaymentStatus status,
+                                                             @Param("startDate") LocalDateTime startDate,
+                                                             @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds all payments made by a specific payer.
+     * Keyset-paginated payments with a specific status created within a date range, newest first.
+     * @param status the payment status
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param position keyset position on (createdAt, id) to continue from
+     * @param limit maximum number of payments in the window
+     * @return a window of payments with the given status
+     */
+    Window<PaymentSummaryView> findByStatusAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                         ScrollPosition position, Limit limit);
+
+    /**
+     * Finds the payments made by a specific payer within a date range.
      * @param payerId the ID of the payer
+     * @param startDate start of the date range
+     * @param endDate end of the date range
      * @return a list of payments associated with the given payer
      */
-    List<Payment> findByPayerId(String payerId);
+    @Query(SUMMARY_SELECT + "WHERE p.payerId = :payerId AND p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByPayerIdAndCreatedAtBetween(@Param("payerId") String payerId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds all payments received by a specific payee.
+     * Keyset-paginated payments made by a specific payer created within a date range, newest first.
+     * @param payerId the ID of the payer
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param position keyset position on (createdAt, id) to continue from
+     * @param limit maximum number of payments in the window
+     * @return a window of payments associated with the given payer
+     */
+    Window<PaymentSummaryView> findByPayerIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(String payerId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                          ScrollPosition position, Limit limit);
+
+    /**
+     * Finds the payments received by a specific payee within a date range.
      * @param payeeId the ID of the payee
+     * @param startDate start of the date range
+     * @param endDate end of the date range
      * @return a list of payments associated with the given payee
      */
-    List<Payment> findByPayeeId(String payeeId);
+    @Query(SUMMARY_SELECT + "WHERE p.payeeId = :payeeId AND p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByPayeeIdAndCreatedAtBetween(@Param("payeeId") String payeeId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds all payments within a specific date range.
+     * Keyset-paginated payments received by a specific payee created within a date range, newest first.
+     * @param payeeId the ID of the payee
      * @param startDate start of the date range
      * @param endDate end of the date range
-     * @return a list of payments within the given date range
+     * @param position keyset position on (createdAt, id) to continue from
+     * @param limit maximum number of payments in the window
+     * @return a window of payments associated with the given payee
      */
-    List<Payment> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    Window<PaymentSummaryView> findByPayeeIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(String payeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                          ScrollPosition position, Limit limit);
 
     /**
-     * Finds all fraudulent payments.
-     * @return a list of fraudulent payments
+     * Finds all payments within a specific date range.
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @return a list of payments within the given date range
      */
-    List<Payment> findByIsFraudulentTrue();
+    @Query(SUMMARY_SELECT + "WHERE p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds all payments that can be refunded (status COMPLETED).
-     * @return a list of refundable payments
+     * Keyset-paginated variant of {@link #findByCreatedAtBetween(LocalDateTime, LocalDateTime)}, newest first.
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param position keyset position on (createdAt, id) to continue from
+     * @param limit maximum number of payments in the window
+     * @return a window of payments within the given date range
      */
-    List<Payment> findByStatusAndRefundedAmountLessThan(PaymentStatus status, BigDecimal refundedAmount);
+    Window<PaymentSummaryView> findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(LocalDateTime startDate, LocalDateTime endDate,
+                                                                                ScrollPosition position, Limit limit);
 
     /**
-     * Finds payments by currency.
-     * @param currency the currency type
-     * @return a list of payments in the specified currency
+     * Keyset-paginated fraudulent payments created within a date range, newest first.
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param position keyset position on (createdAt, id) to continue from
+     * @param limit maximum number of payments in the window
+     * @return a window of fraudulent payments
      */
-    List<Payment> findByCurrency(Currency currency);
+    Window<PaymentSummaryView> findByIsFraudulentTrueAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(LocalDateTime startDate, LocalDateTime endDate,
+                                                                                               ScrollPosition position, Limit limit);
 
     /**
-     * Finds payments by payment method.
-     * @param paymentMethod the payment method
-     * @return a list of payments made with the specified method
+     * Finds the payments whose metadata contains a key with the given value, within a date range.
+     * Uses JSONB containment ({@code @>}, see {@link JsonbFunctionContributor}), which the GIN index on
+     * {@code payments.metadata} can answer.
+     * @param key the metadata key
+     * @param value the expected value for the key
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @return a list of payments carrying the metadata entry
      */
-    List<Payment> findByPaymentMethod(PaymentMethod paymentMethod);
+    @Query(SUMMARY_SELECT + "WHERE jsonb_contains_entry(p.metadata, :key, :value) " +
+            "AND p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByMetadataEntryAndCreatedAtBetween(@Param("key") String key,
+                                                                    @Param("value") String value,
+                                                                    @Param("startDate") LocalDateTime startDate,
+                                                                    @Param("endDate") LocalDateTime endDate);
 
     /**
-     * Finds all recurring payments.
-     * @return a list of recurring payments
+     * Finds the payments that can be refunded (status COMPLETED) created within a date range.
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @return a list of refundable payments
      */
-    List<Payment> findByRecurrenceNot(RecurrenceType recurrenceType);
+    List<Payment> findByStatusAndRefundedAmountLessThanAndCreatedAtBetween(PaymentStatus status, BigDecimal refundedAmount,
+                                                                          LocalDateTime startDate, LocalDateTime endDate);
 
     /**
      * Counts the total number of payments processed.
@@ -95,17 +206,14 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     long count();
 
     /**
-     * Counts the total number of successful payments.
-     * @return the count of successful payments
-     */
-    long countByStatus(PaymentStatus status);
-
-    /**
-     * Finds all payments that failed and have retries available.
+     * Finds the payments that failed and have retries available, created within a date range.
      * @param retryCount the maximum number of retries allowed
+     * @param startDate start of the date range
+     * @param endDate end of the date range
      * @return a list of failed payments that can be retried
      */
-    List<Payment> findByStatusAndRetryCountLessThan(PaymentStatus status, int retryCount);
+    List<Payment> findByStatusAndRetryCountLessThanAndCreatedAtBetween(PaymentStatus status, int retryCount,
+                                                                      LocalDateTime startDate, LocalDateTime endDate);
 
     /**
      * Finds all payments flagged for fraud within a given date range.
@@ -113,19 +221,66 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * @param endDate the end of the date range
      * @return a list of fraudulent payments within the date range
      */
-    List<Payment> findByIsFraudulentTrueAndCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query(SUMMARY_SELECT + "WHERE p.isFraudulent = true AND p.createdAt BETWEEN :startDate AND :endDate")
+    List<PaymentSummaryView> findByIsFraudulentTrueAndCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                                                       @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Finds the lowest and highest id of the payments created within a date range.
+     * @param startDate the start of the date range
+     * @param endDate the end of the date range
+     * @return the id bounds, both null when no payment was created in the range
+     */
+    @Query("SELECT min(p.id) AS minId, max(p.id) AS maxId FROM Payment p " +
+            "WHERE p.createdAt BETWEEN :startDate AND :endDate")
+    PaymentIdRangeView findIdRangeByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Streams the payments of one id range within a date range through a server-side cursor.
+     * Must be consumed inside a transaction; rows are fetched from the database in blocks of the JDBC fetch size.
+     * @param startDate the start of the date range
+     * @param endDate the end of the date range
+     * @param fromId the lowest id, inclusive
+     * @param toId the highest id, inclusive
+     * @return a lazily populated stream of payments
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.createdAt BETWEEN :startDate AND :endDate " +
+            "AND p.id BETWEEN :fromId AND :toId")
+    Stream<Payment> streamForRescoring(@Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("fromId") long fromId,
+                                       @Param("toId") long toId);
+
+    /**
+     * Finds the status of many payments in one query.
+     * @param ids the payment ids
+     * @return id and status of the payments that exist
+     */
+    List<PaymentStatusView> findStatusByIdIn(Collection<Long> ids);
 
     /**
-     * Retrieves a list of all unique payment methods used.
-     * @return a list of distinct payment methods
+     * Finds the id and status of a payment by its transaction id, searching only its own monthly partition.
+     * @param transactionId the transaction id
+     * @return id and status, or empty if no payment has this transaction id
      */
-    @Query("SELECT DISTINCT p.paymentMethod FROM Payment p")
-    List<PaymentMethod> findDistinctPaymentMethods();
+    @Query(value = "SELECT p.id AS id, p.status AS status FROM homologacao.payments p WHERE p.transaction_id = :transactionId " +
+            "AND p.created_at = (SELECT k.created_at FROM homologacao.payment_keys k WHERE k.transaction_id = :transactionId)",
+            nativeQuery = true)
+    Optional<PaymentStatusView> findStatusByTransactionId(@Param("transactionId") String transactionId);
 
     /**
-     * Retrieves a list of all unique currencies used in payments.
-     * @return a list of distinct currencies
+     * Finds which of the given transaction ids already belong to a payment, from the {@code payment_keys}
+     * primary key instead of every partition of {@code payments}.
+     * @param transactionIds the transaction ids to check
+     * @return the transaction ids that are already taken
      */
-    @Query("SELECT DISTINCT p.currency FROM Payment p")
-    List<Currency> findDistinctCurrencies();
-}
\ No newline at end of file
+    @Query(value = "SELECT transaction_id FROM homologacao.payment_keys WHERE transaction_id IN (:transactionIds)",
+            nativeQuery = true)
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+}
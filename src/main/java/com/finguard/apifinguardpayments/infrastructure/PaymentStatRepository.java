@@ -0,0 +1,61 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.PaymentStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Summary table of payment counts, kept up to date with per-node deltas and rebuilt periodically.
+ */
+public interface PaymentStatRepository extends JpaRepository<PaymentStat, PaymentStat.Key> {
+
+    /**
+     * Adds a (possibly negative) delta to one counter, creating the row on first use.
+     * @param dimension the {@link PaymentStat.Dimension} name
+     * @param value the dimension value, or an empty string for the total
+     * @param delta the change to apply
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO homologacao.payment_stats (dimension, dimension_value, payment_count, updated_at)
+            VALUES (:dimension, :value, :delta, now())
+            ON CONFLICT (dimension, dimension_value)
+            DO UPDATE SET payment_count = payment_stats.payment_count + EXCLUDED.payment_count, updated_at = now()
+            """, nativeQuery = true)
+    int addToCount(@Param("dimension") String dimension, @Param("value") String value, @Param("delta") long delta);
+
+    /**
+     * Takes a transaction-scoped advisory lock so only one node rebuilds the summary at a time.
+     * @return true if the lock was acquired
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('payment-stats-rebuild'))", nativeQuery = true)
+    boolean tryAcquireRebuildLock();
+
+    @Modifying
+    @Query(value = "DELETE FROM homologacao.payment_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    /**
+     * Recomputes every counter from the payments table with a single scan (GROUPING SETS).
+     * Run after {@link #deleteAllStats()} in the same transaction.
+     * @return the number of summary rows written
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO homologacao.payment_stats (dimension, dimension_value, payment_count, updated_at)
+            SELECT CASE
+                       WHEN GROUPING(status) = 0 THEN 'STATUS'
+                       WHEN GROUPING(currency) = 0 THEN 'CURRENCY'
+                       WHEN GROUPING(payment_method) = 0 THEN 'PAYMENT_METHOD'
+                       ELSE 'TOTAL'
+                   END,
+                   COALESCE(status, currency, payment_method, ''),
+                   count(*),
+                   now()
+              FROM homologacao.payments
+             GROUP BY GROUPING SETS ((status), (currency), (payment_method), ())
+            """, nativeQuery = true)
+    int rebuildFromPayments();
+}
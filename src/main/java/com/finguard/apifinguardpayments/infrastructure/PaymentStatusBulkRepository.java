@@ -0,0 +1,25 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk status writes that bypass the persistence context.
+ */
+public interface PaymentStatusBulkRepository {
+
+    /**
+     * Applies many status changes in a single UPDATE statement, each only if the payment's current status
+     * may move to the requested one ({@link PaymentStatus#allowedSources()}).
+     * @param statusByTransactionId the new status of each payment, by transaction id
+     * @param updatedAt value written to updated_at
+     * @return the applied transitions; the payments carry id, transactionId, status, amounts, currency,
+     *         payment method and fraud flag only. Transaction ids with no matching payment, or whose
+     *         transition is not allowed, are absent
+     */
+    List<PaymentTransition> updateStatuses(Map<String, PaymentStatus> statusByTransactionId, LocalDateTime updatedAt);
+}
@@ -0,0 +1,74 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class PaymentStatusBulkRepositoryImpl implements PaymentStatusBulkRepository {
+
+    // One round trip: the (transaction_id, status, allowed sources) triples travel as three arrays and are joined
+    // back with unnest; the sub-select keeps the status each payment is moving from without locking it, and only
+    // payments still in that status, and whose status may move to the requested one, are updated
+    private static final String UPDATE_STATUSES_SQL = """
+            UPDATE homologacao.payments p
+               SET status = u.status, updated_at = ?
+              FROM (SELECT q.id, q.created_at, q.status AS previous_status, n.status, n.allowed_sources
+                      FROM homologacao.payments q
+                      JOIN unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS n(transaction_id, status, allowed_sources)
+                        ON q.transaction_id = n.transaction_id) u
+             WHERE p.id = u.id AND p.created_at = u.created_at AND p.status = u.previous_status
+               AND u.previous_status = ANY(string_to_array(u.allowed_sources, ','))
+            RETURNING p.id, p.transaction_id, p.status, p.amount, p.refunded_amount, p.currency, p.payment_method,
+                      p.is_fraudulent, u.previous_status
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PaymentStatusBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PaymentTransition> updateStatuses(Map<String, PaymentStatus> statusByTransactionId, LocalDateTime updatedAt) {
+        if (statusByTransactionId.isEmpty()) {
+            return List.of();
+        }
+
+        String[] transactionIds = statusByTransactionId.keySet().toArray(String[]::new);
+        String[] statuses = statusByTransactionId.values().stream().map(PaymentStatus::name).toArray(String[]::new);
+        String[] allowedSources = statusByTransactionId.values().stream()
+                .map(status -> status.allowedSources().stream().map(PaymentStatus::name).collect(Collectors.joining(",")))
+                .toArray(String[]::new);
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_STATUSES_SQL);
+            statement.setTimestamp(1, Timestamp.valueOf(updatedAt));
+            statement.setArray(2, connection.createArrayOf("varchar", transactionIds));
+            statement.setArray(3, connection.createArrayOf("varchar", statuses));
+            statement.setArray(4, connection.createArrayOf("varchar", allowedSources));
+            return statement;
+        }, (rs, rowNum) -> {
+            Payment payment = new Payment();
+            payment.setId(rs.getLong("id"));
+            payment.setTransactionId(rs.getString("transaction_id"));
+            payment.setStatus(PaymentStatus.valueOf(rs.getString("status")));
+            payment.setAmount(rs.getBigDecimal("amount"));
+            payment.setRefundedAmount(rs.getBigDecimal("refunded_amount"));
+            payment.setCurrency(Currency.valueOf(rs.getString("currency")));
+            payment.setPaymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")));
+            payment.setFraudulent(rs.getBoolean("is_fraudulent"));
+            payment.setUpdatedAt(updatedAt);
+            return new PaymentTransition(payment, PaymentStatus.valueOf(rs.getString("previous_status")));
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+/**
+ * Id and status only, for lookups that do not need the full entity.
+ */
+public interface PaymentStatusView {
+
+    Long getId();
+
+    PaymentStatus getStatus();
+}
@@ -0,0 +1,43 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The columns returned by the payment list endpoints, selected directly into the projection so list reads
+ * never load managed entities or their dirty-checking snapshots.
+ * The JSONB metadata column is selected with the rest of the row, so a list costs a single query.
+ */
+public interface PaymentSummaryView {
+
+    Long getId();
+
+    String getTransactionId();
+
+    BigDecimal getAmount();
+
+    Currency getCurrency();
+
+    PaymentStatus getStatus();
+
+    PaymentMethod getPaymentMethod();
+
+    Boolean getIsFraudulent();
+
+    String getPayerId();
+
+    String getPayeeId();
+
+    String getDescription();
+
+    Map<String, String> getMetadata();
+
+    BigDecimal getRefundedAmount();
+
+    LocalDateTime getCreatedAt();
+}
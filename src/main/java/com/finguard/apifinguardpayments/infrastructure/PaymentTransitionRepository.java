@@ -0,0 +1,48 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Status transitions applied as compare-and-set updates: each is a single UPDATE that only matches
+ * while the payment is still in one of the expected statuses, returning the updated row and the
+ * status it moved from.
+ * A concurrent change makes the update match nothing instead of being overwritten.
+ */
+public interface PaymentTransitionRepository {
+
+    /**
+     * Moves a payment to a new status if it is currently in one of the expected statuses.
+     * @param transactionId the payment to update
+     * @param expected the statuses the payment may be in
+     * @param target the new status
+     * @param updatedAt value written to updated_at
+     * @return the transition, or empty if it does not exist or is in another status
+     */
+    Optional<PaymentTransition> compareAndSetStatus(String transactionId, Set<PaymentStatus> expected,
+                                          PaymentStatus target, LocalDateTime updatedAt);
+
+    /**
+     * Moves a failed payment back to PENDING and counts the attempt, if it has retries left.
+     * @param paymentId the payment to retry
+     * @param maxRetries retries allowed per payment
+     * @param updatedAt value written to updated_at
+     * @return the transition, or empty if it does not exist, is not FAILED or has no retries left
+     */
+    Optional<PaymentTransition> compareAndSetRetry(Long paymentId, int maxRetries, LocalDateTime updatedAt);
+
+    /**
+     * Marks a payment as FRAUDULENT with the given reason if it is currently in one of the expected statuses.
+     * @param transactionId the payment to flag
+     * @param expected the statuses the payment may be in
+     * @param reason stored as the payment's fraud reason
+     * @param updatedAt value written to updated_at
+     * @return the transition, or empty if it does not exist or is in another status
+     */
+    Optional<PaymentTransition> compareAndSetFraudulent(String transactionId, Set<PaymentStatus> expected,
+                                              String reason, LocalDateTime updatedAt);
+}
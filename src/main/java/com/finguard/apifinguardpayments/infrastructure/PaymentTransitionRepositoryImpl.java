@@ -0,0 +1,153 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.domain.RecurrenceType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class PaymentTransitionRepositoryImpl implements PaymentTransitionRepository {
+
+    private static final String RETURNING_COLUMNS = """
+            RETURNING p.id, p.transaction_id, p.amount, p.currency, p.status, p.payment_method, p.recurrence,
+                      p.is_fraudulent, p.fraud_reason, p.payer_id, p.payee_id, p.description, p.refunded_amount,
+                      p.payment_gateway, p.payment_date, p.cancellation_reason, p.retry_count, p.created_at,
+                      p.updated_at, previous.status AS previous_status
+            """;
+
+    // The sub-select reads the status being replaced, so the caller learns where the payment came from; it takes no
+    // row lock. Requiring the row to still hold that status makes the update a compare-and-set: if a concurrent
+    // transaction changed it first, Postgres re-checks the updated row, matches nothing and the transition is
+    // rejected. The payment's created_at is read from payment_keys first, so both the lookup and the update touch
+    // only the payment's own monthly partition instead of probing an index on every partition
+    private static final String SET_STATUS_SQL = """
+            UPDATE homologacao.payments p
+               SET status = ?, updated_at = ?
+              FROM (SELECT id, created_at, status FROM homologacao.payments
+                     WHERE transaction_id = ?
+                       AND created_at = (SELECT created_at FROM homologacao.payment_keys WHERE transaction_id = ?)) previous
+             WHERE p.id = previous.id AND p.created_at = previous.created_at
+               AND p.status = previous.status AND previous.status = ANY(?::varchar[])
+            """ + RETURNING_COLUMNS;
+
+    private static final String RETRY_SQL = """
+            UPDATE homologacao.payments p
+               SET status = 'PENDING', retry_count = COALESCE(p.retry_count, 0) + 1, updated_at = ?
+              FROM (SELECT id, created_at, status FROM homologacao.payments
+                     WHERE id = ?
+                       AND created_at = (SELECT created_at FROM homologacao.payment_keys WHERE payment_id = ?)) previous
+             WHERE p.id = previous.id AND p.created_at = previous.created_at
+               AND p.status = previous.status AND previous.status = 'FAILED'
+               AND COALESCE(p.retry_count, 0) < ?
+            """ + RETURNING_COLUMNS;
+
+    private static final String FLAG_FRAUDULENT_SQL = """
+            UPDATE homologacao.payments p
+               SET status = 'FRAUDULENT', is_fraudulent = TRUE, fraud_reason = ?, updated_at = ?
+              FROM (SELECT id, created_at, status FROM homologacao.payments
+                     WHERE transaction_id = ?
+                       AND created_at = (SELECT created_at FROM homologacao.payment_keys WHERE transaction_id = ?)) previous
+             WHERE p.id = previous.id AND p.created_at = previous.created_at
+               AND p.status = previous.status AND previous.status = ANY(?::varchar[])
+            """ + RETURNING_COLUMNS;
+
+    private static final RowMapper<PaymentTransition> TRANSITION_ROW_MAPPER = (rs, rowNum) ->
+            new PaymentTransition(mapPayment(rs), PaymentStatus.valueOf(rs.getString("previous_status")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PaymentTransitionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<PaymentTransition> compareAndSetStatus(String transactionId, Set<PaymentStatus> expected,
+                                                 PaymentStatus target, LocalDateTime updatedAt) {
+        if (expected.isEmpty()) {
+            return Optional.empty();
+        }
+        List<PaymentTransition> updated = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SET_STATUS_SQL);
+            statement.setString(1, target.name());
+            statement.setTimestamp(2, Timestamp.valueOf(updatedAt));
+            statement.setString(3, transactionId);
+            statement.setString(4, transactionId);
+            statement.setArray(5, connection.createArrayOf("varchar", names(expected)));
+            return statement;
+        }, TRANSITION_ROW_MAPPER);
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<PaymentTransition> compareAndSetRetry(Long paymentId, int maxRetries, LocalDateTime updatedAt) {
+        List<PaymentTransition> updated = jdbcTemplate.query(RETRY_SQL, TRANSITION_ROW_MAPPER,
+                Timestamp.valueOf(updatedAt), paymentId, paymentId, maxRetries);
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<PaymentTransition> compareAndSetFraudulent(String transactionId, Set<PaymentStatus> expected,
+                                                     String reason, LocalDateTime updatedAt) {
+        if (expected.isEmpty()) {
+            return Optional.empty();
+        }
+        List<PaymentTransition> updated = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FLAG_FRAUDULENT_SQL);
+            statement.setString(1, reason);
+            statement.setTimestamp(2, Timestamp.valueOf(updatedAt));
+            statement.setString(3, transactionId);
+            statement.setString(4, transactionId);
+            statement.setArray(5, connection.createArrayOf("varchar", names(expected)));
+            return statement;
+        }, TRANSITION_ROW_MAPPER);
+        return updated.stream().findFirst();
+    }
+
+    private static String[] names(Set<PaymentStatus> statuses) {
+        return statuses.stream().map(PaymentStatus::name).toArray(String[]::new);
+    }
+
+    private static Payment mapPayment(ResultSet rs) throws SQLException {
+        Payment payment = new Payment();
+        payment.setId(rs.getLong("id"));
+        payment.setTransactionId(rs.getString("transaction_id"));
+        payment.setAmount(rs.getBigDecimal("amount"));
+        payment.setCurrency(enumValue(Currency.class, rs.getString("currency")));
+        payment.setStatus(enumValue(PaymentStatus.class, rs.getString("status")));
+        payment.setPaymentMethod(enumValue(PaymentMethod.class, rs.getString("payment_method")));
+        payment.setRecurrence(enumValue(RecurrenceType.class, rs.getString("recurrence")));
+        payment.setFraudulent(rs.getBoolean("is_fraudulent"));
+        payment.setFraudReason(rs.getString("fraud_reason"));
+        payment.setPayerId(rs.getString("payer_id"));
+        payment.setPayeeId(rs.getString("payee_id"));
+        payment.setDescription(rs.getString("description"));
+        payment.setRefundedAmount(rs.getBigDecimal("refunded_amount"));
+        payment.setPaymentGateway(rs.getString("payment_gateway"));
+        payment.setPaymentDate(toLocalDateTime(rs.getTimestamp("payment_date")));
+        payment.setCancellationReason(rs.getString("cancellation_reason"));
+        payment.setRetryCount(rs.getInt("retry_count"));
+        payment.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        payment.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return payment;
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
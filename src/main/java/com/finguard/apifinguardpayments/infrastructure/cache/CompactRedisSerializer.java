@@ -0,0 +1,121 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Redis value serializer that writes a compact binary layout for the values we cache most.
+ * <p>
+ * Layout: {@code [version][tag][payload]}. The version byte is below 0x20, which never starts a JSON
+ * document, so entries written by the plain JSON serializer are still read back (through the fallback)
+ * while they expire. Values without a binary codec are stored as {@code [version][JSON tag][json]}.
+ * An entry with an unknown version is treated as a cache miss.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT_VERSION = 0x01;
+    static final byte JSON_TAG = 0x7F;
+
+    private static final Logger log = LoggerFactory.getLogger(CompactRedisSerializer.class);
+    private final List<RedisValueCodec<?>> codecs;
+    private final RedisSerializer<Object> jsonFallback;
+    private final RedisValueCodec<?>[] codecsByTag = new RedisValueCodec<?>[128];
+
+    public CompactRedisSerializer(List<RedisValueCodec<?>> codecs, RedisSerializer<Object> jsonFallback) {
+        this.codecs = List.copyOf(codecs);
+        this.jsonFallback = jsonFallback;
+        for (RedisValueCodec<?> codec : this.codecs) {
+            if (codec.tag() <= 0 || codec.tag() == JSON_TAG || codecsByTag[codec.tag()] != null) {
+                throw new IllegalArgumentException("Invalid or duplicate codec tag: " + codec.tag());
+            }
+            codecsByTag[codec.tag()] = codec;
+        }
+    }
+
+    /**
+     * Serializer with the payment codecs: status tags, plain strings and payment snapshots.
+     */
+    public static CompactRedisSerializer withPaymentCodecs(RedisSerializer<Object> jsonFallback) {
+        return new CompactRedisSerializer(
+                List.of(new PaymentStatusCodec(), new StringCodec(), new PaymentSnapshotCodec()),
+                jsonFallback);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        RedisValueCodec<Object> codec = codecFor(value);
+        if (codec == null) {
+            byte[] json = jsonFallback.serialize(value);
+            byte[] bytes = new byte[json.length + 2];
+            bytes[0] = FORMAT_VERSION;
+            bytes[1] = JSON_TAG;
+            System.arraycopy(json, 0, bytes, 2, json.length);
+            return bytes;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(codec.sizeHint() + 2);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(codec.tag());
+            codec.encode(value, out);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write binary value: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisValueCodec<Object> codecFor(Object value) {
+        for (RedisValueCodec<?> codec : codecs) {
+            if (codec.supports(value)) {
+                return (RedisValueCodec<Object>) codec;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] >= 0x20) {
+            // Written before the binary format (plain JSON)
+            return jsonFallback.deserialize(bytes);
+        }
+        if (bytes[0] != FORMAT_VERSION || bytes.length < 2) {
+            log.warn("⚠️ Ignoring cached value with unsupported format version: {}", bytes[0]);
+            return null;
+        }
+
+        byte tag = bytes[1];
+        if (tag == JSON_TAG) {
+            byte[] json = new byte[bytes.length - 2];
+            System.arraycopy(bytes, 2, json, 0, json.length);
+            return jsonFallback.deserialize(json);
+        }
+
+        RedisValueCodec<?> codec = tag > 0 ? codecsByTag[tag] : null;
+        if (codec == null) {
+            log.warn("⚠️ Ignoring cached value with unknown codec tag: {}", tag);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+            return codec.decode(in);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read binary value: " + e.getMessage(), e);
+        }
+    }
+}
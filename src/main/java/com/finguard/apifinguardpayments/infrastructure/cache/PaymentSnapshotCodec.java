@@ -0,0 +1,164 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.RecurrenceType;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cached payment snapshots as a fixed sequence of fields.
+ * The layout starts with a bit set marking the non-null fields, followed by those fields in declaration
+ * order: strings and decimals are length-prefixed, enums are ordinals and timestamps are epoch seconds plus nanos.
+ * Appending enum constants is safe; reordering them or changing the field order needs a new format version.
+ */
+public class PaymentSnapshotCodec implements RedisValueCodec<PaymentResponseDTO> {
+
+    static final byte TAG = 0x03;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final PaymentMethod[] METHODS = PaymentMethod.values();
+    private static final RecurrenceType[] RECURRENCES = RecurrenceType.values();
+
+    private static final int ID = 1;
+    private static final int TRANSACTION_ID = 1 << 1;
+    private static final int AMOUNT = 1 << 2;
+    private static final int CURRENCY = 1 << 3;
+    private static final int STATUS = 1 << 4;
+    private static final int PAYMENT_METHOD = 1 << 5;
+    private static final int RECURRENCE = 1 << 6;
+    private static final int IS_FRAUDULENT = 1 << 7;
+    private static final int FRAUDULENT_VALUE = 1 << 8;
+    private static final int FRAUD_REASON = 1 << 9;
+    private static final int PAYER_ID = 1 << 10;
+    private static final int PAYEE_ID = 1 << 11;
+    private static final int DESCRIPTION = 1 << 12;
+    private static final int METADATA = 1 << 13;
+    private static final int REFUNDED_AMOUNT = 1 << 14;
+    private static final int PAYMENT_GATEWAY = 1 << 15;
+    private static final int PAYMENT_DATE = 1 << 16;
+    private static final int CANCELLATION_REASON = 1 << 17;
+    private static final int RETRY_COUNT = 1 << 18;
+    private static final int CREATED_AT = 1 << 19;
+    private static final int UPDATED_AT = 1 << 20;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof PaymentResponseDTO;
+    }
+
+    @Override
+    public int sizeHint() {
+        return 256;
+    }
+
+    @Override
+    public void encode(PaymentResponseDTO dto, DataOutput out) throws IOException {
+        out.writeInt(presence(dto));
+
+        if (dto.getId() != null) out.writeLong(dto.getId());
+        if (dto.getTransactionId() != null) BinaryFields.writeString(out, dto.getTransactionId());
+        if (dto.getAmount() != null) BinaryFields.writeDecimal(out, dto.getAmount());
+        if (dto.getCurrency() != null) out.writeByte(dto.getCurrency().ordinal());
+        if (dto.getStatus() != null) out.writeByte(dto.getStatus().ordinal());
+        if (dto.getPaymentMethod() != null) out.writeByte(dto.getPaymentMethod().ordinal());
+        if (dto.getRecurrence() != null) out.writeByte(dto.getRecurrence().ordinal());
+        if (dto.getFraudReason() != null) BinaryFields.writeString(out, dto.getFraudReason());
+        if (dto.getPayerId() != null) BinaryFields.writeString(out, dto.getPayerId());
+        if (dto.getPayeeId() != null) BinaryFields.writeString(out, dto.getPayeeId());
+        if (dto.getDescription() != null) BinaryFields.writeString(out, dto.getDescription());
+        if (dto.getMetadata() != null) {
+            out.writeInt(dto.getMetadata().size());
+            for (Map.Entry<String, String> entry : dto.getMetadata().entrySet()) {
+                BinaryFields.writeString(out, entry.getKey());
+                BinaryFields.writeString(out, entry.getValue());
+            }
+        }
+        if (dto.getRefundedAmount() != null) BinaryFields.writeDecimal(out, dto.getRefundedAmount());
+        if (dto.getPaymentGateway() != null) BinaryFields.writeString(out, dto.getPaymentGateway());
+        if (dto.getPaymentDate() != null) BinaryFields.writeDateTime(out, dto.getPaymentDate());
+        if (dto.getCancellationReason() != null) BinaryFields.writeString(out, dto.getCancellationReason());
+        if (dto.getRetryCount() != null) out.writeInt(dto.getRetryCount());
+        if (dto.getCreatedAt() != null) BinaryFields.writeDateTime(out, dto.getCreatedAt());
+        if (dto.getUpdatedAt() != null) BinaryFields.writeDateTime(out, dto.getUpdatedAt());
+    }
+
+    @Override
+    public PaymentResponseDTO decode(DataInput in) throws IOException {
+        int presence = in.readInt();
+        PaymentResponseDTO dto = new PaymentResponseDTO();
+
+        if (has(presence, ID)) dto.setId(in.readLong());
+        if (has(presence, TRANSACTION_ID)) dto.setTransactionId(BinaryFields.readString(in));
+        if (has(presence, AMOUNT)) dto.setAmount(BinaryFields.readDecimal(in));
+        if (has(presence, CURRENCY)) dto.setCurrency(BinaryFields.readEnum(in, CURRENCIES));
+        if (has(presence, STATUS)) dto.setStatus(BinaryFields.readEnum(in, STATUSES));
+        if (has(presence, PAYMENT_METHOD)) dto.setPaymentMethod(BinaryFields.readEnum(in, METHODS));
+        if (has(presence, RECURRENCE)) dto.setRecurrence(BinaryFields.readEnum(in, RECURRENCES));
+        if (has(presence, IS_FRAUDULENT)) dto.setFraudulent(has(presence, FRAUDULENT_VALUE));
+        if (has(presence, FRAUD_REASON)) dto.setFraudReason(BinaryFields.readString(in));
+        if (has(presence, PAYER_ID)) dto.setPayerId(BinaryFields.readString(in));
+        if (has(presence, PAYEE_ID)) dto.setPayeeId(BinaryFields.readString(in));
+        if (has(presence, DESCRIPTION)) dto.setDescription(BinaryFields.readString(in));
+        if (has(presence, METADATA)) {
+            int size = BinaryFields.readLength(in);
+            Map<String, String> metadata = new LinkedHashMap<>(Math.max(16, size * 2));
+            for (int i = 0; i < size; i++) {
+                metadata.put(BinaryFields.readString(in), BinaryFields.readString(in));
+            }
+            dto.setMetadata(metadata);
+        }
+        if (has(presence, REFUNDED_AMOUNT)) dto.setRefundedAmount(BinaryFields.readDecimal(in));
+        if (has(presence, PAYMENT_GATEWAY)) dto.setPaymentGateway(BinaryFields.readString(in));
+        if (has(presence, PAYMENT_DATE)) dto.setPaymentDate(BinaryFields.readDateTime(in));
+        if (has(presence, CANCELLATION_REASON)) dto.setCancellationReason(BinaryFields.readString(in));
+        if (has(presence, RETRY_COUNT)) dto.setRetryCount(in.readInt());
+        if (has(presence, CREATED_AT)) dto.setCreatedAt(BinaryFields.readDateTime(in));
+        if (has(presence, UPDATED_AT)) dto.setUpdatedAt(BinaryFields.readDateTime(in));
+        return dto;
+    }
+
+    private int presence(PaymentResponseDTO dto) {
+        int presence = 0;
+        if (dto.getId() != null) presence |= ID;
+        if (dto.getTransactionId() != null) presence |= TRANSACTION_ID;
+        if (dto.getAmount() != null) presence |= AMOUNT;
+        if (dto.getCurrency() != null) presence |= CURRENCY;
+        if (dto.getStatus() != null) presence |= STATUS;
+        if (dto.getPaymentMethod() != null) presence |= PAYMENT_METHOD;
+        if (dto.getRecurrence() != null) presence |= RECURRENCE;
+        if (dto.getFraudulent() != null) {
+            presence |= IS_FRAUDULENT;
+            if (dto.getFraudulent()) presence |= FRAUDULENT_VALUE;
+        }
+        if (dto.getFraudReason() != null) presence |= FRAUD_REASON;
+        if (dto.getPayerId() != null) presence |= PAYER_ID;
+        if (dto.getPayeeId() != null) presence |= PAYEE_ID;
+        if (dto.getDescription() != null) presence |= DESCRIPTION;
+        if (dto.getMetadata() != null) presence |= METADATA;
+        if (dto.getRefundedAmount() != null) presence |= REFUNDED_AMOUNT;
+        if (dto.getPaymentGateway() != null) presence |= PAYMENT_GATEWAY;
+        if (dto.getPaymentDate() != null) presence |= PAYMENT_DATE;
+        if (dto.getCancellationReason() != null) presence |= CANCELLATION_REASON;
+        if (dto.getRetryCount() != null) presence |= RETRY_COUNT;
+        if (dto.getCreatedAt() != null) presence |= CREATED_AT;
+        if (dto.getUpdatedAt() != null) presence |= UPDATED_AT;
+        return presence;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & field) != 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Stores payment statuses as a single byte.
+ * The status cache holds the status name as a String, so names of {@link PaymentStatus} constants are
+ * encoded as well and read back as the same String.
+ */
+public class PaymentStatusCodec implements RedisValueCodec<Object> {
+
+    static final byte TAG = 0x01;
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final int NAME_FLAG = 0x80;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof PaymentStatus || (value instanceof String name && toStatus(name) != null);
+    }
+
+    @Override
+    public void encode(Object value, DataOutput out) throws IOException {
+        if (value instanceof PaymentStatus status) {
+            out.writeByte(status.ordinal());
+        } else {
+            out.writeByte(toStatus((String) value).ordinal() | NAME_FLAG);
+        }
+    }
+
+    @Override
+    public Object decode(DataInput in) throws IOException {
+        int encoded = in.readUnsignedByte();
+        int ordinal = encoded & ~NAME_FLAG;
+        if (ordinal >= STATUSES.length) {
+            throw new IOException("Unknown payment status tag: " + ordinal);
+        }
+        PaymentStatus status = STATUSES[ordinal];
+        return (encoded & NAME_FLAG) != 0 ? status.name() : status;
+    }
+
+    private static PaymentStatus toStatus(String name) {
+        for (PaymentStatus status : STATUSES) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding for one kind of cached value.
+ * Each codec owns a tag byte that is written right after the format version; tags must never be reused.
+ *
+ * @param <T> the type of value handled by the codec
+ */
+public interface RedisValueCodec<T> {
+
+    byte tag();
+
+    boolean supports(Object value);
+
+    /**
+     * Expected encoded size in bytes, used to size the output buffer.
+     */
+    default int sizeHint() {
+        return 16;
+    }
+
+    void encode(T value, DataOutput out) throws IOException;
+
+    T decode(DataInput in) throws IOException;
+}
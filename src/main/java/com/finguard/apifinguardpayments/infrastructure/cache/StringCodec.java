@@ -0,0 +1,38 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Plain strings as length-prefixed UTF-8, without JSON quoting or escaping.
+ */
+public class StringCodec implements RedisValueCodec<String> {
+
+    static final byte TAG = 0x02;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof String;
+    }
+
+    @Override
+    public int sizeHint() {
+        return 64;
+    }
+
+    @Override
+    public void encode(String value, DataOutput out) throws IOException {
+        BinaryFields.writeString(out, value);
+    }
+
+    @Override
+    public String decode(DataInput in) throws IOException {
+        return BinaryFields.readString(in);
+    }
+}
@@ -1,76 +1,174 @@
 package com.finguard.apifinguardpayments.kafka.consumer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.PaymentStatusBatchService;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.kafka.event.PaymentStatusEvent;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 public class KafkaConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumer.class);
+    public static final String TOPIC = "payment-events";
+
     private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final PaymentStatusBatchService paymentStatusBatchService;
 
-    public KafkaConsumer(MeterRegistry meterRegistry) {
+    public KafkaConsumer(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                         PaymentStatusBatchService paymentStatusBatchService) {
         this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.paymentStatusBatchService = paymentStatusBatchService;
     }
 
     /**
-     * Kafka listener that consumes messages from the "payment-events" topic.
-     * Tracks message processing time and logs structured data.
+     * Batch listener for the "payment-events" topic.
+     * A poll's worth of status events is applied with one UPDATE and one pipelined Redis write,
+     * then acknowledged once. Malformed records, unknown payments and transitions the status table does
+     * not allow are logged and skipped.
+     * If the batch write fails, the events are applied one by one in record order, and the first one
+     * that still fails is reported with a {@link BatchListenerFailedException}: the container's error
+     * handler commits the records before it, retries it with backoff and then dead-letters it to
+     * {@code payment-events.DLT}, and redelivers the records after it.
      *
-     * @param record Kafka ConsumerRecord containing the message.
+     * @param records the records returned by one poll.
      * @param ack Acknowledgment for manual offset management.
      */
-    @KafkaListener(topics = "payment-events", groupId = "payment-group")
-    public void listen(ConsumerRecord<String, String> record, Acknowledgment ack) {
+    @KafkaListener(topics = TOPIC, groupId = "payment-group", containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
         long startTime = System.nanoTime();
+        Tags tags = Tags.of(Tag.of("topic", TOPIC), Tag.of("batch.size", sizeBucket(records.size())));
 
         try {
-            logger.info("Received Kafka message: key={}, value={}, partition={}, offset={}",
-                    record.key(), record.value(), record.partition(), record.offset());
+            logger.info("Received Kafka batch: topic={}, records={}", TOPIC, records.size());
+
+            // Latest status per payment wins; records of one payment share a partition, so they arrive in order.
+            // Entries are kept in the order of the record that wins, with that record's index in the batch.
+            Map<String, PaymentStatus> statusByTransactionId = new LinkedHashMap<>();
+            Map<String, Integer> recordIndex = new HashMap<>();
+            int invalid = 0;
+            for (int i = 0; i < records.size(); i++) {
+                PaymentStatusEvent event = parse(records.get(i));
+                if (event == null) {
+                    invalid++;
+                    continue;
+                }
+                statusByTransactionId.remove(event.getTransactionId());
+                statusByTransactionId.put(event.getTransactionId(), event.getStatus());
+                recordIndex.put(event.getTransactionId(), i);
+            }
 
-            // Process the message (Example: update payment status in Redis)
-            processMessage(record.value());
+            List<Payment> updated;
+            try {
+                updated = paymentStatusBatchService.applyStatusUpdates(statusByTransactionId);
+            } catch (RuntimeException ex) {
+                logger.warn("⚠️ Batch status update failed, applying records one by one: topic={}, records={}, error={}",
+                        TOPIC, records.size(), ex.getMessage());
+                updated = applyOneByOne(statusByTransactionId, recordIndex);
+            }
+            int unknown = statusByTransactionId.size() - updated.size();
+            if (unknown > 0) {
+                Set<String> updatedIds = updated.stream().map(Payment::getTransactionId).collect(Collectors.toSet());
+                statusByTransactionId.keySet().stream()
+                        .filter(transactionId -> !updatedIds.contains(transactionId))
+                        .forEach(transactionId -> logger.warn("Skipping status event for unknown payment or disallowed transition: transactionId={}", transactionId));
+            }
 
-            // Acknowledge message consumption
             ack.acknowledge();
 
-            // Metrics: Successful message consumption
-            meterRegistry.counter("kafka.consumer.messages",
-                            Collections.singletonList(Tag.of("topic", record.topic())))
-                    .increment();
+            meterRegistry.counter("kafka.consumer.messages", tags).increment(records.size() - invalid);
+            meterRegistry.counter("kafka.consumer.errors", tags.and("reason", "invalid")).increment(invalid);
+            meterRegistry.counter("kafka.consumer.errors", tags.and("reason", "unknown-payment")).increment(unknown);
 
         } catch (Exception ex) {
-            logger.error("Error processing Kafka message: key={}, value={}, error={}",
-                    record.key(), record.value(), ex.getMessage(), ex);
+            logger.error("Error processing Kafka batch: topic={}, records={}, error={}",
+                    TOPIC, records.size(), ex.getMessage(), ex);
 
-            // Metrics: Failed message consumption
-            meterRegistry.counter("kafka.consumer.errors",
-                            Collections.singletonList(Tag.of("topic", record.topic())))
-                    .increment();
+            meterRegistry.counter("kafka.consumer.batch.errors", tags).increment();
+            throw ex;
         } finally {
             long duration = System.nanoTime() - startTime;
-            meterRegistry.timer("kafka.consumer.processing.time",
-                            Collections.singletonList(Tag.of("topic", record.topic())))
-                    .record(duration, TimeUnit.NANOSECONDS);
+            meterRegistry.timer("kafka.consumer.processing.time", tags).record(duration, TimeUnit.NANOSECONDS);
+            meterRegistry.summary("kafka.consumer.batch.size", Collections.singletonList(Tag.of("topic", TOPIC)))
+                    .record(records.size());
+        }
+    }
+
+    /**
+     * Applies each status update in its own transaction, stopping at the first one that fails.
+     *
+     * @throws BatchListenerFailedException carrying the batch index of the record that could not be applied
+     */
+    private List<Payment> applyOneByOne(Map<String, PaymentStatus> statusByTransactionId, Map<String, Integer> recordIndex) {
+        List<Payment> updated = new ArrayList<>(statusByTransactionId.size());
+        for (Map.Entry<String, PaymentStatus> entry : statusByTransactionId.entrySet()) {
+            try {
+                updated.addAll(paymentStatusBatchService.applyStatusUpdates(Map.of(entry.getKey(), entry.getValue())));
+            } catch (RuntimeException ex) {
+                throw new BatchListenerFailedException(
+                        "Status event could not be applied: transactionId=" + entry.getKey(), ex, recordIndex.get(entry.getKey()));
+            }
         }
+        return updated;
     }
 
     /**
-     * Processes the Kafka message (Business logic should be implemented here).
+     * Parses one status event, returning null (and logging) when the record cannot be applied.
      *
-     * @param message Kafka message content.
+     * @param record Kafka record carrying a JSON {@link PaymentStatusEvent}.
      */
-    private void processMessage(String message) {
-        // TODO: Implement message processing logic (e.g., update Redis, call services, etc.)
-        logger.info("Processing message: {}", message);
+    private PaymentStatusEvent parse(ConsumerRecord<String, String> record) {
+        try {
+            PaymentStatusEvent event = objectMapper.readValue(record.value(), PaymentStatusEvent.class);
+            if (event.getTransactionId() == null || event.getTransactionId().isBlank() || event.getStatus() == null) {
+                throw new IllegalArgumentException("transactionId and status are required");
+            }
+            return event;
+        } catch (Exception ex) {
+            logger.error("Skipping invalid Kafka message: key={}, partition={}, offset={}, error={}",
+                    record.key(), record.partition(), record.offset(), ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Buckets the batch size so it can be used as a metric tag without unbounded cardinality.
+     */
+    static String sizeBucket(int size) {
+        if (size <= 1) {
+            return "1";
+        }
+        if (size <= 10) {
+            return "2-10";
+        }
+        if (size <= 100) {
+            return "11-100";
+        }
+        if (size <= 500) {
+            return "101-500";
+        }
+        return "500+";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.finguard.apifinguardpayments.kafka.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.PaymentIngestService;
+import com.finguard.apifinguardpayments.kafka.event.PaymentIngestEvent;
+import com.finguard.apifinguardpayments.kafka.producer.KafkaProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class PaymentIngestConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIngestConsumer.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final PaymentIngestService paymentIngestService;
+
+    public PaymentIngestConsumer(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                                 PaymentIngestService paymentIngestService) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.paymentIngestService = paymentIngestService;
+    }
+
+    /**
+     * Batch listener for the ingest topic.
+     * A poll's worth of accepted payments is persisted in one transaction, then acknowledged once; a large
+     * {@code max.poll.records} keeps those transactions large. Malformed records are skipped and, when their
+     * transactionId can still be read from the {@code eventId} header, their ingest status is marked {@code FAILED}.
+     * If the batch transaction fails, the payments are persisted one by one in record order, and the first one
+     * that still fails is reported with a {@link BatchListenerFailedException}: the container's error handler
+     * commits the records before it, retries it with backoff and then dead-letters it to
+     * {@code payment-ingest.DLT} (marking its ingest status {@code FAILED}), and redelivers the records after it.
+     *
+     * @param records the records returned by one poll.
+     * @param ack Acknowledgment for manual offset management.
+     */
+    @KafkaListener(topics = "${payments.ingest.topic:payment-ingest}",
+            groupId = "${payments.ingest.group-id:payment-ingest-group}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = "max.poll.records=${payments.ingest.max-poll-records:2000}")
+    public void listen(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        try {
+            List<PaymentIngestEvent> events = new ArrayList<>(records.size());
+            List<Integer> recordIndex = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                PaymentIngestEvent event = parse(records.get(i));
+                if (event != null) {
+                    events.add(event);
+                    recordIndex.add(i);
+                }
+            }
+
+            int persisted;
+            try {
+                persisted = paymentIngestService.persistAccepted(events);
+            } catch (RuntimeException ex) {
+                logger.warn("⚠️ Ingest batch could not be persisted, persisting records one by one: records={}, error={}",
+                        records.size(), ex.getMessage());
+                persisted = persistOneByOne(events, recordIndex);
+            }
+            ack.acknowledge();
+
+            meterRegistry.counter("payment.ingest.invalid").increment(records.size() - events.size());
+            logger.info("✅ Ingest batch persisted: records={}, persisted={}", records.size(), persisted);
+
+        } catch (Exception ex) {
+            logger.error("❌ Error persisting ingest batch: records={}, error={}", records.size(), ex.getMessage(), ex);
+            meterRegistry.counter("payment.ingest.batch.errors").increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * Persists each payment in its own transaction, stopping at the first one that fails.
+     *
+     * @throws BatchListenerFailedException carrying the batch index of the record that could not be persisted
+     */
+    private int persistOneByOne(List<PaymentIngestEvent> events, List<Integer> recordIndex) {
+        int persisted = 0;
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                persisted += paymentIngestService.persistAccepted(List.of(events.get(i)));
+            } catch (RuntimeException ex) {
+                throw new BatchListenerFailedException(
+                        "Accepted payment could not be persisted: transactionId=" + events.get(i).getTransactionId(), ex, recordIndex.get(i));
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * Parses one accepted payment, returning null (and logging) when the record cannot be persisted. The producer
+     * sets the transactionId as the record's {@code eventId} header, so a payment whose body is broken is still
+     * marked {@code FAILED} instead of reading {@code ACCEPTED} until its tracking entry expires.
+     *
+     * @param record Kafka record carrying a JSON {@link PaymentIngestEvent}.
+     */
+    private PaymentIngestEvent parse(ConsumerRecord<String, String> record) {
+        try {
+            PaymentIngestEvent event = objectMapper.readValue(record.value(), PaymentIngestEvent.class);
+            if (event.getTransactionId() == null || event.getTransactionId().isBlank()) {
+                throw new IllegalArgumentException("transactionId is required");
+            }
+            return event;
+        } catch (Exception ex) {
+            logger.error("Skipping invalid ingest message: key={}, partition={}, offset={}, error={}",
+                    record.key(), record.partition(), record.offset(), ex.getMessage());
+            Header eventId = record.headers().lastHeader(KafkaProducer.EVENT_ID_HEADER);
+            if (eventId != null && eventId.value() != null && eventId.value().length > 0) {
+                paymentIngestService.markFailed(new String(eventId.value(), StandardCharsets.UTF_8));
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.finguard.apifinguardpayments.kafka.event;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload published for every payment lifecycle change.
+ * The eventId is unique per change, so consumers can discard redeliveries.
+ */
+public class PaymentEvent {
+
+    private String eventId;
+    private PaymentEventType eventType;
+    private Long paymentId;
+    private String transactionId;
+    private PaymentStatus status;
+    private BigDecimal amount;
+    private BigDecimal refundedAmount;
+    private Currency currency;
+    private Boolean isFraudulent;
+    private LocalDateTime occurredAt;
+
+    public PaymentEvent() {
+    }
+
+    public static PaymentEvent of(String eventId, PaymentEventType eventType, Payment payment) {
+        PaymentEvent event = new PaymentEvent();
+        event.eventId = eventId;
+        event.eventType = eventType;
+        event.paymentId = payment.getId();
+        event.transactionId = payment.getTransactionId();
+        event.status = payment.getStatus();
+        event.amount = payment.getAmount();
+        event.refundedAmount = payment.getRefundedAmount();
+        event.currency = payment.getCurrency();
+        event.isFraudulent = payment.getFraudulent();
+        event.occurredAt = LocalDateTime.now();
+        return event;
+    }
+
+    public String getEventId() { return eventId; }
+
+    public PaymentEventType getEventType() { return eventType; }
+
+    public Long getPaymentId() { return paymentId; }
+
+    public String getTransactionId() { return transactionId; }
+
+    public PaymentStatus getStatus() { return status; }
+
+    public BigDecimal getAmount() { return amount; }
+
+    public BigDecimal getRefundedAmount() { return refundedAmount; }
+
+    public Currency getCurrency() { return currency; }
+
+    public Boolean getIsFraudulent() { return isFraudulent; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
@@ -0,0 +1,75 @@
+package com.finguard.apifinguardpayments.kafka.event;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A validated payment accepted on the asynchronous ingest path, published to the ingest topic keyed by payerId
+ * and persisted by its consumer. The transactionId is assigned at acceptance and is the payment's identity
+ * until it has a database id.
+ */
+public class PaymentIngestEvent {
+
+    private String transactionId;
+    private BigDecimal amount;
+    private Currency currency;
+    private PaymentMethod paymentMethod;
+    private String payerId;
+    private String payeeId;
+    private String description;
+    private Map<String, String> metadata;
+    private LocalDateTime acceptedAt;
+
+    public PaymentIngestEvent() {
+    }
+
+    public static PaymentIngestEvent of(String transactionId, PaymentRequestDTO request) {
+        PaymentIngestEvent event = new PaymentIngestEvent();
+        event.transactionId = transactionId;
+        event.amount = request.getAmount();
+        event.currency = request.getCurrency();
+        event.paymentMethod = request.getPaymentMethod();
+        event.payerId = request.getPayerId();
+        event.payeeId = request.getPayeeId();
+        event.description = request.getDescription();
+        event.metadata = request.getMetadata();
+        event.acceptedAt = LocalDateTime.now();
+        return event;
+    }
+
+    /**
+     * @return a new PENDING payment with the transaction id assigned at acceptance
+     */
+    public Payment toEntity() {
+        Payment payment = new Payment(transactionId, amount, currency, paymentMethod, payerId, payeeId, metadata);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setDescription(description);
+        payment.setFraudulent(false);
+        return payment;
+    }
+
+    public String getTransactionId() { return transactionId; }
+
+    public BigDecimal getAmount() { return amount; }
+
+    public Currency getCurrency() { return currency; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+
+    public String getPayerId() { return payerId; }
+
+    public String getPayeeId() { return payeeId; }
+
+    public String getDescription() { return description; }
+
+    public Map<String, String> getMetadata() { return metadata; }
+
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+}
@@ -0,0 +1,28 @@
+package com.finguard.apifinguardpayments.kafka.event;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+/**
+ * Status update received on the payment-events topic.
+ */
+public class PaymentStatusEvent {
+
+    private String transactionId;
+    private PaymentStatus status;
+
+    public PaymentStatusEvent() {
+    }
+
+    public PaymentStatusEvent(String transactionId, PaymentStatus status) {
+        this.transactionId = transactionId;
+        this.status = status;
+    }
+
+    public String getTransactionId() { return transactionId; }
+
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public PaymentStatus getStatus() { return status; }
+
+    public void setStatus(PaymentStatus status) { this.status = status; }
+}
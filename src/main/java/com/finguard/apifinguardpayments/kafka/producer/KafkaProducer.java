@@ -4,16 +4,20 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 @Service
 public class KafkaProducer {
 
+    public static final String EVENT_ID_HEADER = "eventId";
+
     private static final Logger logger = LoggerFactory.getLogger(KafkaProducer.class);
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final Timer kafkaSendTimer;
@@ -45,4 +49,30 @@ public class KafkaProducer {
             }
         });
     }
+
+    /**
+     * Sends a keyed message carrying its event id as a header, so consumers can drop duplicates.
+     * Records with the same key land on the same partition and keep their relative order.
+     *
+     * @return a future completed when the broker acknowledges the record
+     */
+    public CompletableFuture<SendResult<String, String>> sendEvent(String topic, String key, String eventId, String message) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, message);
+        record.headers().add(EVENT_ID_HEADER, eventId.getBytes(StandardCharsets.UTF_8));
+
+        long startTime = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(record).toCompletableFuture();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, ex) -> {
+            kafkaSendTimer.record(Duration.ofNanos(System.nanoTime() - startTime));
+            if (ex != null) {
+                logger.error("Error sending event to Kafka topic={}, key={}, eventId={}, error={}", topic, key, eventId, ex.getMessage());
+            }
+        });
+    }
 }
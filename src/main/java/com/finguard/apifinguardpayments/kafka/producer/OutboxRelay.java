@@ -0,0 +1,238 @@
+package com.finguard.apifinguardpayments.kafka.producer;
+
+import com.finguard.apifinguardpayments.domain.OutboxEvent;
+import com.finguard.apifinguardpayments.infrastructure.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the payment outbox to Kafka.
+ * Each batch is claimed in a short transaction, sent outside of it without waiting per record, and its
+ * outcome recorded in a second transaction; events whose send failed are retried later with exponential
+ * backoff. Events of the same transactionId are published in order: a later event is neither sent while an
+ * earlier one failed in the same batch nor claimed while an earlier one is pending, and claims are taken under
+ * a Postgres advisory lock and leased past the send window so nodes never overtake each other.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducer kafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    private final Timer batchTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaProducer kafkaProducer,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.outbox.topic:payment-lifecycle-events}") String topic,
+            @Value("${payments.outbox.batch-size:200}") int batchSize,
+            @Value("${payments.outbox.send-timeout:10s}") Duration sendTimeout,
+            @Value("${payments.outbox.backoff.initial:1s}") Duration initialBackoff,
+            @Value("${payments.outbox.backoff.max:5m}") Duration maxBackoff,
+            @Value("${payments.outbox.retention:7d}") Duration retention
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+
+        this.batchTimer = meterRegistry.timer("payment.outbox.relay.batch");
+        this.publishedCounter = meterRegistry.counter("payment.outbox.published");
+        this.failedCounter = meterRegistry.counter("payment.outbox.failed");
+        Gauge.builder("payment.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        TimeGauge.builder("payment.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payments.outbox.poll-interval:500ms}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+            refreshLag();
+        } catch (RuntimeException e) {
+            log.error("❌ Outbox relay run failed | Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes one batch of due events in three steps, so no row lock or connection is held while waiting
+     * on Kafka: the events are claimed in a short transaction, sent outside of it, and their outcome is
+     * recorded in a second short transaction.
+     * @return the number of events picked up (published, rescheduled or released)
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = claim();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Exception> failures = new HashMap<>();
+        List<OutboxEvent> published = new ArrayList<>(events.size());
+        List<OutboxEvent> held = new ArrayList<>();
+        batchTimer.record(() -> publish(events, published, failures, held));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(ids(published), now);
+            }
+            for (OutboxEvent event : events) {
+                Exception failure = failures.get(event.getId());
+                if (failure != null) {
+                    Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                    outboxEventRepository.markFailed(event.getId(), String.valueOf(cause.getMessage()),
+                            now.plus(backoff(event.getAttempts() + 1)));
+                }
+            }
+            // Held back behind a failed event of the same payment: due again, but not claimable until it is published
+            if (!held.isEmpty()) {
+                outboxEventRepository.lease(ids(held), now);
+            }
+        });
+
+        publishedCounter.increment(published.size());
+        failedCounter.increment(failures.size());
+        if (published.size() < events.size()) {
+            log.warn("⚠️ Outbox batch partially published | Published: {} | Rescheduled: {} | Held: {}",
+                    published.size(), failures.size(), held.size());
+        }
+        return events.size();
+    }
+
+    @Scheduled(cron = "${payments.outbox.purge-cron:0 0 * * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.info("🗑️ Purged {} published outbox events", deleted);
+    }
+
+    /**
+     * Locks the due events and leases them past the send window before committing, so another node
+     * neither sends them again nor overtakes them with a later event of the same payment.
+     */
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryAcquireRelayLock()) {
+                return List.of();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.claimPending(now, batchSize);
+            if (!events.isEmpty()) {
+                outboxEventRepository.lease(ids(events), now.plus(sendTimeout.multipliedBy(2)));
+            }
+            return events;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    /**
+     * Sends the claimed events in rounds: the first pending event of every payment, then the next one of
+     * each payment whose previous event was acknowledged. Once an event fails, the later events of its
+     * payment are held back unsent, so a retry can never land after them.
+     */
+    private void publish(List<OutboxEvent> events, List<OutboxEvent> published,
+                         Map<Long, Exception> failures, List<OutboxEvent> held) {
+        Map<String, Deque<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayDeque<>()).add(event);
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        while (!byAggregate.isEmpty()) {
+            List<OutboxEvent> round = new ArrayList<>(byAggregate.size());
+            List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(byAggregate.size());
+            for (Deque<OutboxEvent> pending : byAggregate.values()) {
+                OutboxEvent event = pending.poll();
+                round.add(event);
+                futures.add(kafkaProducer.sendEvent(topic, event.getAggregateId(), event.getEventId(), event.getPayload()));
+            }
+
+            for (int i = 0; i < round.size(); i++) {
+                OutboxEvent event = round.get(i);
+                try {
+                    futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    published.add(event);
+                } catch (ExecutionException | TimeoutException e) {
+                    failures.put(event.getId(), e);
+                    held.addAll(byAggregate.remove(event.getAggregateId()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.put(event.getId(), e);
+                    held.addAll(byAggregate.remove(event.getAggregateId()));
+                }
+            }
+            byAggregate.values().removeIf(Deque::isEmpty);
+        }
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    Duration backoff(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void refreshLag() {
+        pendingEvents.set(outboxEventRepository.countByPublishedAtIsNull());
+        lagMillis.set(outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Math.max(0, Duration.between(event.getCreatedAt(), LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+    }
+}
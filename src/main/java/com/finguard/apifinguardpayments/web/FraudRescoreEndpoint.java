@@ -0,0 +1,60 @@
+package com.finguard.apifinguardpayments.web;
+
+import com.finguard.apifinguardpayments.application.FraudRescoringService;
+import com.finguard.apifinguardpayments.web.response.FraudRescoreProgressDTO;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Actuator endpoint for the historical fraud rescoring jobs ({@code /actuator/fraudrescore}).
+ * {@code GET} returns the latest job, {@code GET /{jobId}} a given one; {@code POST} with {@code startDate} and
+ * {@code endDate} (ISO date-times) starts a job and {@code POST /{jobId}} resumes one. Unknown jobs are 404 and
+ * invalid requests 400.
+ */
+@Component
+@Endpoint(id = "fraudrescore")
+public class FraudRescoreEndpoint {
+
+    private final FraudRescoringService fraudRescoringService;
+
+    public FraudRescoreEndpoint(FraudRescoringService fraudRescoringService) {
+        this.fraudRescoringService = fraudRescoringService;
+    }
+
+    @ReadOperation
+    public FraudRescoreProgressDTO latest() {
+        return fraudRescoringService.latestProgress().orElse(null);
+    }
+
+    @ReadOperation
+    public FraudRescoreProgressDTO job(@Selector long jobId) {
+        return fraudRescoringService.progress(jobId).orElse(null);
+    }
+
+    @WriteOperation
+    public FraudRescoreProgressDTO start(String startDate, String endDate) {
+        try {
+            long jobId = fraudRescoringService.start(LocalDateTime.parse(startDate), LocalDateTime.parse(endDate));
+            return fraudRescoringService.progress(jobId).orElse(null);
+        } catch (DateTimeParseException | IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @WriteOperation
+    public FraudRescoreProgressDTO resume(@Selector long jobId) {
+        try {
+            fraudRescoringService.resume(jobId);
+            return fraudRescoringService.progress(jobId).orElse(null);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -1,41 +1,101 @@
 package com.finguard.apifinguardpayments.web;
 
+import com.finguard.apifinguardpayments.application.CreatedAtRange;
+import com.finguard.apifinguardpayments.application.PaymentBatchService;
+import com.finguard.apifinguardpayments.application.PaymentExportService;
+import com.finguard.apifinguardpayments.application.IdempotencyKeyReusedException;
+import com.finguard.apifinguardpayments.application.PaymentIdempotencyService;
+import com.finguard.apifinguardpayments.application.PaymentIngestService;
+import com.finguard.apifinguardpayments.application.PaymentQueryService;
 import com.finguard.apifinguardpayments.application.PaymentService;
+import com.finguard.apifinguardpayments.application.PaymentStatistics;
 import com.finguard.apifinguardpayments.domain.Payment;
 import com.finguard.apifinguardpayments.domain.PaymentStatus;
 import com.finguard.apifinguardpayments.domain.Refund;
 import com.finguard.apifinguardpayments.web.api.PaymentApi;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
 import com.finguard.apifinguardpayments.web.request.RefundRequestDTO;
+import com.finguard.apifinguardpayments.web.response.BatchPaymentResultDTO;
+import com.finguard.apifinguardpayments.web.response.CursorPageResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentAcceptedDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentStatsDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 public class PaymentController implements PaymentApi {
 
+    static final String CREATED_AT_START_HEADER = "X-Created-At-Start";
+    static final String CREATED_AT_END_HEADER = "X-Created-At-End";
+
     private final PaymentService paymentService;
+    private final PaymentIdempotencyService paymentIdempotencyService;
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentQueryService paymentQueryService;
+    private final PaymentExportService paymentExportService;
+    private final PaymentStatistics paymentStatistics;
+    private final PaymentIngestService paymentIngestService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, PaymentIdempotencyService paymentIdempotencyService,
+                             PaymentBatchService paymentBatchService, PaymentQueryService paymentQueryService,
+                             PaymentExportService paymentExportService, PaymentStatistics paymentStatistics,
+                             PaymentIngestService paymentIngestService) {
         this.paymentService = paymentService;
+        this.paymentIdempotencyService = paymentIdempotencyService;
+        this.paymentBatchService = paymentBatchService;
+        this.paymentQueryService = paymentQueryService;
+        this.paymentExportService = paymentExportService;
+        this.paymentStatistics = paymentStatistics;
+        this.paymentIngestService = paymentIngestService;
     }
 
     @Override
-    public ResponseEntity<Payment> createPayment(PaymentRequestDTO paymentRequest) {
-        Payment createdPayment = paymentService.createPayment(paymentRequest);
-        return ResponseEntity.ok(createdPayment);
+    public ResponseEntity<?> createPayment(String idempotencyKey, PaymentRequestDTO paymentRequest) {
+        // Idempotent creates stay synchronous: the stored response must be the created payment
+        if (idempotencyKey == null && paymentIngestService.isAsyncEnabled()) {
+            String transactionId = paymentIngestService.accept(paymentRequest);
+            String statusUrl = "/api/payments/cache/status/transaction/" + transactionId;
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create(statusUrl))
+                    .body(new PaymentAcceptedDTO(transactionId, "ACCEPTED", statusUrl));
+        }
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(paymentService.createPayment(paymentRequest));
+        }
+        try {
+            return ResponseEntity.ok(paymentIdempotencyService.createPayment(idempotencyKey, paymentRequest));
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
     }
 
     @Override
-    public ResponseEntity<Payment> getPaymentById(Long id) {
-        Payment payment = paymentService.getPaymentById(id);
+    public ResponseEntity<List<BatchPaymentResultDTO>> createPayments(List<PaymentRequestDTO> paymentRequests) {
+        List<BatchPaymentResultDTO> results = paymentBatchService.createPayments(paymentRequests);
+        return ResponseEntity.ok(results);
+    }
+
+    @Override
+    public ResponseEntity<PaymentResponseDTO> getPaymentById(Long id) {
+        PaymentResponseDTO payment = paymentService.getPaymentById(id);
         return ResponseEntity.ok(payment);
     }
 
     @Override
-    public ResponseEntity<Payment> getPaymentByTransactionId(String transactionId) {
-        Payment payment = paymentService.getPaymentByTransactionId(transactionId);
+    public ResponseEntity<PaymentResponseDTO> getPaymentByTransactionId(String transactionId) {
+        PaymentResponseDTO payment = paymentService.getPaymentByTransactionId(transactionId);
         return ResponseEntity.ok(payment);
     }
 
@@ -52,27 +112,104 @@ public class PaymentController implements PaymentApi {
     }
 
     @Override
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(PaymentStatus status) {
-        List<Payment> payments = paymentService.getPaymentsByStatus(status);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByStatus(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        List<PaymentSummaryDTO> payments = paymentService.getPaymentsByStatus(status, range.start(), range.end());
+        return okWithRange(range).body(payments);
+    }
+
+    @Override
+    public ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByPayerId(String payerId, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        List<PaymentSummaryDTO> payments = paymentService.getPaymentsByPayerId(payerId, range.start(), range.end());
+        return okWithRange(range).body(payments);
+    }
+
+    @Override
+    public ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByPayeeId(String payeeId, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        List<PaymentSummaryDTO> payments = paymentService.getPaymentsByPayeeId(payeeId, range.start(), range.end());
+        return okWithRange(range).body(payments);
+    }
+
+    @Override
+    public ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByMetadata(String key, String value, LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        List<PaymentSummaryDTO> payments = paymentService.getPaymentsByMetadata(key, value, range.start(), range.end());
+        return okWithRange(range).body(payments);
+    }
+
+    @Override
+    public ResponseEntity<List<PaymentSummaryDTO>> getFraudulentPayments(LocalDateTime startDate, LocalDateTime endDate) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        List<PaymentSummaryDTO> fraudulentPayments = paymentService.getFraudulentPayments(range.start(), range.end());
+        return okWithRange(range).body(fraudulentPayments);
+    }
+
+    @Override
+    public ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByStatusPage(PaymentStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                        String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByStatus(status, range.start(), range.end(), cursor, limit);
+        return okWithRange(range).body(page);
     }
 
     @Override
-    public ResponseEntity<List<Payment>> getPaymentsByPayerId(String payerId) {
-        List<Payment> payments = paymentService.getPaymentsByPayerId(payerId);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByPayerIdPage(String payerId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                         String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByPayerId(payerId, range.start(), range.end(), cursor, limit);
+        return okWithRange(range).body(page);
     }
 
     @Override
-    public ResponseEntity<List<Payment>> getPaymentsByPayeeId(String payeeId) {
-        List<Payment> payments = paymentService.getPaymentsByPayeeId(payeeId);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByPayeeIdPage(String payeeId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                                         String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByPayeeId(payeeId, range.start(), range.end(), cursor, limit);
+        return okWithRange(range).body(page);
     }
 
     @Override
-    public ResponseEntity<List<Payment>> getFraudulentPayments() {
-        List<Payment> fraudulentPayments = paymentService.getFraudulentPayments();
-        return ResponseEntity.ok(fraudulentPayments);
+    public ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getFraudulentPaymentsPage(LocalDateTime startDate, LocalDateTime endDate,
+                                                                                          String cursor, Integer limit) {
+        CreatedAtRange range = CreatedAtRange.of(startDate, endDate);
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getFraudulentPayments(range.start(), range.end(), cursor, limit);
+        return okWithRange(range).body(page);
+    }
+
+    @Override
+    public ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByCreatedAtPage(LocalDateTime startDate, LocalDateTime endDate,
+                                                                                                String cursor, Integer limit) {
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByCreatedAt(startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPayments(PaymentStatus status, String payerId, String payeeId,
+                                                                LocalDateTime startDate, LocalDateTime endDate,
+                                                                String acceptEncoding) {
+        if (!PaymentExportService.isValidRange(startDate, endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    paymentExportService.exportPayments(status, payerId, payeeId, startDate, endDate, gzipOut);
+                }
+            } else {
+                paymentExportService.exportPayments(status, payerId, payeeId, startDate, endDate, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @Override
@@ -92,4 +229,30 @@ public class PaymentController implements PaymentApi {
         String status = paymentService.getCachedPaymentStatus(id);
         return ResponseEntity.ok(status);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<Map<Long, String>> getCachedPaymentStatuses(List<Long> ids) {
+        return ResponseEntity.ok(paymentService.getCachedPaymentStatuses(ids));
+    }
+
+    @Override
+    public ResponseEntity<String> getCachedPaymentStatusByTransactionId(String transactionId) {
+        String status = paymentIngestService.getStatus(transactionId);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    @Override
+    public ResponseEntity<PaymentStatsDTO> getPaymentStats() {
+        return ResponseEntity.ok(paymentStatistics.snapshot());
+    }
+
+    /**
+     * Starts a 200 response reporting the created_at range the query applied, so a client that left out the
+     * bounds can tell that older payments were not listed.
+     */
+    private static ResponseEntity.BodyBuilder okWithRange(CreatedAtRange range) {
+        return ResponseEntity.ok()
+                .header(CREATED_AT_START_HEADER, range.start().toString())
+                .header(CREATED_AT_END_HEADER, range.end().toString());
+    }
+}
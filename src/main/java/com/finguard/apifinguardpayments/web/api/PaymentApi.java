@@ -5,22 +5,38 @@ import com.finguard.apifinguardpayments.domain.PaymentStatus;
 import com.finguard.apifinguardpayments.domain.Refund;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
 import com.finguard.apifinguardpayments.web.request.RefundRequestDTO;
+import com.finguard.apifinguardpayments.web.response.BatchPaymentResultDTO;
+import com.finguard.apifinguardpayments.web.response.CursorPageResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentStatsDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RequestMapping("/api/payments")
 public interface PaymentApi {
 
     @PostMapping
-    ResponseEntity<Payment> createPayment(@RequestBody PaymentRequestDTO paymentRequest);
+    ResponseEntity<?> createPayment(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody PaymentRequestDTO paymentRequest
+    );
+
+    @PostMapping("/batch")
+    ResponseEntity<List<BatchPaymentResultDTO>> createPayments(@RequestBody List<PaymentRequestDTO> paymentRequests);
 
     @GetMapping("/{id}")
-    ResponseEntity<Payment> getPaymentById(@PathVariable Long id);
+    ResponseEntity<PaymentResponseDTO> getPaymentById(@PathVariable Long id);
 
     @GetMapping("/transaction/{transactionId}")
-    ResponseEntity<Payment> getPaymentByTransactionId(@PathVariable String transactionId);
+    ResponseEntity<PaymentResponseDTO> getPaymentByTransactionId(@PathVariable String transactionId);
 
     @PatchMapping("/update-status/{transactionId}")
     ResponseEntity<Payment> updatePaymentStatus(
@@ -31,17 +47,95 @@ public interface PaymentApi {
     @DeleteMapping("/{id}")
     ResponseEntity<Void> deletePayment(@PathVariable Long id);
 
+    // List and page endpoints: a missing startDate/endDate defaults to the last 90 days before endDate (or now),
+    // and the applied range is returned in the X-Created-At-Start / X-Created-At-End headers
     @GetMapping("/status/{status}")
-    ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable PaymentStatus status);
+    ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByStatus(
+            @PathVariable PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    );
 
     @GetMapping("/payer/{payerId}")
-    ResponseEntity<List<Payment>> getPaymentsByPayerId(@PathVariable String payerId);
+    ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByPayerId(
+            @PathVariable String payerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    );
 
     @GetMapping("/payee/{payeeId}")
-    ResponseEntity<List<Payment>> getPaymentsByPayeeId(@PathVariable String payeeId);
+    ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByPayeeId(
+            @PathVariable String payeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    );
+
+    @GetMapping("/metadata")
+    ResponseEntity<List<PaymentSummaryDTO>> getPaymentsByMetadata(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    );
 
     @GetMapping("/fraudulent")
-    ResponseEntity<List<Payment>> getFraudulentPayments();
+    ResponseEntity<List<PaymentSummaryDTO>> getFraudulentPayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    );
+
+    @GetMapping("/status/{status}/page")
+    ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByStatusPage(
+            @PathVariable PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    );
+
+    @GetMapping("/payer/{payerId}/page")
+    ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByPayerIdPage(
+            @PathVariable String payerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    );
+
+    @GetMapping("/payee/{payeeId}/page")
+    ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByPayeeIdPage(
+            @PathVariable String payeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    );
+
+    @GetMapping("/fraudulent/page")
+    ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getFraudulentPaymentsPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    );
+
+    @GetMapping("/created/page")
+    ResponseEntity<CursorPageResponseDTO<PaymentSummaryDTO>> getPaymentsByCreatedAtPage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    );
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) String payerId,
+            @RequestParam(required = false) String payeeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    );
 
     @PostMapping("/refund")
     ResponseEntity<Refund> processRefund(@RequestBody RefundRequestDTO refundRequest);
@@ -51,4 +145,13 @@ public interface PaymentApi {
 
     @GetMapping("/cache/status/{id}")
     ResponseEntity<String> getCachedPaymentStatus(@PathVariable Long id);
+
+    @GetMapping("/cache/status")
+    ResponseEntity<Map<Long, String>> getCachedPaymentStatuses(@RequestParam List<Long> ids);
+
+    @GetMapping("/cache/status/transaction/{transactionId}")
+    ResponseEntity<String> getCachedPaymentStatusByTransactionId(@PathVariable String transactionId);
+
+    @GetMapping("/stats")
+    ResponseEntity<PaymentStatsDTO> getPaymentStats();
 }
\ No newline at end of file
@@ -2,11 +2,15 @@ package com.finguard.apifinguardpayments.web.mapper;
 
 import com.finguard.apifinguardpayments.domain.Payment;
 import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentSummaryView;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
 import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,6 +40,7 @@ public class PaymentMapper {
     public PaymentResponseDTO toResponseDTO(Payment payment) {
         PaymentResponseDTO responseDTO = new PaymentResponseDTO();
 
+        responseDTO.setId(payment.getId());
         responseDTO.setTransactionId(payment.getTransactionId());
         responseDTO.setAmount(payment.getAmount());
         responseDTO.setCurrency(payment.getCurrency());
@@ -59,6 +64,30 @@ public class PaymentMapper {
         return responseDTO;
     }
 
+    public List<PaymentSummaryDTO> toSummaryDTOs(List<PaymentSummaryView> payments) {
+        return payments.stream().map(this::toSummaryDTO).toList();
+    }
+
+    public PaymentSummaryDTO toSummaryDTO(PaymentSummaryView payment) {
+        PaymentSummaryDTO summaryDTO = new PaymentSummaryDTO();
+
+        summaryDTO.setId(payment.getId());
+        summaryDTO.setTransactionId(payment.getTransactionId());
+        summaryDTO.setAmount(payment.getAmount());
+        summaryDTO.setCurrency(payment.getCurrency());
+        summaryDTO.setStatus(payment.getStatus());
+        summaryDTO.setPaymentMethod(payment.getPaymentMethod());
+        summaryDTO.setFraudulent(payment.getIsFraudulent());
+        summaryDTO.setPayerId(payment.getPayerId());
+        summaryDTO.setPayeeId(payment.getPayeeId());
+        summaryDTO.setDescription(payment.getDescription());
+        summaryDTO.setMetadata(payment.getMetadata() == null ? Map.of() : payment.getMetadata());
+        summaryDTO.setRefundedAmount(payment.getRefundedAmount());
+        summaryDTO.setCreatedAt(payment.getCreatedAt());
+
+        return summaryDTO;
+    }
+
     public void updateEntity(PaymentRequestDTO dto, Payment payment) {
         Optional.ofNullable(dto.getAmount())
                 .ifPresent(payment::setAmount);
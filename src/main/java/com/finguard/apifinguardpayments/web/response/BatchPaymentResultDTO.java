@@ -0,0 +1,91 @@
+package com.finguard.apifinguardpayments.web.response;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+
+public class BatchPaymentResultDTO {
+
+    public enum Outcome {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    private int index;
+    private Outcome outcome;
+    private Long paymentId;
+    private String transactionId;
+    private PaymentStatus status;
+    private String error;
+
+    public BatchPaymentResultDTO() {
+    }
+
+    public BatchPaymentResultDTO(int index, Outcome outcome, Long paymentId, String transactionId, PaymentStatus status, String error) {
+        this.index = index;
+        this.outcome = outcome;
+        this.paymentId = paymentId;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchPaymentResultDTO created(int index, Long paymentId, String transactionId, PaymentStatus status) {
+        return new BatchPaymentResultDTO(index, Outcome.CREATED, paymentId, transactionId, status, null);
+    }
+
+    public static BatchPaymentResultDTO rejected(int index, String error) {
+        return new BatchPaymentResultDTO(index, Outcome.REJECTED, null, null, null, error);
+    }
+
+    public static BatchPaymentResultDTO failed(int index, String transactionId, String error) {
+        return new BatchPaymentResultDTO(index, Outcome.FAILED, null, transactionId, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,33 @@
+package com.finguard.apifinguardpayments.web.response;
+
+import java.util.List;
+
+public class CursorPageResponseDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPageResponseDTO() {
+    }
+
+    public CursorPageResponseDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,125 @@
+package com.finguard.apifinguardpayments.web.response;
+
+import java.time.LocalDateTime;
+
+public class FraudRescoreProgressDTO {
+
+    private long jobId;
+    private String status;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private long totalChunks;
+    private long completedChunks;
+    private long rowsScored;
+    private long rowsFlagged;
+    private double rowsPerSecond;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public FraudRescoreProgressDTO() {
+    }
+
+    public FraudRescoreProgressDTO(long jobId, String status, LocalDateTime startDate, LocalDateTime endDate,
+                                   long totalChunks, long completedChunks, long rowsScored, long rowsFlagged,
+                                   double rowsPerSecond, LocalDateTime createdAt, LocalDateTime finishedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalChunks = totalChunks;
+        this.completedChunks = completedChunks;
+        this.rowsScored = rowsScored;
+        this.rowsFlagged = rowsFlagged;
+        this.rowsPerSecond = rowsPerSecond;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(long jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public long getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(long totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public long getCompletedChunks() {
+        return completedChunks;
+    }
+
+    public void setCompletedChunks(long completedChunks) {
+        this.completedChunks = completedChunks;
+    }
+
+    public long getRowsScored() {
+        return rowsScored;
+    }
+
+    public void setRowsScored(long rowsScored) {
+        this.rowsScored = rowsScored;
+    }
+
+    public long getRowsFlagged() {
+        return rowsFlagged;
+    }
+
+    public void setRowsFlagged(long rowsFlagged) {
+        this.rowsFlagged = rowsFlagged;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.finguard.apifinguardpayments.web.response;
+
+public class PaymentAcceptedDTO {
+
+    private String transactionId;
+    private String status;
+    private String statusUrl;
+
+    public PaymentAcceptedDTO() {
+    }
+
+    public PaymentAcceptedDTO(String transactionId, String status, String statusUrl) {
+        this.transactionId = transactionId;
+        this.status = status;
+        this.statusUrl = statusUrl;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatusUrl() {
+        return statusUrl;
+    }
+
+    public void setStatusUrl(String statusUrl) {
+        this.statusUrl = statusUrl;
+    }
+}
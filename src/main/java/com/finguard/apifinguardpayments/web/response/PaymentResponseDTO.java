@@ -12,6 +12,7 @@ import java.util.Map;
 
 public class PaymentResponseDTO {
 
+    private Long id;
     private String transactionId;
     private BigDecimal amount;
     private Currency currency;
@@ -57,6 +58,14 @@ public class PaymentResponseDTO {
         this.updatedAt = updatedAt;
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getTransactionId() {
         return transactionId;
     }
@@ -0,0 +1,65 @@
+package com.finguard.apifinguardpayments.web.response;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class PaymentStatsDTO {
+
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byCurrency;
+    private Map<String, Long> byPaymentMethod;
+    private LocalDateTime asOf;
+
+    public PaymentStatsDTO() {
+    }
+
+    public PaymentStatsDTO(long total, Map<String, Long> byStatus, Map<String, Long> byCurrency,
+                           Map<String, Long> byPaymentMethod, LocalDateTime asOf) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byCurrency = byCurrency;
+        this.byPaymentMethod = byPaymentMethod;
+        this.asOf = asOf;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByCurrency() {
+        return byCurrency;
+    }
+
+    public void setByCurrency(Map<String, Long> byCurrency) {
+        this.byCurrency = byCurrency;
+    }
+
+    public Map<String, Long> getByPaymentMethod() {
+        return byPaymentMethod;
+    }
+
+    public void setByPaymentMethod(Map<String, Long> byPaymentMethod) {
+        this.byPaymentMethod = byPaymentMethod;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,246 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.FraudAnalysis;
+import com.finguard.apifinguardpayments.domain.FraudRescoreJob;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.infrastructure.FraudAnalysisRepository;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreChunkView;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreJobRepository;
+import com.finguard.apifinguardpayments.infrastructure.FraudRescoreProgressView;
+import com.finguard.apifinguardpayments.infrastructure.PaymentIdRangeView;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FraudRescoringServiceTest {
+
+    private static final long JOB_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 6, 30, 23, 59);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private FraudRescoreJobRepository fraudRescoreJobRepository;
+
+    @Mock
+    private FraudAnalysisRepository fraudAnalysisRepository;
+
+    @Mock
+    private FraudRuleEngine fraudRuleEngine;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldScoreEveryChunkAndCheckpointItsAnalyses() throws InterruptedException {
+        FraudRescoringService service = service(500);
+        FraudRescoreJob job = job(FraudRescoreJob.Status.RUNNING);
+        when(fraudRescoreJobRepository.save(any())).thenReturn(job);
+        when(paymentRepository.findIdRangeByCreatedAtBetween(START, END)).thenReturn(idRange(1L, 20_000L));
+        when(fraudRescoreJobRepository.findProgress(JOB_ID)).thenReturn(progress(2, 0));
+        when(fraudRescoreJobRepository.findPendingChunks(JOB_ID)).thenReturn(List.of(chunk(0, 1, 10_000), chunk(1, 10_001, 20_000)));
+        Payment flagged = payment(1L);
+        when(paymentRepository.streamForRescoring(START, END, 1L, 10_000L)).thenAnswer(i -> List.of(flagged, payment(2L)).stream());
+        when(paymentRepository.streamForRescoring(START, END, 10_001L, 20_000L)).thenAnswer(i -> List.of(payment(10_001L)).stream());
+        when(fraudRuleEngine.evaluate(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        when(fraudRuleEngine.evaluate(flagged)).thenReturn(FraudVerdict.flagged(new BigDecimal("0.9"), "Fraud rule r1: r1", FraudRuleEngine.FLAGGED_BY));
+        List<FraudAnalysis> inserted = new ArrayList<>();
+        doAnswer(i -> inserted.addAll(i.getArgument(0))).when(fraudAnalysisRepository).insertAll(anyList());
+        when(fraudRescoreJobRepository.completeChunk(eq(JOB_ID), anyInt(), anyLong(), anyLong())).thenReturn(1);
+
+        assertEquals(JOB_ID, service.start(START, END));
+        service.awaitRun();
+
+        verify(fraudRescoreJobRepository).createChunks(JOB_ID, 1L, 20_000L, 10_000L);
+        verify(fraudRescoreJobRepository).completeChunk(JOB_ID, 0, 2, 1);
+        verify(fraudRescoreJobRepository).completeChunk(JOB_ID, 1, 1, 0);
+        verify(fraudRescoreJobRepository).updateStatus(eq(JOB_ID), eq(FraudRescoreJob.Status.COMPLETED), any());
+        assertEquals(1, inserted.size());
+        assertSame(flagged, inserted.get(0).getPayment());
+        assertEquals(FraudRescoringService.FLAGGED_BY, inserted.get(0).getFlaggedBy());
+        assertEquals(3, meterRegistry.counter("payment.fraud.rescore.rows").count());
+        assertEquals(1, meterRegistry.counter("payment.fraud.rescore.flagged").count());
+    }
+
+    @Test
+    void shouldInsertAnalysesInBatchesAndClearThePersistenceContext() throws InterruptedException {
+        FraudRescoringService service = service(2);
+        FraudRescoreJob job = job(FraudRescoreJob.Status.RUNNING);
+        when(fraudRescoreJobRepository.save(any())).thenReturn(job);
+        when(paymentRepository.findIdRangeByCreatedAtBetween(START, END)).thenReturn(idRange(1L, 5L));
+        when(fraudRescoreJobRepository.findProgress(JOB_ID)).thenReturn(progress(1, 0));
+        when(fraudRescoreJobRepository.findPendingChunks(JOB_ID)).thenReturn(List.of(chunk(0, 1, 5)));
+        when(paymentRepository.streamForRescoring(START, END, 1L, 5L))
+                .thenAnswer(i -> LongStream.rangeClosed(1, 5).mapToObj(this::payment));
+        when(fraudRuleEngine.evaluate(any())).thenReturn(FraudVerdict.flagged(BigDecimal.ONE, "Fraud rule r1: r1", FraudRuleEngine.FLAGGED_BY));
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(i -> batchSizes.add(((List<?>) i.getArgument(0)).size())).when(fraudAnalysisRepository).insertAll(anyList());
+        when(fraudRescoreJobRepository.completeChunk(JOB_ID, 0, 5, 5)).thenReturn(1);
+
+        service.start(START, END);
+        service.awaitRun();
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldFailTheJobButKeepOtherChunksWhenAChunkFails() throws InterruptedException {
+        FraudRescoringService service = service(500);
+        FraudRescoreJob job = job(FraudRescoreJob.Status.RUNNING);
+        when(fraudRescoreJobRepository.save(any())).thenReturn(job);
+        when(paymentRepository.findIdRangeByCreatedAtBetween(START, END)).thenReturn(idRange(1L, 20_000L));
+        when(fraudRescoreJobRepository.findProgress(JOB_ID)).thenReturn(progress(2, 0));
+        when(fraudRescoreJobRepository.findPendingChunks(JOB_ID)).thenReturn(List.of(chunk(0, 1, 10_000), chunk(1, 10_001, 20_000)));
+        when(paymentRepository.streamForRescoring(START, END, 1L, 10_000L)).thenThrow(new IllegalStateException("connection reset"));
+        when(paymentRepository.streamForRescoring(START, END, 10_001L, 20_000L)).thenAnswer(i -> List.of(payment(10_001L)).stream());
+        when(fraudRuleEngine.evaluate(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        when(fraudRescoreJobRepository.completeChunk(JOB_ID, 1, 1, 0)).thenReturn(1);
+
+        service.start(START, END);
+        service.awaitRun();
+
+        verify(fraudRescoreJobRepository, never()).completeChunk(eq(JOB_ID), eq(0), anyLong(), anyLong());
+        verify(fraudRescoreJobRepository).updateStatus(eq(JOB_ID), eq(FraudRescoreJob.Status.FAILED), any());
+    }
+
+    @Test
+    void shouldResumeOnlyTheUnfinishedChunks() throws InterruptedException {
+        FraudRescoringService service = service(500);
+        when(fraudRescoreJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job(FraudRescoreJob.Status.FAILED)));
+        when(fraudRescoreJobRepository.findProgress(JOB_ID)).thenReturn(progress(2, 1));
+        when(fraudRescoreJobRepository.findPendingChunks(JOB_ID)).thenReturn(List.of(chunk(1, 10_001, 20_000)));
+        when(paymentRepository.streamForRescoring(START, END, 10_001L, 20_000L)).thenAnswer(i -> List.of(payment(10_001L)).stream());
+        when(fraudRuleEngine.evaluate(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        when(fraudRescoreJobRepository.completeChunk(JOB_ID, 1, 1, 0)).thenReturn(1);
+
+        service.resume(JOB_ID);
+        service.awaitRun();
+
+        ArgumentCaptor<FraudRescoreJob.Status> statuses = ArgumentCaptor.forClass(FraudRescoreJob.Status.class);
+        verify(fraudRescoreJobRepository, times(2)).updateStatus(eq(JOB_ID), statuses.capture(), any());
+        assertEquals(List.of(FraudRescoreJob.Status.RUNNING, FraudRescoreJob.Status.COMPLETED), statuses.getAllValues());
+        verify(paymentRepository, never()).streamForRescoring(START, END, 1L, 10_000L);
+    }
+
+    @Test
+    void shouldRejectInvalidRangesAndCompletedJobs() {
+        FraudRescoringService service = service(500);
+        when(fraudRescoreJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job(FraudRescoreJob.Status.COMPLETED)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.start(END, START));
+        assertThrows(IllegalStateException.class, () -> service.resume(JOB_ID));
+        verify(fraudRescoreJobRepository, never()).save(any());
+    }
+
+    private FraudRescoringService service(int batchSize) {
+        return new FraudRescoringService(paymentRepository, fraudRescoreJobRepository, fraudAnalysisRepository,
+                fraudRuleEngine, entityManager, transactionManager, meterRegistry, 10_000, 2, batchSize);
+    }
+
+    private static FraudRescoreJob job(FraudRescoreJob.Status status) {
+        FraudRescoreJob job = new FraudRescoreJob(START, END);
+        ReflectionTestUtils.setField(job, "id", JOB_ID);
+        ReflectionTestUtils.setField(job, "status", status);
+        return job;
+    }
+
+    private Payment payment(long id) {
+        Payment payment = new Payment("txn-" + id, new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer-1", "payee-1", Map.of());
+        payment.setId(id);
+        return payment;
+    }
+
+    private static FraudRescoreChunkView chunk(int index, long fromId, long toId) {
+        return new FraudRescoreChunkView() {
+            @Override
+            public int getChunkIndex() {
+                return index;
+            }
+
+            @Override
+            public long getFromId() {
+                return fromId;
+            }
+
+            @Override
+            public long getToId() {
+                return toId;
+            }
+        };
+    }
+
+    private static PaymentIdRangeView idRange(Long minId, Long maxId) {
+        return new PaymentIdRangeView() {
+            @Override
+            public Long getMinId() {
+                return minId;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+        };
+    }
+
+    private static FraudRescoreProgressView progress(long totalChunks, long completedChunks) {
+        return new FraudRescoreProgressView() {
+            @Override
+            public long getTotalChunks() {
+                return totalChunks;
+            }
+
+            @Override
+            public long getCompletedChunks() {
+                return completedChunks;
+            }
+
+            @Override
+            public long getRowsScored() {
+                return 0;
+            }
+
+            @Override
+            public long getRowsFlagged() {
+                return 0;
+            }
+        };
+    }
+}
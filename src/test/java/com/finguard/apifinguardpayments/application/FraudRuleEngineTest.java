@@ -0,0 +1,148 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FraudRuleEngineTest {
+
+    private static final BigDecimal BLOCK_THRESHOLD = new BigDecimal("0.8");
+    private static final String JPY_CARD_RULE = """
+            [{"id": "jpy-card", "description": "High-value JPY card payment outside BR", "riskScore": 0.9,
+              "when": {"all": [
+                {"field": "amount", "op": "gt", "value": "100000"},
+                {"field": "currency", "op": "eq", "value": "JPY"},
+                {"field": "paymentMethod", "op": "eq", "value": "CREDIT_CARD"},
+                {"field": "metadata.country", "op": "ne", "value": "BR"}]}}]
+            """;
+
+    @TempDir
+    Path directory;
+
+    private Path rulesFile;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        rulesFile = directory.resolve("fraud-rules.json");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldFlagPaymentMatchingRule() throws IOException {
+        FraudRuleEngine engine = engineWith(JPY_CARD_RULE);
+
+        FraudVerdict verdict = engine.evaluate(payment("150000", Currency.JPY, PaymentMethod.CREDIT_CARD, Map.of("country", "US")));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals(new BigDecimal("0.9"), verdict.riskScore());
+        assertEquals("Fraud rule jpy-card: High-value JPY card payment outside BR", verdict.reason());
+        assertEquals(FraudRuleEngine.FLAGGED_BY, verdict.flaggedBy());
+
+        assertFalse(engine.evaluate(payment("150000", Currency.JPY, PaymentMethod.CREDIT_CARD, Map.of("country", "BR"))).fraudulent());
+        assertFalse(engine.evaluate(payment("150000", Currency.JPY, PaymentMethod.PIX, Map.of())).fraudulent());
+        assertFalse(engine.evaluate(payment("100000", Currency.JPY, PaymentMethod.CREDIT_CARD, Map.of())).fraudulent());
+
+        assertEquals(1.0, meterRegistry.counter("payment.fraud.rule.hit", "rule", "jpy-card").count());
+        assertEquals(4, meterRegistry.timer("payment.fraud.rule.evaluation", "rule", "jpy-card").count());
+    }
+
+    @Test
+    void shouldReturnHighestScoringMatch() throws IOException {
+        FraudRuleEngine engine = engineWith("""
+                [{"id": "watched-payees", "riskScore": 0.6,
+                  "when": {"field": "payeeId", "op": "in", "values": ["payee-1", "payee-9"]}},
+                 {"id": "not-brl-or-usd", "riskScore": 0.8,
+                  "when": {"not": {"any": [
+                    {"field": "currency", "op": "eq", "value": "BRL"},
+                    {"field": "currency", "op": "eq", "value": "USD"}]}}}]
+                """);
+
+        FraudVerdict verdict = engine.evaluate(payment("10", Currency.EUR, PaymentMethod.PIX, Map.of()));
+
+        assertEquals("Fraud rule not-brl-or-usd: not-brl-or-usd", verdict.reason());
+        assertEquals(new BigDecimal("0.6"), engine.evaluate(payment("10", Currency.USD, PaymentMethod.PIX, Map.of())).riskScore());
+    }
+
+    @Test
+    void shouldFlagForReviewBelowTheBlockThreshold() throws IOException {
+        FraudRuleEngine engine = engineWith("""
+                [{"id": "pix", "riskScore": 0.5, "when": {"field": "paymentMethod", "op": "eq", "value": "PIX"}},
+                 {"id": "eur", "riskScore": 0.8, "when": {"field": "currency", "op": "eq", "value": "EUR"}}]
+                """);
+
+        FraudVerdict review = engine.evaluate(payment("10", Currency.USD, PaymentMethod.PIX, Map.of()));
+        FraudVerdict blocked = engine.evaluate(payment("10", Currency.EUR, PaymentMethod.PIX, Map.of()));
+
+        assertFalse(review.fraudulent());
+        assertTrue(review.needsReview());
+        assertEquals("Fraud rule pix: pix", review.reason());
+        assertTrue(blocked.fraudulent());
+        assertFalse(blocked.needsReview());
+        assertEquals(blocked, review.mostSevere(blocked));
+        assertEquals(review, review.mostSevere(FraudVerdict.clean(BigDecimal.ONE)));
+    }
+
+    @Test
+    void shouldReloadChangedRulesAndKeepPreviousOnInvalidFile() throws IOException {
+        FraudRuleEngine engine = engineWith(JPY_CARD_RULE);
+        Payment payment = payment("50", Currency.USD, PaymentMethod.PIX, Map.of());
+        assertFalse(engine.evaluate(payment).fraudulent());
+
+        Files.writeString(rulesFile, """
+                [{"id": "any-pix", "riskScore": 0.5, "when": {"field": "paymentMethod", "op": "eq", "value": "PIX"}}]
+                """);
+        engine.reload();
+
+        assertTrue(engine.evaluate(payment).needsReview());
+        assertNull(meterRegistry.find("payment.fraud.rule.hit").tag("rule", "jpy-card").counter());
+
+        Files.writeString(rulesFile, """
+                [{"id": "broken", "riskScore": 0.5, "when": {"field": "currency", "op": "gt", "value": "USD"}}]
+                """);
+        engine.reload();
+
+        assertEquals("Fraud rule any-pix: any-pix", engine.evaluate(payment).reason());
+    }
+
+    @Test
+    void shouldRejectInvalidRulesAtStartup() throws IOException {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> engineWith("""
+                [{"id": "unknown-field", "riskScore": 0.5, "when": {"field": "country", "op": "eq", "value": "BR"}}]
+                """));
+
+        assertTrue(exception.getMessage().contains("Fraud rule unknown-field: Unknown rule field: country"));
+    }
+
+    @Test
+    void shouldRunWithoutRulesWhenFileIsMissing() {
+        FraudRuleEngine engine = new FraudRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), meterRegistry,
+                true, rulesFile.toUri().toString(), BLOCK_THRESHOLD);
+
+        assertFalse(engine.evaluate(payment("150000", Currency.JPY, PaymentMethod.CREDIT_CARD, Map.of())).fraudulent());
+    }
+
+    private FraudRuleEngine engineWith(String rules) throws IOException {
+        Files.writeString(rulesFile, rules);
+        return new FraudRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), meterRegistry,
+                true, rulesFile.toUri().toString(), BLOCK_THRESHOLD);
+    }
+
+    private static Payment payment(String amount, Currency currency, PaymentMethod paymentMethod, Map<String, String> metadata) {
+        return new Payment("txn-1", new BigDecimal(amount), currency, paymentMethod, "payer-1", "payee-9", metadata);
+    }
+}
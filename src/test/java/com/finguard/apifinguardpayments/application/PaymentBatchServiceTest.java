@@ -0,0 +1,162 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.FraudAnalysis;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.FraudAnalysisRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.BatchPaymentResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentBatchServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private StatusCacheWriteBehind statusCacheWriteBehind;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private PaymentStatistics paymentStatistics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FraudAnalysisRepository fraudAnalysisRepository;
+
+    @Mock
+    private VelocityFraudEngine velocityFraudEngine;
+
+    @Mock
+    private FraudRuleEngine fraudRuleEngine;
+
+    private PaymentBatchService paymentBatchService;
+
+    @BeforeEach
+    void setUp() {
+        PaymentService paymentService = new PaymentService(paymentRepository, fraudAnalysisRepository, redisService, new PaymentMapper(),
+                null, paymentEventPublisher, null, null, velocityFraudEngine, fraudRuleEngine);
+        lenient().when(velocityFraudEngine.score(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        lenient().when(fraudRuleEngine.evaluate(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        paymentBatchService = new PaymentBatchService(paymentService, paymentRepository, new PaymentMapper(),
+                statusCacheWriteBehind, paymentEventPublisher, paymentStatistics, transactionManager, new SimpleMeterRegistry(), 2, 10);
+    }
+
+    @Test
+    void shouldPersistValidPaymentsInChunksAndRejectInvalidOnes() {
+        List<Long> ids = new ArrayList<>();
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> chunk = invocation.getArgument(0);
+            chunk.forEach(payment -> {
+                payment.setId((long) ids.size() + 1);
+                ids.add(payment.getId());
+            });
+            return chunk;
+        });
+
+        List<BatchPaymentResultDTO> results = paymentBatchService.createPayments(List.of(
+                validRequest(), validRequest(), new PaymentRequestDTO(), validRequest()
+        ));
+
+        assertEquals(4, results.size());
+        assertEquals(BatchPaymentResultDTO.Outcome.CREATED, results.get(0).getOutcome());
+        assertEquals(BatchPaymentResultDTO.Outcome.CREATED, results.get(1).getOutcome());
+        assertEquals(BatchPaymentResultDTO.Outcome.REJECTED, results.get(2).getOutcome());
+        assertEquals(BatchPaymentResultDTO.Outcome.CREATED, results.get(3).getOutcome());
+        assertEquals(3L, results.get(3).getPaymentId());
+        verify(paymentRepository, times(2)).saveAll(anyList());
+        verify(paymentEventPublisher, times(2)).publishAll(anyList(), eq(PaymentEventType.PAYMENT_CREATED));
+        verify(paymentStatistics, times(2)).recordCreated(anyList());
+        verify(statusCacheWriteBehind, times(1)).enqueueAll(Map.of(
+                1L, PaymentStatus.PENDING.name(),
+                2L, PaymentStatus.PENDING.name(),
+                3L, PaymentStatus.PENDING.name()
+        ));
+    }
+
+    @Test
+    void shouldReportFailedChunkWithoutFailingTheBatch() {
+        when(paymentRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("constraint violation"))
+                .thenAnswer(invocation -> {
+                    List<Payment> chunk = invocation.getArgument(0);
+                    chunk.forEach(payment -> payment.setId(10L));
+                    return chunk;
+                });
+
+        List<BatchPaymentResultDTO> results = paymentBatchService.createPayments(List.of(
+                validRequest(), validRequest(), validRequest()
+        ));
+
+        assertEquals(BatchPaymentResultDTO.Outcome.FAILED, results.get(0).getOutcome());
+        assertEquals(BatchPaymentResultDTO.Outcome.FAILED, results.get(1).getOutcome());
+        assertEquals(BatchPaymentResultDTO.Outcome.CREATED, results.get(2).getOutcome());
+    }
+
+    @Test
+    void shouldScreenEveryPaymentOfTheBatchForFraud() {
+        when(velocityFraudEngine.score(argThat(payment -> "payer-fraud".equals(payment.getPayerId()))))
+                .thenReturn(FraudVerdict.flagged(BigDecimal.ONE, "Velocity rule: 5 payments in 60s", VelocityFraudEngine.FLAGGED_BY));
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> chunk = invocation.getArgument(0);
+            chunk.forEach(payment -> payment.setId(20L));
+            return chunk;
+        });
+        PaymentRequestDTO flagged = validRequest();
+        flagged.setPayerId("payer-fraud");
+
+        List<BatchPaymentResultDTO> results = paymentBatchService.createPayments(List.of(validRequest(), flagged));
+
+        verify(velocityFraudEngine, times(2)).score(any());
+        verify(fraudRuleEngine, times(2)).evaluate(any());
+        assertEquals(PaymentStatus.PENDING, results.get(0).getStatus());
+        assertEquals(PaymentStatus.FRAUDULENT, results.get(1).getStatus());
+        verify(fraudAnalysisRepository, times(1)).save(any(FraudAnalysis.class));
+        verify(paymentEventPublisher).publish(argThat(payment -> "payer-fraud".equals(payment.getPayerId())),
+                eq(PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT));
+    }
+
+    @Test
+    void shouldRejectBatchAboveLimit() {
+        List<PaymentRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            requests.add(validRequest());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> paymentBatchService.createPayments(requests));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    private PaymentRequestDTO validRequest() {
+        return new PaymentRequestDTO(BigDecimal.valueOf(100.00), Currency.USD, PaymentMethod.CREDIT_CARD,
+                "payer123", "payee123", null, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentExportServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private PaymentExportService paymentExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        paymentExportService = new PaymentExportService(paymentRepository, entityManager, objectMapper,
+                new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void shouldWriteOneJsonDocumentPerLineAndClearContextPerChunk() throws Exception {
+        when(paymentRepository.streamForExport(eq(PaymentStatus.COMPLETED), isNull(), eq("payee123"),
+                eq(LocalDateTime.of(2024, 1, 1, 0, 0)), eq(LocalDateTime.of(2024, 6, 30, 0, 0))))
+                .thenReturn(Stream.of(payment("txn1"), payment("txn2"), payment("txn3")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = paymentExportService.exportPayments(PaymentStatus.COMPLETED, null, "payee123",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 6, 30, 0, 0), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"transactionId\":\"txn1\""));
+        assertTrue(lines[2].startsWith("{") && lines[2].contains("\"transactionId\":\"txn3\""));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldRequireBothDateBounds() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalArgumentException.class, () -> paymentExportService.exportPayments(
+                null, null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null, out));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    private Payment payment(String transactionId) {
+        return new Payment(transactionId, BigDecimal.TEN, Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee123", Collections.emptyMap());
+    }
+}
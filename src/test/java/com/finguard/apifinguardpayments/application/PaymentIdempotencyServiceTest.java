@@ -0,0 +1,158 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentIdempotencyServiceTest {
+
+    private static final String CACHE_KEY = PaymentIdempotencyService.KEY_PREFIX + "key-1";
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RedisService redisService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentIdempotencyService idempotencyService;
+    private PaymentRequestDTO request;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new PaymentIdempotencyService(paymentService, paymentRepository, redisService, meterRegistry,
+                Duration.ofHours(24), Duration.ofSeconds(30), Duration.ofSeconds(2));
+        request = new PaymentRequestDTO(new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Map.of());
+        payment = new Payment("txn123", request.getAmount(), request.getCurrency(), request.getPaymentMethod(),
+                request.getPayerId(), request.getPayeeId(), Map.of());
+        payment.setId(1L);
+    }
+
+    @Test
+    void shouldReserveKeyCreatePaymentAndStoreResponse() {
+        when(redisService.setValueIfAbsent(CACHE_KEY, PaymentIdempotencyService.IN_PROGRESS, Duration.ofSeconds(30))).thenReturn(true);
+        when(paymentService.createPayment(request, "key-1")).thenReturn(payment);
+
+        assertSame(payment, idempotencyService.createPayment("key-1", request));
+
+        verify(redisService).setValueWithExpiration(CACHE_KEY, payment, Duration.ofHours(24).toSeconds());
+    }
+
+    @Test
+    void shouldReplayStoredPaymentWithoutCreating() {
+        when(redisService.getRemoteValue(CACHE_KEY)).thenReturn(payment);
+
+        assertSame(payment, idempotencyService.createPayment("key-1", request));
+
+        verifyNoInteractions(paymentService, paymentRepository);
+        assertEquals(1.0, meterRegistry.counter("payment.idempotency.replayed").count());
+    }
+
+    @Test
+    void shouldRejectAKeyReusedWithADifferentRequest() {
+        payment.setIdempotencyRequestHash(PaymentIdempotencyService.requestHash(request));
+        PaymentRequestDTO otherAmount = new PaymentRequestDTO(new BigDecimal("900.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Map.of());
+        when(redisService.getRemoteValue(CACHE_KEY)).thenReturn(payment);
+
+        assertSame(payment, idempotencyService.createPayment("key-1", request));
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.createPayment("key-1", otherAmount));
+
+        verifyNoInteractions(paymentService, paymentRepository);
+        assertEquals(1.0, meterRegistry.counter("payment.idempotency.mismatch").count());
+    }
+
+    @Test
+    void shouldHashEquivalentRequestsAlike() {
+        PaymentRequestDTO first = new PaymentRequestDTO(new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", new LinkedHashMap<>(Map.of("a", "1")));
+        first.getMetadata().put("b", "2");
+        PaymentRequestDTO reordered = new PaymentRequestDTO(new BigDecimal("100.0"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", new LinkedHashMap<>(Map.of("b", "2")));
+        reordered.getMetadata().put("a", "1");
+        PaymentRequestDTO otherPayee = new PaymentRequestDTO(new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee789", "Test Payment", Map.of("a", "1", "b", "2"));
+
+        assertEquals(PaymentIdempotencyService.requestHash(first), PaymentIdempotencyService.requestHash(reordered));
+        assertNotEquals(PaymentIdempotencyService.requestHash(first), PaymentIdempotencyService.requestHash(otherPayee));
+    }
+
+    @Test
+    void shouldWaitForConcurrentRequestWithTheSameKey() {
+        when(redisService.getRemoteValue(CACHE_KEY)).thenReturn(PaymentIdempotencyService.IN_PROGRESS, PaymentIdempotencyService.IN_PROGRESS, payment);
+
+        assertSame(payment, idempotencyService.createPayment("key-1", request));
+
+        verifyNoInteractions(paymentService);
+        verify(redisService, never()).setValueIfAbsent(anyString(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("payment.idempotency.waited").count());
+    }
+
+    @Test
+    void shouldReleaseReservationWhenCreationFails() {
+        when(redisService.setValueIfAbsent(CACHE_KEY, PaymentIdempotencyService.IN_PROGRESS, Duration.ofSeconds(30))).thenReturn(true);
+        when(paymentService.createPayment(request, "key-1")).thenThrow(new IllegalArgumentException("Payer ID is required."));
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.createPayment("key-1", request));
+
+        verify(redisService).deleteCachedValue(CACHE_KEY);
+        verify(redisService, never()).setValueWithExpiration(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void shouldFallBackToUniqueConstraintWhenRedisIsDown() {
+        when(redisService.getRemoteValue(CACHE_KEY)).thenThrow(new RuntimeException("Redis read operation failed"));
+        when(paymentService.createPayment(request, "key-1")).thenThrow(new DataIntegrityViolationException("uk_payments_idempotency_key"));
+        when(paymentRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(payment));
+
+        assertSame(payment, idempotencyService.createPayment("key-1", request));
+    }
+
+    @Test
+    void shouldRejectAReusedKeyFoundThroughTheUniqueConstraint() {
+        PaymentRequestDTO original = new PaymentRequestDTO(new BigDecimal("50.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Map.of());
+        payment.setIdempotencyRequestHash(PaymentIdempotencyService.requestHash(original));
+        when(redisService.getRemoteValue(CACHE_KEY)).thenThrow(new RuntimeException("Redis read operation failed"));
+        when(paymentService.createPayment(request, "key-1")).thenThrow(new DataIntegrityViolationException("uk_payments_idempotency_key"));
+        when(paymentRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(payment));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.createPayment("key-1", request));
+    }
+
+    @Test
+    void shouldRejectOversizedKey() {
+        String key = "k".repeat(PaymentIdempotencyService.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.createPayment(key, request));
+        verifyNoInteractions(redisService, paymentService);
+    }
+}
@@ -0,0 +1,223 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentStatusView;
+import com.finguard.apifinguardpayments.kafka.event.PaymentIngestEvent;
+import com.finguard.apifinguardpayments.kafka.producer.KafkaProducer;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentIngestServiceTest {
+
+    private static final String TOPIC = "payment-ingest";
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private PaymentStatistics paymentStatistics;
+
+    @Mock
+    private StatusCacheWriteBehind statusCacheWriteBehind;
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentIngestService ingestService;
+    private PaymentRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ingestService = new PaymentIngestService(paymentService, paymentRepository, paymentEventPublisher,
+                paymentStatistics, statusCacheWriteBehind, redisService, kafkaProducer, objectMapper,
+                transactionManager, meterRegistry, true, TOPIC, Duration.ofSeconds(5), Duration.ofHours(1));
+        request = new PaymentRequestDTO(new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Map.of("invoice", "2024-0042"));
+    }
+
+    @Test
+    void shouldTrackAndPublishAcceptedPaymentKeyedByPayer() throws Exception {
+        when(kafkaProducer.sendEvent(eq(TOPIC), eq("payer123"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        String transactionId = ingestService.accept(request);
+
+        verify(paymentService).validatePaymentRequest(request);
+        verify(redisService).setValueWithExpiration(PaymentIngestService.KEY_PREFIX + transactionId,
+                PaymentIngestService.ACCEPTED, Duration.ofHours(1).toSeconds());
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaProducer).sendEvent(eq(TOPIC), eq("payer123"), eq(transactionId), payload.capture());
+        PaymentIngestEvent event = objectMapper.readValue(payload.getValue(), PaymentIngestEvent.class);
+        assertEquals(transactionId, event.getTransactionId());
+        assertEquals(new BigDecimal("100.00"), event.getAmount());
+        assertEquals("2024-0042", event.getMetadata().get("invoice"));
+        assertNotNull(event.getAcceptedAt());
+        assertEquals(1.0, meterRegistry.counter("payment.ingest.accepted").count());
+    }
+
+    @Test
+    void shouldNotPublishAnInvalidPayment() {
+        doThrow(new IllegalArgumentException("Payment amount must be greater than zero."))
+                .when(paymentService).validatePaymentRequest(request);
+
+        assertThrows(IllegalArgumentException.class, () -> ingestService.accept(request));
+
+        verifyNoInteractions(kafkaProducer, redisService);
+    }
+
+    @Test
+    void shouldRejectAndForgetThePaymentWhenTheBrokerDoesNotAcknowledge() {
+        when(kafkaProducer.sendEvent(eq(TOPIC), eq("payer123"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> ingestService.accept(request));
+
+        verify(redisService).deleteCachedValue(startsWith(PaymentIngestService.KEY_PREFIX));
+        assertEquals(1.0, meterRegistry.counter("payment.ingest.rejected").count());
+        assertEquals(0.0, meterRegistry.counter("payment.ingest.accepted").count());
+    }
+
+    @Test
+    void shouldKeepTrackingAndReturnThePaymentWhenTheSendTimesOut() {
+        ingestService = new PaymentIngestService(paymentService, paymentRepository, paymentEventPublisher,
+                paymentStatistics, statusCacheWriteBehind, redisService, kafkaProducer, objectMapper,
+                transactionManager, meterRegistry, true, TOPIC, Duration.ofMillis(10), Duration.ofHours(1));
+        when(kafkaProducer.sendEvent(eq(TOPIC), eq("payer123"), anyString(), anyString()))
+                .thenReturn(new CompletableFuture<>());
+
+        String transactionId = ingestService.accept(request);
+
+        verify(redisService).setValueWithExpiration(PaymentIngestService.KEY_PREFIX + transactionId,
+                PaymentIngestService.ACCEPTED, Duration.ofHours(1).toSeconds());
+        verify(redisService, never()).deleteCachedValue(anyString());
+        assertEquals(1.0, meterRegistry.counter("payment.ingest.unconfirmed").count());
+        assertEquals(0.0, meterRegistry.counter("payment.ingest.rejected").count());
+    }
+
+    @Test
+    void shouldPersistTheBatchOnceAndSkipRedeliveredPayments() {
+        PaymentIngestEvent first = PaymentIngestEvent.of("txn1", request);
+        PaymentIngestEvent redelivered = PaymentIngestEvent.of("txn2", request);
+        when(paymentRepository.findExistingTransactionIds(anyCollection())).thenReturn(List.of("txn2"));
+        when(paymentService.screen(any())).thenReturn(FraudVerdict.clean(BigDecimal.ZERO));
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(payment -> payment.setId(10L));
+            return payments;
+        });
+
+        assertEquals(1, ingestService.persistAccepted(List.of(first, redelivered, first)));
+
+        ArgumentCaptor<List<Payment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(paymentRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        Payment payment = saved.getValue().get(0);
+        assertEquals("txn1", payment.getTransactionId());
+        assertEquals(PaymentStatus.PENDING, payment.getStatus());
+        verify(paymentEventPublisher).publishAll(saved.getValue(), PaymentEventType.PAYMENT_CREATED);
+        verify(paymentStatistics).recordCreated(List.of(payment));
+        verify(statusCacheWriteBehind).enqueueAll(Map.of(10L, "PENDING"));
+        verify(redisService).setValuesWithExpiration(Map.of(PaymentIngestService.KEY_PREFIX + "txn1", "10"),
+                Duration.ofHours(1).toSeconds());
+        assertEquals(2.0, meterRegistry.counter("payment.ingest.duplicate").count());
+    }
+
+    @Test
+    void shouldRecordFraudForFlaggedPaymentsOfTheBatch() {
+        when(paymentRepository.findExistingTransactionIds(anyCollection())).thenReturn(List.of());
+        FraudVerdict flagged = FraudVerdict.flagged(BigDecimal.ONE, "Fraud rule r1: r1", FraudRuleEngine.FLAGGED_BY);
+        when(paymentService.screen(any())).thenReturn(flagged);
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(payment -> payment.setId(11L));
+            return payments;
+        });
+
+        ingestService.persistAccepted(List.of(PaymentIngestEvent.of("txn1", request)));
+
+        verify(paymentService).recordFraud(argThat(payment -> "txn1".equals(payment.getTransactionId())), eq(flagged));
+    }
+
+    @Test
+    void shouldTrackDeadLetteredPaymentsAsFailed() {
+        ingestService.markFailed("txn1");
+
+        verify(redisService).setValueWithExpiration(PaymentIngestService.KEY_PREFIX + "txn1",
+                PaymentIngestService.FAILED, Duration.ofHours(1).toSeconds());
+        assertEquals(1.0, meterRegistry.counter("payment.ingest.failed").count());
+
+        when(redisService.getOrLoad(eq(PaymentIngestService.KEY_PREFIX + "txn1"), any(), eq(Duration.ofHours(1))))
+                .thenReturn(PaymentIngestService.FAILED);
+        assertEquals(PaymentIngestService.FAILED, ingestService.getStatus("txn1"));
+        verify(paymentService, never()).getCachedPaymentStatus(any());
+    }
+
+    @Test
+    void shouldResolveStatusThroughTheTrackedPaymentId() {
+        when(redisService.getOrLoad(eq(PaymentIngestService.KEY_PREFIX + "txn1"), any(), eq(Duration.ofHours(1))))
+                .thenReturn(PaymentIngestService.ACCEPTED);
+        when(redisService.getOrLoad(eq(PaymentIngestService.KEY_PREFIX + "txn2"), any(), eq(Duration.ofHours(1))))
+                .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(1).get());
+        when(paymentRepository.findStatusByTransactionId("txn2")).thenReturn(Optional.of(statusView(42L)));
+        when(paymentService.getCachedPaymentStatus(42L)).thenReturn("COMPLETED");
+
+        assertEquals(PaymentIngestService.ACCEPTED, ingestService.getStatus("txn1"));
+        assertEquals("COMPLETED", ingestService.getStatus("txn2"));
+        assertNull(ingestService.getStatus("unknown"));
+    }
+
+    private static PaymentStatusView statusView(Long id) {
+        return new PaymentStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public PaymentStatus getStatus() {
+                return PaymentStatus.COMPLETED;
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentPartitionMaintenanceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void shouldCreateOnlyMissingUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        when(paymentRepository.findPartitionMonths()).thenReturn(List.of(current.minusMonths(1), current, current.plusMonths(1)));
+
+        new PaymentPartitionMaintenance(paymentRepository, 3, 0).maintainPartitions();
+
+        verify(paymentRepository).createPartition(current.plusMonths(2));
+        verify(paymentRepository).createPartition(current.plusMonths(3));
+        verify(paymentRepository, times(2)).createPartition(any());
+        verify(paymentRepository, never()).detachPartition(any());
+    }
+
+    @Test
+    void shouldDetachPartitionsOlderThanRetentionOldestFirst() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> months = List.of(current.minusMonths(14), current.minusMonths(13), current.minusMonths(12),
+                current, current.plusMonths(1));
+        when(paymentRepository.findPartitionMonths()).thenReturn(months);
+
+        new PaymentPartitionMaintenance(paymentRepository, 1, 12).maintainPartitions();
+
+        var order = inOrder(paymentRepository);
+        order.verify(paymentRepository).detachPartition(current.minusMonths(14));
+        order.verify(paymentRepository).detachPartition(current.minusMonths(13));
+        verify(paymentRepository, never()).detachPartition(current.minusMonths(12));
+    }
+
+    @Test
+    void shouldStopDetachingAfterAFailure() {
+        YearMonth current = YearMonth.now();
+        when(paymentRepository.findPartitionMonths()).thenReturn(List.of(current.minusMonths(3), current.minusMonths(2), current, current.plusMonths(1)));
+        doThrow(new IllegalStateException("lock timeout")).when(paymentRepository).detachPartition(current.minusMonths(3));
+
+        new PaymentPartitionMaintenance(paymentRepository, 1, 1).maintainPartitions();
+
+        verify(paymentRepository, never()).detachPartition(current.minusMonths(2));
+    }
+
+    @Test
+    void shouldRequireAtLeastOneMonthAhead() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentPartitionMaintenance(paymentRepository, 0, 0));
+    }
+}
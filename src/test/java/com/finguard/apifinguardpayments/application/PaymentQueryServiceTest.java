@@ -0,0 +1,83 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentSummaryView;
+import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
+import com.finguard.apifinguardpayments.web.response.CursorPageResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentQueryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    private PaymentQueryService paymentQueryService;
+
+    @BeforeEach
+    void setUp() {
+        paymentQueryService = new PaymentQueryService(paymentRepository, new PaymentMapper(), 50, 100);
+    }
+
+    @Test
+    void shouldReturnNextCursorPointingAtLastPayment() {
+        PaymentSummaryView last = mock(PaymentSummaryView.class);
+        when(last.getId()).thenReturn(42L);
+        when(last.getCreatedAt()).thenReturn(LocalDateTime.of(2025, 1, 10, 12, 30, 15, 123456000));
+        when(last.getMetadata()).thenReturn(Map.of("invoice", "2024-0042"));
+
+        when(paymentRepository.findByStatusAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(eq(PaymentStatus.COMPLETED),
+                any(LocalDateTime.class), any(LocalDateTime.class), any(ScrollPosition.class), eq(Limit.of(50))))
+                .thenReturn(Window.from(List.of(last), index -> ScrollPosition.keyset(), true));
+
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByStatus(PaymentStatus.COMPLETED, null, null, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(Map.of("invoice", "2024-0042"), page.getItems().get(0).getMetadata());
+        assertNotNull(page.getNextCursor());
+
+        KeysetScrollPosition position = (KeysetScrollPosition) PaymentCursor.decode(page.getNextCursor());
+        assertEquals(last.getCreatedAt(), position.getKeys().get("createdAt"));
+        assertEquals(42L, position.getKeys().get("id"));
+    }
+
+    @Test
+    void shouldCapPageSizeAndOmitCursorOnLastPage() {
+        when(paymentRepository.findByPayerIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(eq("payer123"), eq(START), eq(END),
+                any(ScrollPosition.class), eq(Limit.of(100))))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        CursorPageResponseDTO<PaymentSummaryDTO> page = paymentQueryService.getPaymentsByPayerId("payer123", START, END, null, 10_000);
+
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentQueryService.getPaymentsByPayeeId("payee123", null, null, "not-a-cursor", 10));
+        verifyNoInteractions(paymentRepository);
+    }
+}
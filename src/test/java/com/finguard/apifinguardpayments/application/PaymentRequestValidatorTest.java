@@ -0,0 +1,34 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentRequestValidatorTest {
+
+    @Test
+    void shouldAcceptACompleteRequest() {
+        assertDoesNotThrow(() -> PaymentRequestValidator.validate(request(new BigDecimal("100.00"), "payee456")));
+    }
+
+    @Test
+    void shouldRejectTheFirstInvalidField() {
+        IllegalArgumentException amount = assertThrows(IllegalArgumentException.class,
+                () -> PaymentRequestValidator.validate(request(BigDecimal.ZERO, "payee456")));
+        assertEquals("Payment amount must be greater than zero.", amount.getMessage());
+
+        IllegalArgumentException payee = assertThrows(IllegalArgumentException.class,
+                () -> PaymentRequestValidator.validate(request(new BigDecimal("100.00"), " ")));
+        assertEquals("Payee ID is required.", payee.getMessage());
+    }
+
+    private static PaymentRequestDTO request(BigDecimal amount, String payeeId) {
+        return new PaymentRequestDTO(amount, Currency.BRL, PaymentMethod.PIX, "payer123", payeeId, "Test Payment", Map.of());
+    }
+}
@@ -0,0 +1,145 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStat;
+import com.finguard.apifinguardpayments.domain.PaymentStat.Dimension;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.infrastructure.PaymentStatRepository;
+import com.finguard.apifinguardpayments.web.response.PaymentStatsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatisticsTest {
+
+    @Mock
+    private PaymentStatRepository paymentStatRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new PaymentStatistics(paymentStatRepository, transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldCombineStoredCountsWithLocalDeltas() {
+        when(paymentStatRepository.findAll()).thenReturn(List.of(
+                stat(Dimension.TOTAL, PaymentStatistics.TOTAL_VALUE, 10),
+                stat(Dimension.STATUS, "PENDING", 4),
+                stat(Dimension.STATUS, "COMPLETED", 6),
+                stat(Dimension.CURRENCY, "BRL", 10),
+                stat(Dimension.PAYMENT_METHOD, "PIX", 10)
+        ));
+        Payment created = payment(PaymentStatus.PENDING);
+        Payment completed = payment(PaymentStatus.COMPLETED);
+
+        statistics.recordCreated(created);
+        statistics.recordTransition(new PaymentTransition(completed, PaymentStatus.PENDING));
+        PaymentStatsDTO stats = statistics.snapshot();
+
+        assertEquals(11, stats.getTotal());
+        assertEquals(Map.of("PENDING", 4L, "COMPLETED", 7L), stats.getByStatus());
+        assertEquals(Map.of("BRL", 11L), stats.getByCurrency());
+        assertEquals(Map.of("PIX", 11L), stats.getByPaymentMethod());
+        verifyNoMoreInteractions(paymentStatRepository);
+    }
+
+    @Test
+    void shouldIgnoreChangesRolledBackWithTheirTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.recordCreated(payment(PaymentStatus.PENDING));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, statistics.snapshot().getTotal());
+    }
+
+    @Test
+    void shouldFlushDeltasAsUpsertsAndReloadBaseline() {
+        statistics.recordCreated(payment(PaymentStatus.PENDING));
+        statistics.recordDeleted(payment(PaymentStatus.FAILED));
+
+        statistics.flush();
+
+        verify(paymentStatRepository).addToCount("STATUS", "PENDING", 1);
+        verify(paymentStatRepository).addToCount("STATUS", "FAILED", -1);
+        verify(paymentStatRepository, never()).addToCount(eq("TOTAL"), anyString(), anyLong());
+        verify(paymentStatRepository, never()).addToCount(eq("CURRENCY"), anyString(), anyLong());
+        verify(paymentStatRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldKeepDeltasWhenFlushFails() {
+        when(paymentStatRepository.addToCount(anyString(), anyString(), anyLong()))
+                .thenThrow(new IllegalStateException("database down"));
+        statistics.recordCreated(payment(PaymentStatus.PENDING));
+
+        statistics.flush();
+
+        assertEquals(1, statistics.snapshot().getTotal());
+        assertEquals(1.0, meterRegistry.counter("payment.stats.flush.failure").count());
+    }
+
+    @Test
+    void shouldRebuildSummaryOnlyUnderTheLock() {
+        when(paymentStatRepository.tryAcquireRebuildLock()).thenReturn(false);
+
+        statistics.reconcile();
+
+        verify(paymentStatRepository, never()).deleteAllStats();
+
+        when(paymentStatRepository.tryAcquireRebuildLock()).thenReturn(true);
+        when(paymentStatRepository.rebuildFromPayments()).thenReturn(12);
+
+        statistics.reconcile();
+
+        verify(paymentStatRepository, times(1)).deleteAllStats();
+        verify(paymentStatRepository, times(1)).rebuildFromPayments();
+    }
+
+    private Payment payment(PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(1L);
+        payment.setStatus(status);
+        payment.setCurrency(Currency.BRL);
+        payment.setPaymentMethod(PaymentMethod.PIX);
+        return payment;
+    }
+
+    private PaymentStat stat(Dimension dimension, String value, long count) {
+        return new PaymentStat(dimension, value, count, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,119 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.PaymentTransition;
+import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusBatchServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private StatusCacheWriteBehind statusCacheWriteBehind;
+
+    @Mock
+    private PaymentSnapshotCache paymentSnapshotCache;
+
+    @Mock
+    private PaymentStatistics paymentStatistics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentStatusBatchService paymentStatusBatchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentStatusBatchService = new PaymentStatusBatchService(paymentRepository, paymentEventPublisher,
+                statusCacheWriteBehind, paymentSnapshotCache, paymentStatistics, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void shouldUpdateStatusesAndRefreshCacheInOneCall() {
+        Map<String, PaymentStatus> updates = Map.of("txn1", PaymentStatus.COMPLETED, "txn2", PaymentStatus.FAILED);
+        List<PaymentTransition> transitions = List.of(
+                new PaymentTransition(payment(1L, "txn1", PaymentStatus.COMPLETED), PaymentStatus.PENDING),
+                new PaymentTransition(payment(2L, "txn2", PaymentStatus.FAILED), PaymentStatus.PENDING));
+        List<Payment> updated = transitions.stream().map(PaymentTransition::payment).toList();
+        when(paymentRepository.updateStatuses(eq(updates), any(LocalDateTime.class))).thenReturn(transitions);
+
+        List<Payment> result = paymentStatusBatchService.applyStatusUpdates(updates);
+
+        assertEquals(2, result.size());
+        verify(paymentEventPublisher).publishAll(updated, PaymentEventType.PAYMENT_STATUS_CHANGED);
+        verify(statusCacheWriteBehind, times(1)).enqueueAll(Map.of(
+                1L, "COMPLETED",
+                2L, "FAILED"
+        ));
+        verify(paymentSnapshotCache, times(1)).evictAll(updated);
+        verify(paymentStatistics, times(1)).recordTransitions(transitions);
+    }
+
+    @Test
+    void shouldKeepCommittedUpdatesWhenCacheIsUnavailable() {
+        Map<String, PaymentStatus> updates = Map.of("txn1", PaymentStatus.COMPLETED);
+        when(paymentRepository.updateStatuses(eq(updates), any(LocalDateTime.class)))
+                .thenReturn(List.of(new PaymentTransition(payment(1L, "txn1", PaymentStatus.COMPLETED), PaymentStatus.PENDING)));
+        doThrow(new IllegalStateException("redis down")).when(paymentSnapshotCache).evictAll(anyList());
+
+        assertEquals(1, paymentStatusBatchService.applyStatusUpdates(updates).size());
+    }
+
+    @Test
+    void shouldCountTransitionsTheTableDoesNotAllow() {
+        // txn1 is REFUNDED, a terminal status, so the UPDATE leaves it out; txn3 does not exist
+        Map<String, PaymentStatus> updates = new LinkedHashMap<>();
+        updates.put("txn1", PaymentStatus.PENDING);
+        updates.put("txn2", PaymentStatus.COMPLETED);
+        updates.put("txn3", PaymentStatus.COMPLETED);
+        when(paymentRepository.updateStatuses(eq(updates), any(LocalDateTime.class)))
+                .thenReturn(List.of(new PaymentTransition(payment(2L, "txn2", PaymentStatus.COMPLETED), PaymentStatus.PENDING)));
+        when(paymentRepository.findExistingTransactionIds(Set.of("txn1", "txn3"))).thenReturn(List.of("txn1"));
+
+        List<Payment> result = paymentStatusBatchService.applyStatusUpdates(updates);
+
+        assertEquals(List.of("txn2"), result.stream().map(Payment::getTransactionId).toList());
+        assertEquals(1.0, meterRegistry.counter("payment.status.transition.rejected").count());
+        verify(statusCacheWriteBehind).enqueueAll(Map.of(2L, "COMPLETED"));
+    }
+
+    @Test
+    void shouldSkipDatabaseForEmptyBatch() {
+        assertTrue(paymentStatusBatchService.applyStatusUpdates(Map.of()).isEmpty());
+        verifyNoInteractions(paymentRepository, statusCacheWriteBehind);
+    }
+
+    private Payment payment(Long id, String transactionId, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setTransactionId(transactionId);
+        payment.setStatus(status);
+        return payment;
+    }
+}
@@ -2,11 +2,13 @@ package com.finguard.apifinguardpayments.application;
 
 import com.finguard.apifinguardpayments.domain.*;
 import com.finguard.apifinguardpayments.infrastructure.FraudAnalysisRepository;
-import com.finguard.apifinguardpayments.infrastructure.PaymentMetadataRepository;
 import com.finguard.apifinguardpayments.infrastructure.PaymentRepository;
-import com.finguard.apifinguardpayments.infrastructure.RefundRepository;
+import com.finguard.apifinguardpayments.infrastructure.PaymentStatusView;
+import com.finguard.apifinguardpayments.infrastructure.PaymentSummaryView;
 import com.finguard.apifinguardpayments.web.mapper.PaymentMapper;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +17,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,19 +37,31 @@ class PaymentServiceTest {
     private PaymentRepository paymentRepository;
 
     @Mock
-    private PaymentMetadataRepository paymentMetadataRepository;
+    private FraudAnalysisRepository fraudAnalysisRepository;
 
     @Mock
-    private FraudAnalysisRepository fraudAnalysisRepository;
+    private RedisService redisService;
 
     @Mock
-    private RefundRepository refundRepository;
+    private PaymentMapper paymentMapper;
 
     @Mock
-    private RedisService redisService;
+    private PaymentSnapshotCache paymentSnapshotCache;
 
     @Mock
-    private PaymentMapper paymentMapper;
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @Mock
+    private StatusCacheWriteBehind statusCacheWriteBehind;
+
+    @Mock
+    private PaymentStatistics paymentStatistics;
+
+    @Mock
+    private VelocityFraudEngine velocityFraudEngine;
+
+    @Mock
+    private FraudRuleEngine fraudRuleEngine;
 
     @InjectMocks
     private PaymentService paymentService;
@@ -65,7 +85,7 @@ class PaymentServiceTest {
         samplePayment.setPayerId("payer123");
         samplePayment.setPayeeId("payee123");
         samplePayment.setDescription(null);
-        samplePayment.setMetadata((Map<String, String>) null);
+        samplePayment.setMetadata(null);
         samplePayment.setRefundedAmount(BigDecimal.ZERO);
         samplePayment.setPaymentGateway(null);
         samplePayment.setPaymentDate(null);
@@ -97,6 +117,8 @@ class PaymentServiceTest {
 
         // Configura o comportamento do mock
         when(paymentMapper.toEntity(dto)).thenReturn(paymentFromMapper);
+        when(velocityFraudEngine.score(paymentFromMapper)).thenReturn(new FraudVerdict(new BigDecimal("0.1000"), false, null, null));
+        when(fraudRuleEngine.evaluate(paymentFromMapper)).thenReturn(new FraudVerdict(BigDecimal.ZERO, false, null, null));
 
         when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
 
@@ -105,19 +127,85 @@ class PaymentServiceTest {
         assertNotNull(createdPayment);
         assertEquals(PaymentStatus.PENDING, createdPayment.getStatus());
         verify(paymentRepository, times(1)).save(any(Payment.class));
-        verify(redisService, times(1)).setValue(anyString(), anyString());
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_CREATED);
+        verify(statusCacheWriteBehind, times(1)).enqueue(any(), anyString());
+    }
+
+    @Test
+    void shouldCreatePaymentAsFraudulentWhenScreeningFlagsIt() {
+        PaymentRequestDTO dto = new PaymentRequestDTO();
+        dto.setAmount(BigDecimal.valueOf(100.00));
+        dto.setCurrency(Currency.USD);
+        dto.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        dto.setPayerId("payer123");
+        dto.setPayeeId("payee123");
+
+        String reason = "Fraud rule high-value-jpy: High-value JPY payment";
+        when(paymentMapper.toEntity(dto)).thenReturn(samplePayment);
+        when(velocityFraudEngine.score(samplePayment)).thenReturn(new FraudVerdict(new BigDecimal("0.5000"), false, null, null));
+        when(fraudRuleEngine.evaluate(samplePayment)).thenReturn(new FraudVerdict(new BigDecimal("0.9"), true, reason, FraudRuleEngine.FLAGGED_BY));
+        when(paymentRepository.save(samplePayment)).thenReturn(samplePayment);
+
+        Payment createdPayment = paymentService.createPayment(dto);
+
+        assertEquals(PaymentStatus.FRAUDULENT, createdPayment.getStatus());
+        assertTrue(createdPayment.getFraudulent());
+        assertEquals(reason, createdPayment.getFraudReason());
+        verify(fraudAnalysisRepository, times(1)).save(argThat(analysis -> analysis.getPayment() == samplePayment
+                && analysis.getRiskScore().equals(new BigDecimal("0.9"))
+                && analysis.getFlaggedBy().equals(FraudRuleEngine.FLAGGED_BY)));
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT);
+        verify(statusCacheWriteBehind, times(1)).enqueue(1L, "FRAUDULENT");
+    }
+
+    @Test
+    void shouldKeepPaymentPendingAndRecordAnalysisWhenFlaggedForReview() {
+        String reason = "Fraud rule watched-payee: Watched payee";
+        when(paymentMapper.toEntity(any())).thenReturn(samplePayment);
+        when(velocityFraudEngine.score(samplePayment)).thenReturn(FraudVerdict.clean(new BigDecimal("0.1000")));
+        when(fraudRuleEngine.evaluate(samplePayment)).thenReturn(FraudVerdict.review(new BigDecimal("0.6"), reason, FraudRuleEngine.FLAGGED_BY));
+        when(paymentRepository.save(samplePayment)).thenReturn(samplePayment);
+
+        Payment createdPayment = paymentService.createPayment(new PaymentRequestDTO(BigDecimal.valueOf(100.00), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "payer123", "payee123", null, Map.of()));
+
+        assertEquals(PaymentStatus.PENDING, createdPayment.getStatus());
+        assertFalse(createdPayment.getFraudulent());
+        verify(fraudAnalysisRepository, times(1)).save(argThat(analysis -> analysis.getPayment() == samplePayment
+                && analysis.getRiskScore().equals(new BigDecimal("0.6"))));
+        verify(paymentEventPublisher, never()).publish(samplePayment, PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT);
     }
 
 
     @Test
     void shouldRetrievePaymentById() {
+        PaymentResponseDTO snapshot = new PaymentResponseDTO();
+        snapshot.setId(1L);
+        snapshot.setTransactionId("txn123");
+
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(samplePayment));
+        when(paymentMapper.toResponseDTO(samplePayment)).thenReturn(snapshot);
 
-        Payment foundPayment = paymentService.getPaymentById(1L);
+        PaymentResponseDTO foundPayment = paymentService.getPaymentById(1L);
 
         assertNotNull(foundPayment);
         assertEquals("txn123", foundPayment.getTransactionId());
         verify(paymentRepository, times(1)).findById(1L);
+        verify(paymentSnapshotCache, times(1)).put(snapshot);
+    }
+
+    @Test
+    void shouldServePaymentByIdFromSnapshotCache() {
+        PaymentResponseDTO snapshot = new PaymentResponseDTO();
+        snapshot.setId(1L);
+        snapshot.setTransactionId("txn123");
+
+        when(paymentSnapshotCache.getById(1L)).thenReturn(snapshot);
+
+        PaymentResponseDTO foundPayment = paymentService.getPaymentById(1L);
+
+        assertSame(snapshot, foundPayment);
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
@@ -130,39 +218,168 @@ class PaymentServiceTest {
         verify(paymentRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void shouldBoundStatusListingToDefaultWindow() {
+        LocalDateTime end = LocalDateTime.of(2024, 6, 30, 0, 0);
+        PaymentSummaryView summary = mock(PaymentSummaryView.class);
+        PaymentSummaryDTO summaryDTO = new PaymentSummaryDTO();
+        when(paymentRepository.findByStatusAndCreatedAtBetween(PaymentStatus.PENDING, end.minus(CreatedAtRange.DEFAULT_WINDOW), end))
+                .thenReturn(List.of(summary));
+        when(paymentMapper.toSummaryDTOs(List.of(summary))).thenReturn(List.of(summaryDTO));
+
+        assertEquals(List.of(summaryDTO), paymentService.getPaymentsByStatus(PaymentStatus.PENDING, null, end));
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.getPaymentsByStatus(PaymentStatus.PENDING, end.plusDays(1), end));
+    }
+
+    @Test
+    void shouldQueryPaymentsByMetadataEntry() {
+        LocalDateTime end = LocalDateTime.of(2024, 6, 30, 0, 0);
+        PaymentSummaryView summary = mock(PaymentSummaryView.class);
+        PaymentSummaryDTO summaryDTO = new PaymentSummaryDTO();
+        when(paymentRepository.findByMetadataEntryAndCreatedAtBetween("invoice", "2024-0042", end.minus(CreatedAtRange.DEFAULT_WINDOW), end))
+                .thenReturn(List.of(summary));
+        when(paymentMapper.toSummaryDTOs(List.of(summary))).thenReturn(List.of(summaryDTO));
+
+        assertEquals(List.of(summaryDTO), paymentService.getPaymentsByMetadata("invoice", "2024-0042", null, end));
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.getPaymentsByMetadata(" ", "2024-0042", null, end));
+    }
+
     @Test
     void shouldUpdatePaymentStatusSuccessfully() {
-        when(paymentRepository.findByTransactionId("txn123")).thenReturn(Optional.of(samplePayment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+        samplePayment.setStatus(PaymentStatus.COMPLETED);
+        PaymentTransition transition = new PaymentTransition(samplePayment, PaymentStatus.PENDING);
+        when(paymentRepository.compareAndSetStatus(eq("txn123"), eq(Set.of(PaymentStatus.PENDING)), eq(PaymentStatus.COMPLETED), any()))
+                .thenReturn(Optional.of(transition));
 
         Payment updatedPayment = paymentService.updatePaymentStatus("txn123", PaymentStatus.COMPLETED);
 
         assertNotNull(updatedPayment);
         assertEquals(PaymentStatus.COMPLETED, updatedPayment.getStatus());
-        verify(paymentRepository, times(1)).save(samplePayment);
-        verify(redisService, times(1)).setValue("payment-status-1", "COMPLETED");
+        verify(paymentRepository, never()).findByTransactionId(any());
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_STATUS_CHANGED);
+        verify(statusCacheWriteBehind, times(1)).enqueue(1L, "COMPLETED");
+        verify(paymentSnapshotCache, times(1)).evict(1L, "txn123");
+        verify(paymentStatistics, times(1)).recordTransition(transition);
+    }
+
+    @Test
+    void shouldRejectIllegalStatusTransition() {
+        samplePayment.setStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.compareAndSetStatus(eq("txn123"), eq(Set.of(PaymentStatus.PENDING, PaymentStatus.FAILED)), eq(PaymentStatus.CANCELLED), any()))
+                .thenReturn(Optional.empty());
+        when(paymentRepository.findByTransactionId("txn123")).thenReturn(Optional.of(samplePayment));
+
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> paymentService.updatePaymentStatus("txn123", PaymentStatus.CANCELLED));
+
+        assertEquals("Cannot change payment status from COMPLETED to CANCELLED.", exception.getMessage());
+        verifyNoInteractions(paymentEventPublisher, statusCacheWriteBehind, paymentStatistics);
+    }
+
+    @Test
+    void shouldFlagPaymentAsFraudulentAndRecordAnalysis() {
+        samplePayment.setStatus(PaymentStatus.FRAUDULENT);
+        when(paymentRepository.compareAndSetFraudulent(eq("txn123"), eq(PaymentStatus.FRAUDULENT.allowedSources()), eq("velocity"), any()))
+                .thenReturn(Optional.of(new PaymentTransition(samplePayment, PaymentStatus.PENDING)));
+        when(paymentRepository.getReferenceById(1L)).thenReturn(samplePayment);
+
+        paymentService.flagAsFraudulent("txn123", "velocity", new BigDecimal("0.97"), "fraud-engine");
+
+        verify(fraudAnalysisRepository, times(1)).save(any(FraudAnalysis.class));
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_FLAGGED_FRAUDULENT);
+        verify(statusCacheWriteBehind, times(1)).enqueue(1L, "FRAUDULENT");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLoadMissingCachedStatusFromDatabase() {
+        PaymentStatusView completed = mock(PaymentStatusView.class);
+        when(completed.getStatus()).thenReturn(PaymentStatus.COMPLETED);
+        when(paymentRepository.findStatusByIdIn(List.of(1L))).thenReturn(List.of(completed));
+        when(redisService.getOrLoad(eq("payment-status-1"), any(Supplier.class), eq(PaymentService.STATUS_CACHE_TTL)))
+                .thenAnswer(invocation -> invocation.<Supplier<String>>getArgument(1).get());
+
+        assertEquals("COMPLETED", paymentService.getCachedPaymentStatus(1L));
+    }
+
+    @Test
+    void shouldResolveCachedStatusesAndBackfillMissesFromDatabase() {
+        when(redisService.getValues(argThat(keys -> List.copyOf(keys).equals(
+                List.of("payment-status-1", "payment-status-2", "payment-status-3")))))
+                .thenReturn(Map.of("payment-status-1", "COMPLETED"));
+        PaymentStatusView failed = mock(PaymentStatusView.class);
+        when(failed.getId()).thenReturn(2L);
+        when(failed.getStatus()).thenReturn(PaymentStatus.FAILED);
+        when(paymentRepository.findStatusByIdIn(List.of(2L, 3L))).thenReturn(List.of(failed));
+
+        Map<Long, String> statuses = paymentService.getCachedPaymentStatuses(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(statuses.keySet()));
+        assertEquals("COMPLETED", statuses.get(1L));
+        assertEquals("FAILED", statuses.get(2L));
+        verify(redisService, times(1)).setValuesIfAbsent(Map.of("payment-status-2", "FAILED"), PaymentService.STATUS_CACHE_TTL);
+        verify(redisService, never()).setValues(any());
+    }
+
+    @Test
+    void shouldApplyRefundThroughConditionalUpdate() {
+        samplePayment.setStatus(PaymentStatus.COMPLETED);
+        samplePayment.setRefundedAmount(new BigDecimal("40.00"));
+        Refund applied = new Refund(samplePayment, new BigDecimal("40.00"), null, "system", "Refund processed successfully");
+        when(paymentRepository.applyRefund(eq("txn123"), eq(new BigDecimal("40.00")), any(), eq("system"), any()))
+                .thenReturn(Optional.of(applied));
+
+        Refund refund = paymentService.processRefund("txn123", new BigDecimal("40.00"));
+
+        assertSame(applied, refund);
+        verify(paymentRepository, never()).findByTransactionId(any());
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_REFUNDED);
+        verify(paymentSnapshotCache, times(1)).evict(1L, "txn123");
+    }
+
+    @Test
+    void shouldRejectRefundAboveRemainingBalance() {
+        samplePayment.setStatus(PaymentStatus.COMPLETED);
+        samplePayment.setRefundedAmount(new BigDecimal("80.00"));
+        when(paymentRepository.applyRefund(eq("txn123"), eq(new BigDecimal("40.00")), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(paymentRepository.findByTransactionId("txn123")).thenReturn(Optional.of(samplePayment));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> paymentService.processRefund("txn123", new BigDecimal("40.00")));
+
+        assertEquals("Refund amount exceeds the remaining refundable balance.", exception.getMessage());
+        verifyNoInteractions(paymentEventPublisher);
+    }
+
+    @Test
+    void shouldRejectNonPositiveRefundAmount() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.processRefund("txn123", BigDecimal.ZERO));
+        verifyNoInteractions(paymentRepository);
     }
 
     @Test
     void shouldRetryFailedPaymentSuccessfully() {
-        samplePayment.setStatus(PaymentStatus.FAILED);
-        samplePayment.setRetryCount(2);
+        samplePayment.setStatus(PaymentStatus.PENDING);
+        samplePayment.setRetryCount(3);
 
-        when(paymentRepository.findById(1L)).thenReturn(Optional.of(samplePayment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+        when(paymentRepository.compareAndSetRetry(eq(1L), eq(PaymentService.MAX_RETRY_ATTEMPTS), any()))
+                .thenReturn(Optional.of(new PaymentTransition(samplePayment, PaymentStatus.FAILED)));
 
         paymentService.retryPayment(1L);
 
-        assertEquals(PaymentStatus.PENDING, samplePayment.getStatus());
-        assertEquals(3, samplePayment.getRetryCount());
-        verify(paymentRepository, times(1)).save(samplePayment);
-        verify(redisService, times(1)).setValue("payment-status-1", "PENDING");
+        verify(paymentRepository, never()).findById(any());
+        verify(paymentEventPublisher, times(1)).publish(samplePayment, PaymentEventType.PAYMENT_STATUS_CHANGED);
+        verify(statusCacheWriteBehind, times(1)).enqueue(1L, "PENDING");
     }
 
     @Test
     void shouldThrowExceptionWhenRetryingNonFailedPayment() {
         samplePayment.setStatus(PaymentStatus.COMPLETED);
 
+        when(paymentRepository.compareAndSetRetry(eq(1L), anyInt(), any())).thenReturn(Optional.empty());
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(samplePayment));
 
         Exception exception = assertThrows(IllegalStateException.class, () -> paymentService.retryPayment(1L));
@@ -176,6 +393,7 @@ class PaymentServiceTest {
         samplePayment.setStatus(PaymentStatus.FAILED);
         samplePayment.setRetryCount(3);
 
+        when(paymentRepository.compareAndSetRetry(eq(1L), anyInt(), any())).thenReturn(Optional.empty());
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(samplePayment));
 
         Exception exception = assertThrows(IllegalStateException.class, () -> paymentService.retryPayment(1L));
@@ -183,4 +401,29 @@ class PaymentServiceTest {
         assertEquals("Maximum retry attempts exceeded.", exception.getMessage());
         verify(paymentRepository, never()).save(samplePayment);
     }
+
+    @Test
+    void shouldOnlyRetryFailedPaymentsBackToPending() {
+        samplePayment.setStatus(PaymentStatus.FAILED);
+        when(paymentRepository.compareAndSetStatus(eq("txn123"), eq(Set.of()), eq(PaymentStatus.PENDING), any()))
+                .thenReturn(Optional.empty());
+        when(paymentRepository.findByTransactionId("txn123")).thenReturn(Optional.of(samplePayment));
+
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> paymentService.updatePaymentStatus("txn123", PaymentStatus.PENDING));
+
+        assertEquals("Failed payments return to PENDING only through a retry.", exception.getMessage());
+        verify(paymentEventPublisher, never()).publish(any(), any());
+        verify(statusCacheWriteBehind, never()).enqueue(any(), anyString());
+    }
+
+    @Test
+    void shouldDeriveExpectedStatusesFromTransitionTable() {
+        assertEquals(Set.of(PaymentStatus.PENDING), PaymentStatus.COMPLETED.allowedSources());
+        assertEquals(Set.of(PaymentStatus.PENDING, PaymentStatus.COMPLETED, PaymentStatus.FAILED), PaymentStatus.FRAUDULENT.allowedSources());
+        assertFalse(PaymentStatus.COMPLETED.canTransitionTo(PaymentStatus.PENDING));
+        assertFalse(PaymentStatus.FAILED.canTransitionTo(PaymentStatus.PENDING));
+        assertTrue(PaymentStatus.PENDING.allowedSources().isEmpty());
+        assertTrue(PaymentStatus.REFUNDED.allowedSources().contains(PaymentStatus.COMPLETED));
+    }
 }
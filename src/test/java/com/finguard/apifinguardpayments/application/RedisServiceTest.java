@@ -0,0 +1,210 @@
+package com.finguard.apifinguardpayments.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NearCache nearCache;
+    private RedisService redisService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new NearCache(redisTemplate, listenerContainer, meterRegistry, true, 100, Duration.ofMinutes(1));
+        redisService = new RedisService(redisTemplate, nearCache, meterRegistry, Duration.ofSeconds(5), Duration.ofMillis(200));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromNearCache() {
+        when(valueOperations.get("payment-status-1")).thenReturn("COMPLETED");
+
+        assertEquals("COMPLETED", redisService.getValue("payment-status-1"));
+        assertEquals("COMPLETED", redisService.getValue("payment-status-1"));
+
+        verify(valueOperations, times(1)).get("payment-status-1");
+        assertEquals(1.0, meterRegistry.counter("redis.cache.l1.hit").count());
+        assertEquals(1.0, meterRegistry.counter("redis.cache.l1.miss").count());
+        assertEquals(1.0, meterRegistry.counter("redis.cache.hit").count());
+    }
+
+    @Test
+    void shouldEvictLocallyAndPublishInvalidationOnWrite() {
+        when(valueOperations.get("payment-status-1")).thenReturn("PENDING", "COMPLETED");
+        redisService.getValue("payment-status-1");
+
+        redisService.setValue("payment-status-1", "COMPLETED");
+
+        verify(redisTemplate).convertAndSend(eq(NearCache.INVALIDATION_CHANNEL), anyString());
+        assertEquals("COMPLETED", redisService.getValue("payment-status-1"));
+        verify(valueOperations, times(2)).get("payment-status-1");
+    }
+
+    @Test
+    void shouldEvictOnPublishedInvalidation() {
+        doReturn(new StringRedisSerializer()).when(redisTemplate).getValueSerializer();
+        when(valueOperations.get("payment-status-1")).thenReturn("PENDING");
+        redisService.getValue("payment-status-1");
+
+        nearCache.onInvalidation(message("payment-status-1"), null);
+        redisService.getValue("payment-status-1");
+
+        verify(valueOperations, times(2)).get("payment-status-1");
+        assertEquals(1.0, meterRegistry.counter("redis.cache.l1.invalidation.received").count());
+    }
+
+    @Test
+    void shouldReadNearCacheHitsLocallyAndTheRestWithOneMultiGet() {
+        when(valueOperations.get("payment-status-1")).thenReturn("COMPLETED");
+        redisService.getValue("payment-status-1");
+        when(valueOperations.multiGet(List.of("payment-status-2", "payment-status-3"))).thenReturn(Arrays.asList("PENDING", null));
+
+        Map<String, Object> values = redisService.getValues(List.of("payment-status-1", "payment-status-2", "payment-status-3"));
+
+        assertEquals(Map.of("payment-status-1", "COMPLETED", "payment-status-2", "PENDING"), values);
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+        assertEquals(1.0, meterRegistry.counter("redis.cache.miss").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFillOnlyAbsentKeysWithExpirationInOnePipeline() {
+        RedisOperations<String, Object> operations = mock(RedisOperations.class);
+        when(operations.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+            return List.of();
+        });
+
+        redisService.setValuesIfAbsent(Map.of("payment-status-1", "COMPLETED", "payment-status-2", "FAILED"),
+                Duration.ofMinutes(10));
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(valueOperations).setIfAbsent("payment-status-1", "COMPLETED", Duration.ofMinutes(10));
+        verify(valueOperations).setIfAbsent("payment-status-2", "FAILED", Duration.ofMinutes(10));
+        verify(valueOperations, never()).set(anyString(), any());
+    }
+
+    @Test
+    void shouldLoadOnceForConcurrentMissesOfTheSameKey() throws Exception {
+        when(valueOperations.setIfAbsent(eq("lock:payment-status-1"), anyString(), any(Duration.class))).thenReturn(true);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(11);
+        try {
+            Future<String> leader = executor.submit(() -> redisService.getOrLoad("payment-status-1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                awaitQuietly(release);
+                return "COMPLETED";
+            }, Duration.ofMinutes(10)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> redisService.getOrLoad("payment-status-1", () -> {
+                    loads.incrementAndGet();
+                    return "FAILED";
+                }, Duration.ofMinutes(10))));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.counter("redis.cache.load.coalesced").count() < 10 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("COMPLETED", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("COMPLETED", follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(valueOperations, times(1)).setIfAbsent("payment-status-1", "COMPLETED", Duration.ofMinutes(10));
+        verify(redisTemplate, times(1)).execute(any(), eq(List.of("lock:payment-status-1")), any());
+    }
+
+    @Test
+    void shouldWaitForValueLoadedByTheLockHolderOnAnotherNode() {
+        when(valueOperations.setIfAbsent(eq("lock:payment-status-1"), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("payment-status-1")).thenReturn(null, null, "COMPLETED");
+
+        String status = redisService.getOrLoad("payment-status-1", () -> fail("loader must not run"), Duration.ofMinutes(10));
+
+        assertEquals("COMPLETED", status);
+        assertEquals(1.0, meterRegistry.counter("redis.cache.load.lock.contended").count());
+        verify(redisTemplate, never()).execute(any(), anyList(), any());
+    }
+
+    @Test
+    void shouldFallBackToLoaderWhenRedisIsDown() {
+        when(valueOperations.get("payment-status-1")).thenThrow(new IllegalStateException("connection refused"));
+        when(valueOperations.setIfAbsent(eq("lock:payment-status-1"), anyString(), any(Duration.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        when(valueOperations.setIfAbsent("payment-status-1", "PENDING", Duration.ofMinutes(10)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertEquals("PENDING", redisService.getOrLoad("payment-status-1", () -> "PENDING", Duration.ofMinutes(10)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(NearCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,104 @@
+package com.finguard.apifinguardpayments.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusCacheWriteBehindTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatusCacheWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new StatusCacheWriteBehind(redisService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldCoalesceUpdatesAndFlushThemInOnePipeline() {
+        writeBehind.enqueue(1L, "PENDING");
+        writeBehind.enqueue(1L, "COMPLETED");
+        writeBehind.enqueue(2L, "FAILED");
+        writeBehind.enqueueDelete(3L);
+
+        assertEquals(3.0, meterRegistry.get("payment.status.cache.queue.depth").gauge().value());
+
+        writeBehind.flush();
+
+        verify(redisService, times(1)).setValuesWithExpiration(Map.of("payment-status-1", "COMPLETED", "payment-status-2", "FAILED"),
+                PaymentService.STATUS_CACHE_TTL.toSeconds());
+        verify(redisService, times(1)).deleteCachedValues(List.of("payment-status-3"));
+        assertEquals(1.0, meterRegistry.counter("payment.status.cache.coalesced").count());
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    void shouldQueueOnlyAfterTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        writeBehind.enqueue(1L, "COMPLETED");
+
+        assertEquals(0, writeBehind.pendingCount());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, writeBehind.pendingCount());
+    }
+
+    @Test
+    void shouldDropUpdatesOfRolledBackTransactions() {
+        TransactionSynchronizationManager.initSynchronization();
+        writeBehind.enqueue(1L, "COMPLETED");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        writeBehind.flush();
+
+        assertEquals(0, writeBehind.pendingCount());
+        verifyNoInteractions(redisService);
+    }
+
+    @Test
+    void shouldRequeueFailedFlushWithoutOverwritingNewerUpdates() {
+        writeBehind.enqueue(1L, "PENDING");
+        writeBehind.enqueue(2L, "PENDING");
+        doAnswer(invocation -> {
+            writeBehind.enqueue(1L, "COMPLETED");
+            throw new IllegalStateException("redis down");
+        }).when(redisService).setValuesWithExpiration(anyMap(), anyLong());
+
+        writeBehind.flush();
+
+        assertEquals(2, writeBehind.pendingCount());
+        reset(redisService);
+        writeBehind.flush();
+        verify(redisService).setValuesWithExpiration(Map.of("payment-status-1", "COMPLETED", "payment-status-2", "PENDING"),
+                PaymentService.STATUS_CACHE_TTL.toSeconds());
+    }
+}
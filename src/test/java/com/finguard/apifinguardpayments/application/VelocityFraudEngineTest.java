@@ -0,0 +1,181 @@
+package com.finguard.apifinguardpayments.application;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityFraudEngineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VelocityFraudEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("payments.fraud.velocity.payer.max-amount.JPY", "1500000,7500000,30000000")
+                .withProperty("payments.fraud.velocity.payee.max-amount.JPY", "75000000,750000000,7500000000");
+        engine = new VelocityFraudEngine(meterRegistry, environment, true, 1.0, 1000,
+                new long[]{3, 60, 300}, amounts("10000", "50000", "200000"),
+                new long[]{600, 20000, 200000}, amounts("500000", "5000000", "50000000"));
+    }
+
+    @Test
+    void shouldFlagPayerAboveCountLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertFalse(engine.score(payment("payer-1", "payee-" + i, "10.00")).fraudulent());
+        }
+
+        FraudVerdict verdict = engine.score(payment("payer-1", "payee-9", "10.00"));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals(new BigDecimal("1.3333"), verdict.riskScore());
+        assertEquals("Velocity limit exceeded: payer 4 payments above limit 3 in 1m", verdict.reason());
+        assertEquals(VelocityFraudEngine.FLAGGED_BY, verdict.flaggedBy());
+        assertEquals(1.0, meterRegistry.counter("payment.fraud.velocity.flagged").count());
+        assertFalse(engine.score(payment("payer-2", "payee-9", "10.00")).fraudulent());
+    }
+
+    @Test
+    void shouldFlagPayerAboveAmountLimit() {
+        assertFalse(engine.score(payment("payer-1", "payee-1", "6000.00")).fraudulent());
+
+        FraudVerdict verdict = engine.score(payment("payer-1", "payee-1", "6000.00"));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals(new BigDecimal("1.2000"), verdict.riskScore());
+        assertEquals("Velocity limit exceeded: payer amount 12000.00 USD above limit 10000.00 in 1m", verdict.reason());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldSumAmountsPerCurrency() {
+        assertFalse(engine.score(payment("payer-1", "payee-1", "6000.00", Currency.USD)).fraudulent());
+        assertFalse(engine.score(payment("payer-1", "payee-1", "6000.00", Currency.BRL)).fraudulent());
+
+        FraudVerdict verdict = engine.score(payment("payer-1", "payee-1", "6000.00", Currency.USD));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals("Velocity limit exceeded: payer amount 12000.00 USD above limit 10000.00 in 1m", verdict.reason());
+    }
+
+    @Test
+    void shouldCompareAmountsWithTheLimitsOfTheirCurrency() {
+        // ~US$100, well above the default 10000 limit in yen but below the JPY limits
+        FraudVerdict midSize = engine.score(payment("payer-1", "payee-1", "15000", Currency.JPY));
+
+        assertFalse(midSize.fraudulent());
+        // 1 of 3 payments is now the closest to its limit, not 15000 of 1500000 yen
+        assertEquals(new BigDecimal("0.3333"), midSize.riskScore());
+
+        FraudVerdict verdict = engine.score(payment("payer-1", "payee-1", "1500000", Currency.JPY));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals("Velocity limit exceeded: payer amount 1515000.00 JPY above limit 1500000.00 in 1m", verdict.reason());
+    }
+
+    @Test
+    void shouldCountUncommittedPaymentsOfTheTransactionAndDropThemOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 3; i++) {
+            assertFalse(engine.score(payment("payer-1", "payee-" + i, "10.00")).fraudulent());
+        }
+        assertTrue(engine.score(payment("payer-1", "payee-9", "10.00")).fraudulent());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(new BigDecimal("0.3333"), engine.score(payment("payer-1", "payee-1", "10.00")).riskScore());
+    }
+
+    @Test
+    void shouldRecordPaymentsOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 3; i++) {
+            engine.score(payment("payer-1", "payee-" + i, "10.00"));
+        }
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        FraudVerdict verdict = engine.score(payment("payer-1", "payee-9", "10.00"));
+
+        assertTrue(verdict.fraudulent());
+        assertEquals("Velocity limit exceeded: payer 4 payments above limit 3 in 1m", verdict.reason());
+    }
+
+    @Test
+    void shouldNotScoreWhenDisabled() {
+        VelocityFraudEngine disabled = new VelocityFraudEngine(meterRegistry, new MockEnvironment(), false, 1.0, 1000,
+                new long[]{1, 1, 1}, amounts("1", "1", "1"), new long[]{1, 1, 1}, amounts("1", "1", "1"));
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(disabled.score(payment("payer-1", "payee-1", "10.00")).fraudulent());
+        }
+    }
+
+    @Test
+    void shouldRejectLimitsNotCoveringEveryWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new VelocityFraudEngine(meterRegistry, new MockEnvironment(), true, 1.0, 1000,
+                new long[]{3, 60}, amounts("1", "1", "1"), new long[]{1, 1, 1}, amounts("1", "1", "1")));
+    }
+
+    @Test
+    void shouldSlideWindowBucketByBucket() {
+        VelocityWindow window = new VelocityWindow(Duration.ofMinutes(1), 12);
+        long start = 1_000_000_000L;
+
+        window.add(start, 100);
+        window.add(start + 10_000, 200);
+        assertEquals(new VelocityWindow.Totals(2, 300), window.totals(start + 10_000));
+
+        // The first bucket leaves the window one minute after it opened; the second stays for another 10s
+        assertEquals(new VelocityWindow.Totals(1, 200), window.totals(start + 60_000));
+        assertEquals(new VelocityWindow.Totals(0, 0), window.totals(start + 70_000));
+
+        // Same ring slot one lap later: the stale bucket is replaced, not added to, and the second one still counts
+        assertEquals(new VelocityWindow.Totals(2, 250), window.add(start + 60_000, 50));
+    }
+
+    private static BigDecimal[] amounts(String... values) {
+        BigDecimal[] amounts = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            amounts[i] = new BigDecimal(values[i]);
+        }
+        return amounts;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static Payment payment(String payerId, String payeeId, String amount) {
+        return payment(payerId, payeeId, amount, Currency.USD);
+    }
+
+    private static Payment payment(String payerId, String payeeId, String amount, Currency currency) {
+        return new Payment("txn-" + payerId, new BigDecimal(amount), currency, PaymentMethod.PIX, payerId, payeeId, Map.of());
+    }
+}
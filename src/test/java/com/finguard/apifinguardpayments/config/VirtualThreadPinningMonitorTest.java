@@ -0,0 +1,49 @@
+package com.finguard.apifinguardpayments.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void shouldReportVirtualThreadBlockedInsideSynchronizedBlock() throws Exception {
+        monitor.start();
+        assertTrue(monitor.isRunning());
+
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(Duration.ofMillis(50));
+            }
+        });
+        pinned.join();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.counter("jvm.threads.virtual.pinned").count() == 0 && System.nanoTime() < deadline) {
+            sleep(Duration.ofMillis(100));
+        }
+
+        assertTrue(meterRegistry.counter("jvm.threads.virtual.pinned").count() >= 1);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
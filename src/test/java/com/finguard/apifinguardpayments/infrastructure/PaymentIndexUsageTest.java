@@ -0,0 +1,216 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every {@link PaymentRepository} query is answered from the index meant for it.
+ * Each repository method is run once to capture the SQL Hibernate generates; that SQL is then prepared and
+ * explained as a generic plan with sequential scans disabled, so a plan that still contains a Seq Scan means
+ * no index matches the query, and the plan must scan the query's expected indexes. Partition pruning is disabled
+ * as well, otherwise the null parameters of the generic plan would prune every partition out of the plan.
+ * Runs against Postgres and is skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.finguard.apifinguardpayments.infrastructure.PaymentIndexUsageTest$SqlCapture")
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PaymentIndexUsageTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().minusDays(30);
+    private static final LocalDateTime END = LocalDateTime.now();
+    private static final Pattern INDEX_SCAN = Pattern.compile("(?:Index (?:Only )?Scan(?: Backward)? using|Bitmap Index Scan on) (\\S+)");
+    private static final ScrollPosition AFTER_FIRST_PAGE = ScrollPosition.forward(Map.of("createdAt", END, "id", 1_000L));
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15"))
+            .withInitScript("db/init-homologacao-schema.sql");
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldServeEveryRepositoryQueryFromItsIndex() {
+        Map<String, IndexedQuery> queries = new LinkedHashMap<>();
+        queries.put("findById", uses(() -> paymentRepository.findById(1L), "idx_payment_keys_payment_id", "pk_payments"));
+        queries.put("findByTransactionId", uses(() -> paymentRepository.findByTransactionId("txn-1"), "pk_payment_keys", "idx_payments_transaction_id"));
+        queries.put("findByIdempotencyKey", uses(() -> paymentRepository.findByIdempotencyKey("key-1"), "uk_payments_idempotency_key", "pk_payments"));
+        queries.put("findStatusByIdIn", uses(() -> paymentRepository.findStatusByIdIn(List.of(1L, 2L)), "pk_payments"));
+        queries.put("findStatusByTransactionId", uses(() -> paymentRepository.findStatusByTransactionId("txn-1"), "pk_payment_keys", "idx_payments_transaction_id"));
+        queries.put("findExistingTransactionIds", uses(() -> paymentRepository.findExistingTransactionIds(List.of("txn-1", "txn-2")), "pk_payment_keys"));
+        queries.put("findByStatusAndCreatedAtBetween", uses(() -> paymentRepository.findByStatusAndCreatedAtBetween(PaymentStatus.PENDING, START, END), "idx_payments_status_created_at"));
+        queries.put("findByStatusAndCreatedAtBetweenOrderByCreatedAtDescIdDesc", uses(() -> paymentRepository.findByStatusAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(PaymentStatus.PENDING, START, END, AFTER_FIRST_PAGE, Limit.of(50)), "idx_payments_status_created_at"));
+        queries.put("findByStatusAndRefundedAmountLessThanAndCreatedAtBetween", uses(() -> paymentRepository.findByStatusAndRefundedAmountLessThanAndCreatedAtBetween(PaymentStatus.COMPLETED, BigDecimal.TEN, START, END), "idx_payments_status_created_at"));
+        // Both indexes lead with status; a generic plan cannot weigh the retry bound against the date range
+        queries.put("findByStatusAndRetryCountLessThanAndCreatedAtBetween", usesEither(() -> paymentRepository.findByStatusAndRetryCountLessThanAndCreatedAtBetween(PaymentStatus.FAILED, 3, START, END), "idx_payments_status_retry_count", "idx_payments_status_created_at"));
+        queries.put("findByPayerIdAndCreatedAtBetween", uses(() -> paymentRepository.findByPayerIdAndCreatedAtBetween("payer-1", START, END), "idx_payments_payer_created_at"));
+        queries.put("findByPayerIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc", uses(() -> paymentRepository.findByPayerIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc("payer-1", START, END, AFTER_FIRST_PAGE, Limit.of(50)), "idx_payments_payer_created_at"));
+        queries.put("findByPayeeIdAndCreatedAtBetween", uses(() -> paymentRepository.findByPayeeIdAndCreatedAtBetween("payee-1", START, END), "idx_payments_payee_created_at"));
+        queries.put("findByPayeeIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc", uses(() -> paymentRepository.findByPayeeIdAndCreatedAtBetweenOrderByCreatedAtDescIdDesc("payee-1", START, END, AFTER_FIRST_PAGE, Limit.of(50)), "idx_payments_payee_created_at"));
+        queries.put("findByCreatedAtBetween", uses(() -> paymentRepository.findByCreatedAtBetween(START, END), "idx_payments_created_at"));
+        queries.put("findByCreatedAtBetweenOrderByCreatedAtDescIdDesc", uses(() -> paymentRepository.findByCreatedAtBetweenOrderByCreatedAtDescIdDesc(START, END, AFTER_FIRST_PAGE, Limit.of(50)), "idx_payments_created_at"));
+        queries.put("findByIsFraudulentTrueAndCreatedAtBetween", uses(() -> paymentRepository.findByIsFraudulentTrueAndCreatedAtBetween(START, END), "idx_payments_fraudulent_created_at"));
+        // The containment and the range are both selective; with parameters the planner cannot tell which one is more
+        queries.put("findByMetadataEntryAndCreatedAtBetween", usesEither(() -> paymentRepository.findByMetadataEntryAndCreatedAtBetween("invoice", "2024-0042", START, END), "idx_payments_metadata", "idx_payments_created_at"));
+        queries.put("findByIsFraudulentTrueAndCreatedAtBetweenOrderByCreatedAtDescIdDesc", uses(() -> paymentRepository.findByIsFraudulentTrueAndCreatedAtBetweenOrderByCreatedAtDescIdDesc(START, END, AFTER_FIRST_PAGE, Limit.of(50)), "idx_payments_fraudulent_created_at"));
+        // min/max(id) may be read from either end of the primary key or from the range index
+        queries.put("findIdRangeByCreatedAtBetween", usesEither(() -> paymentRepository.findIdRangeByCreatedAtBetween(START, END), "idx_payments_created_at", "pk_payments"));
+        queries.put("streamForExport", uses(() -> {
+            try (Stream<Payment> payments = paymentRepository.streamForExport(null, "payer-1", null, START, END)) {
+                payments.forEach(payment -> { });
+            }
+        }, "idx_payments_payer_created_at"));
+        queries.put("streamForRescoring", usesEither(() -> {
+            try (Stream<Payment> payments = paymentRepository.streamForRescoring(START, END, 1L, 10_000L)) {
+                payments.forEach(payment -> { });
+            }
+        }, "idx_payments_created_at", "pk_payments"));
+
+        List<Executable> checks = new ArrayList<>();
+        queries.forEach((name, indexed) -> {
+            SqlCapture.STATEMENTS.clear();
+            indexed.query().run();
+            List<String> selects = SqlCapture.STATEMENTS.stream().filter(sql -> sql.regionMatches(true, 0, "select", 0, 6)).toList();
+            assertFalse(selects.isEmpty(), name + " issued no query");
+
+            Set<String> used = new HashSet<>();
+            StringBuilder plans = new StringBuilder();
+            for (String sql : selects) {
+                String plan = explain(sql);
+                plans.append(sql).append('\n').append(plan);
+                used.addAll(indexesIn(plan));
+                checks.add(() -> assertFalse(plan.contains("Seq Scan"), name + " scans sequentially:\n" + sql + "\n" + plan));
+            }
+            for (Set<String> expected : indexed.indexes()) {
+                Set<String> names = new HashSet<>();
+                expected.forEach(index -> names.addAll(partitionTree(index)));
+                checks.add(() -> assertFalse(Collections.disjoint(used, names),
+                        name + " does not use " + String.join(" or ", expected) + ":\n" + plans));
+            }
+        });
+        assertAll(checks);
+    }
+
+    private static IndexedQuery uses(Runnable query, String... indexes) {
+        return new IndexedQuery(query, Stream.of(indexes).map(Set::of).toList());
+    }
+
+    private static IndexedQuery usesEither(Runnable query, String index, String alternative) {
+        return new IndexedQuery(query, List.of(Set.of(index, alternative)));
+    }
+
+    /**
+     * Names of the indexes scanned in a plan; an index on the partitioned table shows up as its partitions'
+     * indexes.
+     */
+    private static Set<String> indexesIn(String plan) {
+        Set<String> indexes = new HashSet<>();
+        Matcher matcher = INDEX_SCAN.matcher(plan);
+        while (matcher.find()) {
+            indexes.add(matcher.group(1));
+        }
+        return indexes;
+    }
+
+    /**
+     * An index and, if it is defined on the partitioned table, the index Postgres created for it on each partition
+     * (named after the partition, e.g. {@code payments_2026_10_status_created_at_id_idx}).
+     */
+    private Set<String> partitionTree(String index) {
+        Set<String> names = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_partition_tree(?::regclass) t JOIN pg_class c ON c.oid = t.relid",
+                String.class, "homologacao." + index));
+        names.add(index);
+        return names;
+    }
+
+    /**
+     * Explains the generic plan of a captured statement; its JDBC placeholders become prepared statement
+     * parameters, so the plan does not depend on any particular value.
+     */
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+        String statement = numbered.toString();
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement jdbc = connection.createStatement()) {
+                jdbc.execute("SET enable_seqscan = off");
+                jdbc.execute("SET plan_cache_mode = force_generic_plan");
+                jdbc.execute("SET enable_partition_pruning = off");
+                jdbc.execute("PREPARE index_check AS " + statement);
+                try (ResultSet rows = jdbc.executeQuery("EXPLAIN EXECUTE index_check" + arguments)) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                } finally {
+                    jdbc.execute("DEALLOCATE index_check");
+                    jdbc.execute("RESET enable_seqscan");
+                    jdbc.execute("RESET plan_cache_mode");
+                    jdbc.execute("RESET enable_partition_pruning");
+                }
+            }
+        });
+    }
+
+    private record IndexedQuery(Runnable query, List<Set<String>> indexes) {
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.finguard.apifinguardpayments.infrastructure;
+
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.domain.Refund;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for {@link PaymentRefundRepository#applyRefund}: many threads refund the same payment
+ * at once and the refunded amount must end up exactly at the payment amount, with one refund row per
+ * accepted request. The throughput of the contended refunds is logged and must stay above a loose floor, so
+ * a regression back to a lock held across round trips shows up here. Runs against Postgres and is skipped
+ * when Docker is not available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentRefundConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRefundConcurrencyTest.class);
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 400;
+    private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("100.00");
+    private static final BigDecimal REFUND_AMOUNT = new BigDecimal("0.50");
+    // Far below what a single-statement refund reaches on one row; only a serialization regression falls under it
+    private static final double MIN_ATTEMPTS_PER_SECOND = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15"))
+            .withInitScript("db/init-homologacao-schema.sql");
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldReturnTheFullyLoadedPaymentWithTheRefund() {
+        Payment payment = new Payment("txn-refund-full", PAYMENT_AMOUNT, Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", Map.of("invoice", "2024-0042"));
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment.setDescription("Refundable payment");
+        paymentRepository.saveAndFlush(payment);
+
+        Refund refund = new TransactionTemplate(transactionManager).execute(status -> paymentRepository.applyRefund(
+                "txn-refund-full", REFUND_AMOUNT, LocalDateTime.now(), "test", "partial refund").orElseThrow());
+
+        Payment refunded = refund.getPayment();
+        assertEquals(payment.getId(), refunded.getId());
+        assertEquals(0, REFUND_AMOUNT.compareTo(refunded.getRefundedAmount()));
+        assertEquals(PaymentMethod.PIX, refunded.getPaymentMethod());
+        assertEquals("payer123", refunded.getPayerId());
+        assertEquals("payee456", refunded.getPayeeId());
+        assertEquals("Refundable payment", refunded.getDescription());
+        assertEquals(Map.of("invoice", "2024-0042"), refunded.getMetadata());
+        assertNotNull(refunded.getCreatedAt());
+    }
+
+    @Test
+    void shouldNeverRefundMoreThanThePaymentUnderContention() throws Exception {
+        Payment payment = new Payment("txn-refund-stress", PAYMENT_AMOUNT, Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", Map.of());
+        payment.setStatus(PaymentStatus.COMPLETED);
+        paymentRepository.saveAndFlush(payment);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return transactionTemplate.execute(status -> paymentRepository.applyRefund(
+                        "txn-refund-stress", REFUND_AMOUNT, LocalDateTime.now(), "stress-test", "concurrent refund"
+                ).isPresent());
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        executor.shutdown();
+
+        double seconds = elapsed.toNanos() / 1e9;
+        double attemptsPerSecond = ATTEMPTS / seconds;
+        log.info("Contended refunds: threads={}, attempts={}, accepted={}, elapsed={}ms, attempts/s={}, refunds/s={}",
+                THREADS, ATTEMPTS, accepted, elapsed.toMillis(), Math.round(attemptsPerSecond), Math.round(accepted / seconds));
+
+        int expected = PAYMENT_AMOUNT.divide(REFUND_AMOUNT).intValueExact();
+        assertEquals(expected, accepted);
+        assertEquals(0, PAYMENT_AMOUNT.compareTo(jdbcTemplate.queryForObject(
+                "SELECT refunded_amount FROM homologacao.payments WHERE transaction_id = 'txn-refund-stress'", BigDecimal.class)));
+        assertEquals(expected, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM homologacao.refunds WHERE payment_id = ?", Integer.class, payment.getId()));
+        assertTrue(attemptsPerSecond >= MIN_ATTEMPTS_PER_SECOND,
+                "Contended refunds ran at " + Math.round(attemptsPerSecond) + " attempts/s, below " + MIN_ATTEMPTS_PER_SECOND);
+    }
+}
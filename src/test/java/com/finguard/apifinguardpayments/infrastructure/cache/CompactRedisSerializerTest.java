@@ -0,0 +1,106 @@
+package com.finguard.apifinguardpayments.infrastructure.cache;
+
+import com.finguard.apifinguardpayments.config.RedisConfig;
+import com.finguard.apifinguardpayments.domain.Currency;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = RedisConfig.jsonSerializer();
+    private final CompactRedisSerializer serializer = CompactRedisSerializer.withPaymentCodecs(json);
+
+    @Test
+    void shouldStoreStatusNamesInThreeBytes() {
+        byte[] bytes = serializer.serialize("COMPLETED");
+
+        assertEquals(3, bytes.length);
+        assertEquals("COMPLETED", serializer.deserialize(bytes));
+        assertEquals(PaymentStatus.FAILED, serializer.deserialize(serializer.serialize(PaymentStatus.FAILED)));
+    }
+
+    @Test
+    void shouldRoundTripSnapshotSmallerThanJson() {
+        PaymentResponseDTO snapshot = snapshot();
+
+        byte[] bytes = serializer.serialize(snapshot);
+        PaymentResponseDTO decoded = (PaymentResponseDTO) serializer.deserialize(bytes);
+
+        assertTrue(bytes.length < json.serialize(snapshot).length / 2);
+        assertEquals(snapshot.getId(), decoded.getId());
+        assertEquals(snapshot.getTransactionId(), decoded.getTransactionId());
+        assertEquals(snapshot.getAmount(), decoded.getAmount());
+        assertEquals(snapshot.getCurrency(), decoded.getCurrency());
+        assertEquals(snapshot.getStatus(), decoded.getStatus());
+        assertEquals(snapshot.getPaymentMethod(), decoded.getPaymentMethod());
+        assertEquals(Boolean.FALSE, decoded.getFraudulent());
+        assertEquals(snapshot.getMetadata(), decoded.getMetadata());
+        assertEquals(snapshot.getCreatedAt(), decoded.getCreatedAt());
+        assertNull(decoded.getRecurrence());
+        assertNull(decoded.getPaymentDate());
+    }
+
+    @Test
+    void shouldFallBackToJsonForOtherTypes() {
+        Map<String, Object> value = new HashMap<>(Map.of("attempts", 3));
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals(CompactRedisSerializer.FORMAT_VERSION, bytes[0]);
+        assertEquals(CompactRedisSerializer.JSON_TAG, bytes[1]);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void shouldReadEntriesWrittenByTheJsonSerializer() {
+        assertEquals("PENDING", serializer.deserialize(json.serialize("PENDING")));
+        assertEquals("txn123", ((PaymentResponseDTO) serializer.deserialize(json.serialize(snapshot()))).getTransactionId());
+    }
+
+    @Test
+    void shouldRejectTypeHintsOutsideTheApplicationAndJdkValueTypes() {
+        byte[] foreign = "[\"java.io.File\",\"/etc/passwd\"]".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> json.deserialize(foreign));
+
+        Payment payment = new Payment("txn123", new BigDecimal("10.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee123", Map.of("invoice", "2024-0042"));
+        Payment decoded = (Payment) json.deserialize(json.serialize(payment));
+        assertEquals("txn123", decoded.getTransactionId());
+        assertEquals(Map.of("invoice", "2024-0042"), decoded.getMetadata());
+    }
+
+    @Test
+    void shouldTreatUnknownFormatVersionAsMiss() {
+        assertNull(serializer.deserialize(new byte[]{0x02, StringCodec.TAG, 0, 0, 0, 0}));
+    }
+
+    private PaymentResponseDTO snapshot() {
+        PaymentResponseDTO snapshot = new PaymentResponseDTO();
+        snapshot.setId(42L);
+        snapshot.setTransactionId("txn123");
+        snapshot.setAmount(new BigDecimal("1520.7500"));
+        snapshot.setCurrency(Currency.BRL);
+        snapshot.setStatus(PaymentStatus.COMPLETED);
+        snapshot.setPaymentMethod(PaymentMethod.PIX);
+        snapshot.setFraudulent(false);
+        snapshot.setPayerId("payer123");
+        snapshot.setPayeeId("payee123");
+        snapshot.setMetadata(Map.of("invoice", "2024-0042"));
+        snapshot.setCreatedAt(LocalDateTime.of(2024, 5, 10, 14, 29, 1, 123456000));
+        return snapshot;
+    }
+}
@@ -0,0 +1,130 @@
+package com.finguard.apifinguardpayments.kafka.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.PaymentStatusBatchService;
+import com.finguard.apifinguardpayments.domain.Payment;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaConsumerTest {
+
+    @Mock
+    private PaymentStatusBatchService paymentStatusBatchService;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaConsumer kafkaConsumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaConsumer = new KafkaConsumer(meterRegistry, new ObjectMapper(), paymentStatusBatchService);
+    }
+
+    @Test
+    void shouldApplyLatestStatusPerPaymentAndAcknowledgeOnce() {
+        when(paymentStatusBatchService.applyStatusUpdates(anyMap())).thenReturn(List.of(payment("txn1"), payment("txn2")));
+
+        kafkaConsumer.listen(List.of(
+                record(0, "{\"transactionId\":\"txn1\",\"status\":\"PENDING\"}"),
+                record(1, "{\"transactionId\":\"txn2\",\"status\":\"FAILED\"}"),
+                record(2, "{\"transactionId\":\"txn1\",\"status\":\"COMPLETED\"}")
+        ), ack);
+
+        Map<String, PaymentStatus> expected = new LinkedHashMap<>();
+        expected.put("txn1", PaymentStatus.COMPLETED);
+        expected.put("txn2", PaymentStatus.FAILED);
+        verify(paymentStatusBatchService, times(1)).applyStatusUpdates(expected);
+        verify(ack, times(1)).acknowledge();
+    }
+
+    @Test
+    void shouldSkipInvalidRecordsWithoutFailingTheBatch() {
+        when(paymentStatusBatchService.applyStatusUpdates(anyMap())).thenReturn(List.of(payment("txn1")));
+
+        kafkaConsumer.listen(List.of(
+                record(0, "not-json"),
+                record(1, "{\"transactionId\":\"txn1\",\"status\":\"COMPLETED\"}"),
+                record(2, "{\"transactionId\":\"txn2\",\"status\":\"UNKNOWN\"}"),
+                record(3, "{\"status\":\"COMPLETED\"}")
+        ), ack);
+
+        verify(paymentStatusBatchService).applyStatusUpdates(Map.of("txn1", PaymentStatus.COMPLETED));
+        verify(ack, times(1)).acknowledge();
+        assertEquals(3.0, meterRegistry.get("kafka.consumer.errors").tag("reason", "invalid").counter().count());
+    }
+
+    @Test
+    void shouldNotAcknowledgeWhenTheBatchCannotBeApplied() {
+        when(paymentStatusBatchService.applyStatusUpdates(anyMap())).thenThrow(new IllegalStateException("database unavailable"));
+
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "{\"transactionId\":\"txn1\",\"status\":\"COMPLETED\"}"));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class, () -> kafkaConsumer.listen(records, ack));
+        assertEquals(0, ex.getIndex());
+        verify(ack, never()).acknowledge();
+        assertEquals(1.0, meterRegistry.get("kafka.consumer.batch.errors").counter().count());
+    }
+
+    @Test
+    void shouldPointTheErrorHandlerAtThePoisonRecordOnly() {
+        when(paymentStatusBatchService.applyStatusUpdates(anyMap())).thenAnswer(invocation -> {
+            Map<String, PaymentStatus> updates = invocation.getArgument(0);
+            if (updates.containsKey("poison")) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return updates.keySet().stream().map(KafkaConsumerTest::payment).toList();
+        });
+
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "{\"transactionId\":\"txn2\",\"status\":\"PENDING\"}"),
+                record(1, "{\"transactionId\":\"txn1\",\"status\":\"COMPLETED\"}"),
+                record(2, "{\"transactionId\":\"poison\",\"status\":\"COMPLETED\"}"),
+                record(3, "{\"transactionId\":\"txn2\",\"status\":\"FAILED\"}"));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class, () -> kafkaConsumer.listen(records, ack));
+
+        // Records before the poison one are applied; txn2's winning record comes after it and is redelivered
+        assertEquals(2, ex.getIndex());
+        verify(paymentStatusBatchService).applyStatusUpdates(Map.of("txn1", PaymentStatus.COMPLETED));
+        verify(paymentStatusBatchService, never()).applyStatusUpdates(Map.of("txn2", PaymentStatus.FAILED));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void shouldBucketBatchSizes() {
+        assertEquals("1", KafkaConsumer.sizeBucket(1));
+        assertEquals("11-100", KafkaConsumer.sizeBucket(50));
+        assertEquals("500+", KafkaConsumer.sizeBucket(501));
+    }
+
+    private ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("payment-events", 0, offset, null, value);
+    }
+
+    private static Payment payment(String transactionId) {
+        Payment payment = new Payment();
+        payment.setId(1L);
+        payment.setTransactionId(transactionId);
+        return payment;
+    }
+}
@@ -0,0 +1,119 @@
+package com.finguard.apifinguardpayments.kafka.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.PaymentIngestService;
+import com.finguard.apifinguardpayments.kafka.event.PaymentIngestEvent;
+import com.finguard.apifinguardpayments.kafka.producer.KafkaProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentIngestConsumerTest {
+
+    @Mock
+    private PaymentIngestService paymentIngestService;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentIngestConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new PaymentIngestConsumer(meterRegistry, new ObjectMapper().findAndRegisterModules(), paymentIngestService);
+    }
+
+    @Test
+    void shouldPersistThePollInOneCallAndAcknowledgeOnce() {
+        when(paymentIngestService.persistAccepted(anyList())).thenReturn(2);
+
+        consumer.listen(List.of(
+                record(0, "{\"transactionId\":\"txn1\",\"amount\":100.00,\"currency\":\"BRL\",\"paymentMethod\":\"PIX\",\"payerId\":\"payer1\",\"payeeId\":\"payee1\",\"acceptedAt\":\"2024-05-01T10:00:00\"}"),
+                record(1, "not-json"),
+                record(2, "{\"transactionId\":\"txn2\",\"amount\":50.00,\"currency\":\"BRL\",\"paymentMethod\":\"PIX\",\"payerId\":\"payer1\",\"payeeId\":\"payee2\"}"),
+                record(3, "{\"amount\":50.00}")
+        ), ack);
+
+        ArgumentCaptor<List<PaymentIngestEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(paymentIngestService, times(1)).persistAccepted(events.capture());
+        assertEquals(List.of("txn1", "txn2"), events.getValue().stream().map(PaymentIngestEvent::getTransactionId).toList());
+        verify(ack, times(1)).acknowledge();
+        assertEquals(2.0, meterRegistry.counter("payment.ingest.invalid").count());
+        verify(paymentIngestService, never()).markFailed(anyString());
+    }
+
+    @Test
+    void shouldMarkMalformedRecordsFailedByTheirEventIdHeader() {
+        when(paymentIngestService.persistAccepted(anyList())).thenReturn(0);
+        ConsumerRecord<String, String> broken = record(0, "{\"transactionId\":\"txn1\",\"amount\":");
+        broken.headers().add(KafkaProducer.EVENT_ID_HEADER, "txn1".getBytes(StandardCharsets.UTF_8));
+
+        consumer.listen(List.of(broken, record(1, "not-json")), ack);
+
+        verify(paymentIngestService).markFailed("txn1");
+        verify(paymentIngestService, times(1)).markFailed(anyString());
+        verify(ack).acknowledge();
+        assertEquals(2.0, meterRegistry.counter("payment.ingest.invalid").count());
+    }
+
+    @Test
+    void shouldNotAcknowledgeWhenTheBatchCannotBePersisted() {
+        when(paymentIngestService.persistAccepted(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "{\"transactionId\":\"txn1\",\"payerId\":\"payer1\"}"));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class, () -> consumer.listen(records, ack));
+        assertEquals(0, ex.getIndex());
+        verify(ack, never()).acknowledge();
+        assertEquals(1.0, meterRegistry.counter("payment.ingest.batch.errors").count());
+    }
+
+    @Test
+    void shouldPersistTheRecordsBeforeAPoisonedOneAndPointTheErrorHandlerAtIt() {
+        when(paymentIngestService.persistAccepted(anyList())).thenAnswer(invocation -> {
+            List<PaymentIngestEvent> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> "poison".equals(event.getTransactionId()))) {
+                throw new IllegalStateException("value too long for type character varying(3)");
+            }
+            return events.size();
+        });
+
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "{\"transactionId\":\"txn1\",\"payerId\":\"payer1\"}"),
+                record(1, "not-json"),
+                record(2, "{\"transactionId\":\"poison\",\"payerId\":\"payer1\"}"),
+                record(3, "{\"transactionId\":\"txn2\",\"payerId\":\"payer1\"}"));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class, () -> consumer.listen(records, ack));
+
+        // txn1 is persisted on its own and committed; txn2 comes after the poisoned record and is redelivered
+        assertEquals(2, ex.getIndex());
+        ArgumentCaptor<List<PaymentIngestEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(paymentIngestService, times(3)).persistAccepted(events.capture());
+        assertEquals(List.of("txn1"), events.getAllValues().get(1).stream().map(PaymentIngestEvent::getTransactionId).toList());
+        assertEquals(List.of("poison"), events.getAllValues().get(2).stream().map(PaymentIngestEvent::getTransactionId).toList());
+        verify(ack, never()).acknowledge();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("payment-ingest", 0, offset, "payer1", value);
+    }
+}
@@ -0,0 +1,138 @@
+package com.finguard.apifinguardpayments.kafka.producer;
+
+import com.finguard.apifinguardpayments.domain.OutboxEvent;
+import com.finguard.apifinguardpayments.domain.PaymentEventType;
+import com.finguard.apifinguardpayments.infrastructure.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "payment-lifecycle-events";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaProducer, transactionManager, meterRegistry,
+                TOPIC, 10, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofDays(7));
+    }
+
+    @Test
+    void shouldClaimThenPublishPendingEventsKeyedByTransactionId() {
+        OutboxEvent first = event(1L, "evt-1", "txn-1");
+        OutboxEvent second = event(2L, "evt-2", "txn-2");
+        when(outboxEventRepository.tryAcquireRelayLock()).thenReturn(true);
+        when(outboxEventRepository.claimPending(any(LocalDateTime.class), eq(10))).thenReturn(List.of(first, second));
+        when(kafkaProducer.sendEvent(eq(TOPIC), anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertEquals(2, relayed);
+        InOrder inOrder = inOrder(outboxEventRepository, kafkaProducer, transactionManager);
+        inOrder.verify(outboxEventRepository).lease(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(kafkaProducer).sendEvent(TOPIC, "txn-1", "evt-1", "{}");
+        inOrder.verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(kafkaProducer).sendEvent(TOPIC, "txn-2", "evt-2", "{}");
+        assertEquals(2.0, meterRegistry.counter("payment.outbox.published").count());
+    }
+
+    @Test
+    void shouldRescheduleFailedEventsWithBackoff() {
+        OutboxEvent delivered = event(1L, "evt-1", "txn-1");
+        OutboxEvent failed = event(2L, "evt-2", "txn-2");
+        when(outboxEventRepository.tryAcquireRelayLock()).thenReturn(true);
+        when(outboxEventRepository.claimPending(any(LocalDateTime.class), anyInt())).thenReturn(List.of(delivered, failed));
+        when(kafkaProducer.sendEvent(TOPIC, "txn-1", "evt-1", "{}"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaProducer.sendEvent(TOPIC, "txn-2", "evt-2", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        outboxRelay.relayBatch();
+
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository).markFailed(eq(2L), eq("broker unavailable"), nextAttempt.capture());
+        assertTrue(nextAttempt.getValue().isAfter(failed.getCreatedAt()));
+        assertEquals(1.0, meterRegistry.counter("payment.outbox.failed").count());
+    }
+
+    @Test
+    void shouldHoldBackLaterEventsOfAPaymentOnceOneFails() {
+        OutboxEvent created = event(1L, "evt-1", "txn-1");
+        OutboxEvent completed = event(2L, "evt-2", "txn-1");
+        OutboxEvent other = event(3L, "evt-3", "txn-2");
+        OutboxEvent otherCompleted = event(4L, "evt-4", "txn-2");
+        when(outboxEventRepository.tryAcquireRelayLock()).thenReturn(true);
+        when(outboxEventRepository.claimPending(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(created, other, completed, otherCompleted));
+        when(kafkaProducer.sendEvent(TOPIC, "txn-1", "evt-1", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaProducer.sendEvent(eq(TOPIC), eq("txn-2"), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertEquals(4, outboxRelay.relayBatch());
+
+        verify(kafkaProducer, never()).sendEvent(TOPIC, "txn-1", "evt-2", "{}");
+        InOrder inOrder = inOrder(kafkaProducer);
+        inOrder.verify(kafkaProducer).sendEvent(TOPIC, "txn-2", "evt-3", "{}");
+        inOrder.verify(kafkaProducer).sendEvent(TOPIC, "txn-2", "evt-4", "{}");
+        verify(outboxEventRepository).markPublished(eq(List.of(3L, 4L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markFailed(eq(1L), eq("broker unavailable"), any(LocalDateTime.class));
+        verify(outboxEventRepository).lease(eq(List.of(2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldSkipWhenAnotherNodeHoldsTheRelayLock() {
+        when(outboxEventRepository.tryAcquireRelayLock()).thenReturn(false);
+
+        assertEquals(0, outboxRelay.relayBatch());
+        verify(outboxEventRepository, never()).claimPending(any(), anyInt());
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    @Test
+    void shouldCapExponentialBackoff() {
+        assertEquals(Duration.ofSeconds(1), outboxRelay.backoff(1));
+        assertEquals(Duration.ofSeconds(8), outboxRelay.backoff(4));
+        assertEquals(Duration.ofSeconds(30), outboxRelay.backoff(10));
+    }
+
+    private OutboxEvent event(Long id, String eventId, String transactionId) {
+        OutboxEvent event = new OutboxEvent(eventId, transactionId, PaymentEventType.PAYMENT_CREATED, "{}");
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
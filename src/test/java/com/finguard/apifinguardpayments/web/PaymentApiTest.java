@@ -1,12 +1,25 @@
 package com.finguard.apifinguardpayments.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finguard.apifinguardpayments.application.PaymentBatchService;
+import com.finguard.apifinguardpayments.application.PaymentExportService;
+import com.finguard.apifinguardpayments.application.IdempotencyKeyReusedException;
+import com.finguard.apifinguardpayments.application.PaymentIdempotencyService;
+import com.finguard.apifinguardpayments.application.PaymentIngestService;
+import com.finguard.apifinguardpayments.application.PaymentQueryService;
 import com.finguard.apifinguardpayments.application.PaymentService;
+import com.finguard.apifinguardpayments.application.PaymentStatistics;
 import com.finguard.apifinguardpayments.domain.Currency;
 import com.finguard.apifinguardpayments.domain.Payment;
 import com.finguard.apifinguardpayments.domain.PaymentMethod;
+import com.finguard.apifinguardpayments.domain.PaymentStatus;
 import com.finguard.apifinguardpayments.web.api.PaymentApi;
 import com.finguard.apifinguardpayments.web.request.PaymentRequestDTO;
+import com.finguard.apifinguardpayments.web.response.BatchPaymentResultDTO;
+import com.finguard.apifinguardpayments.web.response.CursorPageResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentResponseDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentStatsDTO;
+import com.finguard.apifinguardpayments.web.response.PaymentSummaryDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,14 +27,33 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PaymentApi.class)
@@ -34,6 +66,24 @@ public class PaymentApiTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private PaymentIdempotencyService paymentIdempotencyService;
+
+    @MockBean
+    private PaymentBatchService paymentBatchService;
+
+    @MockBean
+    private PaymentQueryService paymentQueryService;
+
+    @MockBean
+    private PaymentExportService paymentExportService;
+
+    @MockBean
+    private PaymentStatistics paymentStatistics;
+
+    @MockBean
+    private PaymentIngestService paymentIngestService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -61,35 +111,106 @@ public class PaymentApiTest {
     }
 
     @Test
-    public void shouldGetPaymentById() throws Exception {
-        Payment payment = new Payment(
-                "txn123",
-                BigDecimal.valueOf(100.00),
-                Currency.USD,
-                PaymentMethod.CREDIT_CARD,
-                "payer123",
-                "payee123",
-                Collections.emptyMap()
+    public void shouldCreatePaymentThroughIdempotencyKey() throws Exception {
+        PaymentRequestDTO request = new PaymentRequestDTO(
+                new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Collections.emptyMap()
         );
+        Payment payment = new Payment("txn123", request.getAmount(), request.getCurrency(),
+                request.getPaymentMethod(), request.getPayerId(), request.getPayeeId(), request.getMetadata());
+
+        when(paymentIdempotencyService.createPayment(eq("key-1"), any(PaymentRequestDTO.class))).thenReturn(payment);
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("txn123"));
+    }
+
+    @Test
+    public void shouldRejectAnIdempotencyKeyReusedWithAnotherRequest() throws Exception {
+        PaymentRequestDTO request = new PaymentRequestDTO(
+                new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Collections.emptyMap()
+        );
+        when(paymentIdempotencyService.createPayment(eq("key-1"), any(PaymentRequestDTO.class)))
+                .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void shouldAcceptPaymentAsynchronouslyWhenIngestIsEnabled() throws Exception {
+        PaymentRequestDTO request = new PaymentRequestDTO(
+                new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Collections.emptyMap()
+        );
+        when(paymentIngestService.isAsyncEnabled()).thenReturn(true);
+        when(paymentIngestService.accept(any(PaymentRequestDTO.class))).thenReturn("txn123");
+
+        mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/payments/cache/status/transaction/txn123"))
+                .andExpect(jsonPath("$.transactionId").value("txn123"))
+                .andExpect(jsonPath("$.status").value("ACCEPTED"));
+        verify(paymentService, never()).createPayment(any());
+    }
+
+    @Test
+    public void shouldKeepIdempotentCreatesSynchronousWhenIngestIsEnabled() throws Exception {
+        PaymentRequestDTO request = new PaymentRequestDTO(
+                new BigDecimal("100.00"), Currency.BRL, PaymentMethod.PIX,
+                "payer123", "payee456", "Test Payment", Collections.emptyMap()
+        );
+        Payment payment = new Payment("txn123", request.getAmount(), request.getCurrency(),
+                request.getPaymentMethod(), request.getPayerId(), request.getPayeeId(), request.getMetadata());
+        when(paymentIngestService.isAsyncEnabled()).thenReturn(true);
+        when(paymentIdempotencyService.createPayment(eq("key-1"), any(PaymentRequestDTO.class))).thenReturn(payment);
+
+        mockMvc.perform(post("/api/payments")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("txn123"));
+        verify(paymentIngestService, never()).accept(any());
+    }
+
+    @Test
+    public void shouldGetStatusByTransactionId() throws Exception {
+        when(paymentIngestService.getStatus("txn123")).thenReturn("ACCEPTED");
+
+        mockMvc.perform(get("/api/payments/cache/status/transaction/txn123"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ACCEPTED"));
+        mockMvc.perform(get("/api/payments/cache/status/transaction/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldGetPaymentById() throws Exception {
+        PaymentResponseDTO payment = samplePaymentResponse();
 
         when(paymentService.getPaymentById(1L)).thenReturn(payment);
 
         mockMvc.perform(get("/api/payments/1")
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.transactionId").value("txn123"));
     }
 
     @Test
     public void shouldGetPaymentByTransactionId() throws Exception {
-        Payment payment = new Payment(
-                "txn123",
-                BigDecimal.valueOf(100.00),
-                Currency.USD,
-                PaymentMethod.CREDIT_CARD,
-                "payer123",
-                "payee123",
-                Collections.emptyMap()
-        );
+        PaymentResponseDTO payment = samplePaymentResponse();
 
         when(paymentService.getPaymentByTransactionId("txn123")).thenReturn(payment);
 
@@ -97,4 +218,131 @@ public class PaymentApiTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void shouldCreatePaymentsInBatch() throws Exception {
+        PaymentRequestDTO valid = new PaymentRequestDTO(BigDecimal.valueOf(100.00), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "payer123", "payee123", null, null);
+        PaymentRequestDTO invalid = new PaymentRequestDTO();
+
+        when(paymentBatchService.createPayments(anyList())).thenReturn(List.of(
+                BatchPaymentResultDTO.created(0, 1L, "txn123", PaymentStatus.PENDING),
+                BatchPaymentResultDTO.rejected(1, "Payer ID cannot be null or empty")
+        ));
+
+        mockMvc.perform(post("/api/payments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                .andExpect(jsonPath("$[1].outcome").value("REJECTED"));
+    }
+
+    @Test
+    public void shouldGetPaymentsByStatusPage() throws Exception {
+        PaymentSummaryDTO payment = new PaymentSummaryDTO();
+        payment.setId(1L);
+        payment.setTransactionId("txn123");
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment.setFraudulent(false);
+        payment.setMetadata(Map.of("invoice", "2024-0042"));
+
+        when(paymentQueryService.getPaymentsByStatus(eq(PaymentStatus.COMPLETED), any(LocalDateTime.class),
+                eq(LocalDateTime.parse("2024-06-30T00:00:00")), eq("abc"), eq(10)))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(payment), "next"));
+
+        mockMvc.perform(get("/api/payments/status/COMPLETED/page")
+                        .param("endDate", "2024-06-30T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Created-At-Start", "2024-04-01T00:00"))
+                .andExpect(header().string("X-Created-At-End", "2024-06-30T00:00"))
+                .andExpect(jsonPath("$.items[0].transactionId").value("txn123"))
+                .andExpect(jsonPath("$.items[0].fraudulent").value(false))
+                .andExpect(jsonPath("$.items[0].metadata.invoice").value("2024-0042"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void shouldStreamPaymentsAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(5);
+            out.write("{\"transactionId\":\"txn123\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(paymentExportService).exportPayments(eq(PaymentStatus.COMPLETED), isNull(), isNull(),
+                eq(LocalDateTime.parse("2024-01-01T00:00:00")), eq(LocalDateTime.parse("2024-06-30T00:00:00")), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/payments/export")
+                        .param("status", "COMPLETED")
+                        .param("startDate", "2024-01-01T00:00:00")
+                        .param("endDate", "2024-06-30T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"transactionId\":\"txn123\"}\n"));
+    }
+
+    @Test
+    public void shouldRequireBothExportBounds() throws Exception {
+        mockMvc.perform(get("/api/payments/export").param("status", "COMPLETED"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/payments/export").param("startDate", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(paymentExportService, never()).exportPayments(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldRejectAnInvertedExportRangeBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/payments/export")
+                        .param("startDate", "2024-06-30T00:00:00")
+                        .param("endDate", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(paymentExportService, never()).exportPayments(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldGetCachedStatusesForManyIds() throws Exception {
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        statuses.put(1L, "COMPLETED");
+        statuses.put(3L, "PENDING");
+        when(paymentService.getCachedPaymentStatuses(List.of(1L, 2L, 3L))).thenReturn(statuses);
+
+        mockMvc.perform(get("/api/payments/cache/status").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value("COMPLETED"))
+                .andExpect(jsonPath("$.3").value("PENDING"))
+                .andExpect(jsonPath("$.2").doesNotExist());
+    }
+
+    @Test
+    public void shouldServePaymentStatsFromCounters() throws Exception {
+        when(paymentStatistics.snapshot()).thenReturn(new PaymentStatsDTO(3,
+                Map.of("COMPLETED", 2L, "PENDING", 1L), Map.of("BRL", 3L), Map.of("PIX", 3L), LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/payments/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.COMPLETED").value(2))
+                .andExpect(jsonPath("$.byCurrency.BRL").value(3));
+    }
+
+    private PaymentResponseDTO samplePaymentResponse() {
+        PaymentResponseDTO payment = new PaymentResponseDTO();
+        payment.setId(1L);
+        payment.setTransactionId("txn123");
+        payment.setAmount(BigDecimal.valueOf(100.00));
+        payment.setCurrency(Currency.USD);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        payment.setPayerId("payer123");
+        payment.setPayeeId("payee123");
+        payment.setMetadata(Collections.emptyMap());
+        return payment;
+    }
 }
\ No newline at end of file